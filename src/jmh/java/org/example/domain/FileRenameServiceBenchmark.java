@@ -0,0 +1,129 @@
+package org.example.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * FileRenameServiceImpl.renameFiles 로 폴더 하나의 파일 전체 이름을 바꾸는 비용을 측정합니다.
+ *
+ * 디스크 성능의 영향을 줄이기 위해 기본적으로 tmpfs(/dev/shm)에 파일을 만듭니다.
+ * 호출마다 두 패턴(a[0-9].dat ↔ b[0-9].dat)을 번갈아 적용하므로 파일을 다시 만들 필요가 없습니다.
+ * 한 번의 호출이 길기 때문에 SingleShotTime 으로 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileRenameServiceBenchmark {
+
+    private static final String[] PATTERNS = {"a[0-9].dat", "b[0-9].dat"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int fileCount;
+
+    private final FileRenameService service = new FileRenameServiceImpl();
+    private Path directory;
+    private int currentPattern;
+    private List<File> files;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        directory = Files.createTempDirectory(benchmarkRoot(), "rename-bench-");
+        NameTemplate template = NameTemplate.compile(PATTERNS[0]);
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 1; i <= fileCount; i++) {
+            Files.createFile(directory.resolve(template.format(buffer, i)));
+        }
+        currentPattern = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void listCurrentFiles() {
+        NameTemplate template = NameTemplate.compile(PATTERNS[currentPattern]);
+        StringBuilder buffer = new StringBuilder();
+        files = new ArrayList<>(fileCount);
+        for (int i = 1; i <= fileCount; i++) {
+            files.add(directory.resolve(template.format(buffer, i)).toFile());
+        }
+    }
+
+    @Benchmark
+    public int renameAll() {
+        int next = 1 - currentPattern;
+        CountingCallback callback = new CountingCallback();
+        service.renameFiles(files, PATTERNS[next], 1, callback);
+        if (callback.renamed != fileCount) {
+            throw new IllegalStateException("renamed " + callback.renamed + " of " + fileCount
+                    + " (exists " + callback.exists + ", errors " + callback.errors + ")");
+        }
+        currentPattern = next;
+        return callback.renamed;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static Path benchmarkRoot() {
+        String configured = System.getProperty("jmh.rename.dir");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        Path shm = Paths.get("/dev/shm");
+        return Files.isDirectory(shm) && Files.isWritable(shm) ? shm : Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    private static final class CountingCallback implements FileRenameService.RenamingCallback {
+        int renamed;
+        int exists;
+        int errors;
+
+        @Override
+        public void onRenamed(File oldFile, File newFile) {
+            renamed++;
+        }
+
+        @Override
+        public void onExists(File newFile) {
+            exists++;
+        }
+
+        @Override
+        public void onComplete(int count) {
+        }
+
+        @Override
+        public void onError(File file, Exception e) {
+            errors++;
+        }
+    }
+}
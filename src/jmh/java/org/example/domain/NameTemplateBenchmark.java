@@ -0,0 +1,55 @@
+package org.example.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파일 이름 하나를 만드는 비용(패턴 확장)만 측정합니다.
+ * 이전 구현의 replaceFirst 경로와 미리 컴파일한 NameTemplate 을 비교합니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameTemplateBenchmark {
+
+    @Param({"A0[0-9].smi", "episode-[0-9]-final-cut.mkv"})
+    public String pattern;
+
+    private NameTemplate template;
+    private final StringBuilder buffer = new StringBuilder();
+    private int number;
+
+    @Setup
+    public void compile() {
+        template = NameTemplate.compile(pattern);
+    }
+
+    @Benchmark
+    public String replaceFirst() {
+        return pattern.replaceFirst("\\[0-9]", Integer.toString(number++));
+    }
+
+    @Benchmark
+    public String templateFormat() {
+        return template.format(buffer, number++);
+    }
+
+    @Benchmark
+    public NameTemplate templateCompile() {
+        return NameTemplate.compile(pattern);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.state;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileRenameState 의 목록 복사(getFileList)와 로그 추가/조회 비용을 측정합니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileRenameStateBenchmark {
+
+    @Param({"1000", "100000"})
+    public int fileCount;
+
+    private FileRenameState state;
+    private long logSequence;
+
+    @Setup
+    public void fillState() {
+        state = new FileRenameState();
+        for (int i = 0; i < fileCount; i++) {
+            state.addFile(new File("/bench/dir" + (i % 100), "file-" + i + ".dat"));
+        }
+        for (int i = 0; i < state.getLogCapacity(); i++) {
+            state.addLog("파일 추가됨: /bench/file-" + i + ".dat");
+        }
+        logSequence = state.getLogSequence();
+    }
+
+    @Benchmark
+    public List<File> copyFileList() {
+        return state.getFileList();
+    }
+
+    @Benchmark
+    public File fileAt() {
+        return state.getFileAt(fileCount / 2);
+    }
+
+    @Benchmark
+    public List<String> addLogAndReadNew() {
+        state.addLog("총 1개의 파일명이 변경되었습니다.");
+        List<String> lines = state.getLogMessagesSince(logSequence);
+        logSequence = state.getLogSequence();
+        return lines;
+    }
+
+    @Benchmark
+    public List<String> readAllLogs() {
+        return state.getLogMessages();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.viewmodel;
+
+import org.example.domain.FileRenameService;
+import org.example.domain.RenameNamer;
+import org.example.intent.AddFilesIntent;
+import org.example.intent.RenameFilesIntent;
+import org.example.state.FileRenameState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileRenameViewModel.processIntent 의 ADD / RENAME 처리 비용을 측정합니다.
+ *
+ * 디스크 접근을 빼고 ViewModel 과 상태 갱신 비용만 보기 위해, RENAME 은 이동 없이 콜백만 호출하는
+ * 서비스를 사용하고 리스너는 아무 일도 하지 않습니다. 모든 작업은 호출 스레드에서 바로 실행됩니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class FileRenameViewModelBenchmark {
+
+    @Param({"1000", "100000"})
+    public int fileCount;
+
+    private List<File> files;
+    private FileRenameViewModel emptyViewModel;
+    private FileRenameViewModel loadedViewModel;
+
+    @Setup(Level.Trial)
+    public void createFiles() {
+        files = new ArrayList<>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            files.add(new File("/bench/dir" + (i % 100), "file-" + i + ".dat"));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createViewModels() {
+        emptyViewModel = newViewModel();
+        loadedViewModel = newViewModel();
+        loadedViewModel.processIntent(new AddFilesIntent(files));
+    }
+
+    @Benchmark
+    public FileRenameState add() {
+        emptyViewModel.processIntent(new AddFilesIntent(files));
+        return emptyViewModel.getState();
+    }
+
+    @Benchmark
+    public FileRenameState rename() {
+        loadedViewModel.processIntent(new RenameFilesIntent("renamed-[0-9].dat", 1));
+        return loadedViewModel.getState();
+    }
+
+    private static FileRenameViewModel newViewModel() {
+        FileRenameViewModel viewModel = new FileRenameViewModel(new CallbackOnlyService());
+        viewModel.setListener((type, state) -> { });
+        return viewModel;
+    }
+
+    /**
+     * 파일을 옮기지 않고 새 이름만 계산해 콜백으로 알리는 서비스.
+     */
+    private static final class CallbackOnlyService implements FileRenameService {
+        @Override
+        public void renameFiles(List<File> files, RenameNamer namer, int startNumber, RenamingCallback callback) {
+            RenameNamer.Session session = namer.open(files.toArray(new File[0]));
+            for (int i = 0; i < files.size(); i++) {
+                File oldFile = files.get(i);
+                callback.onRenamed(i, oldFile, new File(oldFile.getParent(), session.name(i, oldFile, startNumber + i)));
+            }
+            callback.onComplete(files.size());
+        }
+
+        @Override
+        public void moveFiles(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                              RenamingCallback callback) {
+            RenameNamer.Session session = namer.open(files.toArray(new File[0]));
+            for (int i = 0; i < files.size(); i++) {
+                File oldFile = files.get(i);
+                callback.onRenamed(i, oldFile, new File(targetDirectory, session.name(i, oldFile, startNumber + i)));
+            }
+            callback.onComplete(files.size());
+        }
+    }
+}
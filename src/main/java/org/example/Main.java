@@ -1,19 +1,15 @@
 package org.example;
 
-import org.example.domain.FileRenameService;
-import org.example.domain.FileRenameServiceImpl;
-import org.example.presentation.FileRenameView;
-import org.example.viewmodel.FileRenameViewModel;
-
-import javax.swing.*;
+import org.example.cli.FileRenameCli;
+import org.example.presentation.GuiLauncher;
 
 public class Main {
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            FileRenameService renameService = new FileRenameServiceImpl();
-            FileRenameViewModel viewModel = new FileRenameViewModel(renameService);
-            FileRenameView view = new FileRenameView(viewModel);
-            view.setVisible(true);
-        });
+        // 인자가 있으면 UI 없이 명령줄 모드로 실행 (AWT/Swing 클래스는 GuiLauncher 에서만 로드)
+        if (args.length > 0) {
+            FileRenameCli.main(args);
+            return;
+        }
+        GuiLauncher.launch();
     }
 }
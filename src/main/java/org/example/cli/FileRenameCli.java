@@ -0,0 +1,346 @@
+package org.example.cli;
+
+import org.example.domain.FileMover;
+import org.example.domain.FileRenameService;
+import org.example.domain.FileRenameServiceImpl;
+import org.example.domain.NameTemplate;
+import org.example.domain.ParallelFileRenameService;
+import org.example.domain.PlannedFileRenameService;
+import org.example.domain.RenameSession;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FileRenameCli 는 UI 없이 {@link FileRenameService} 를 직접 실행하는 명령줄 진입점입니다.
+ * cron 이나 헤드리스 서버에서 파이프라인으로 사용할 수 있도록 AWT/Swing 클래스를 전혀 사용하지 않습니다.
+ *
+ * 경로는 표준 입력(또는 --input 으로 지정한 파일)에서 한 줄에 하나씩, -0 을 주면 NUL 문자로 구분해 읽습니다.
+ * 입력 전체를 메모리에 올리지 않고 일정 개수(chunk)씩 읽어 바로 이름을 변경하므로,
+ * 입력 경로 수와 관계없이 메모리 사용량은 묶음 크기에 비례합니다. 번호는 묶음 경계를 넘어 이어지며,
+ * 건너뛴 파일에 배정된 번호도 다음 묶음에서 다시 쓰지 않으므로 묶음 크기와 관계없이 같은 번호가 붙습니다.
+ * 충돌 확인용 폴더 목록도 묶음마다 다시 읽지 않고 처음 읽은 것을 이동에 맞춰 갱신하며 계속 사용합니다.
+ * (묶음마다 따로 계획하므로, 서로 다른 묶음에 있는 파일끼리 이름이 물려 있으면 충돌로 건너뜁니다.)
+ * --move-to 를 주면 새 이름을 붙여 그 폴더로 옮기며, 다른 파일 시스템이면 여러 파일을 동시에 복사한 뒤 원본을 지웁니다.
+ *
+ * 결과는 한 줄에 하나씩 탭으로 구분한 레코드로 출력합니다. (-0 이면 레코드를 NUL 로 끝냅니다.)
+ * <pre>
+ * RENAMED  기존경로  새경로
+ * EXISTS   대상경로
+ * ERROR    기존경로  메시지
+ * PROGRESS 기존경로  보낸바이트  전체바이트
+ * COMPLETE 변경된파일수
+ * </pre>
+ * PROGRESS 는 --move-to 폴더가 다른 파일 시스템이라 복사로 옮길 때만, 복사 단위(최대 8MiB, 속도 제한 시 약 0.1초 분량)마다 나옵니다.
+ * 종료 코드는 성공 0, 이름 변경 중 에러 1, 잘못된 인자 2 입니다.
+ */
+public class FileRenameCli {
+
+    /** 한 번에 읽어 처리하는 기본 경로 수 */
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_RENAME_ERROR = 1;
+    private static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join("\n",
+            "사용법: fileRename --pattern <패턴> [--start <번호>] [--input <파일>] [-0] [--chunk-size <개수>]",
+            "  --pattern, -p     새 파일명 패턴 (예: A0[0-9].smi, [name]_[n:3][ext])",
+            "                    토큰: [n] [n:너비] [name] [ext] [parent] [date] [date:형식] [size]",
+            "                    [hash] [hash8] [hash:길이] (내용의 SHA-256)",
+            "  --start, -s       시작 번호 (기본값 1)",
+            "  --input, -i       경로 목록 파일 (기본값: 표준 입력, '-' 도 표준 입력)",
+            "  -0, --null        입력 경로와 출력 레코드를 줄바꿈 대신 NUL 문자로 구분",
+            "  --chunk-size      한 번에 처리할 경로 수 (기본값 " + DEFAULT_CHUNK_SIZE + ")",
+            "  --move-to         새 이름을 붙여 옮길 폴더 (기본값: 제자리에서 이름만 변경)",
+            "  --transfers       다른 파일 시스템으로 동시에 복사할 파일 수 (기본값 " + FileMover.DEFAULT_MAX_TRANSFERS + ")",
+            "  --max-rate        복사 전체의 초당 최대 바이트 (기본값: 제한 없음)");
+
+    private final PlannedFileRenameService renameService;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public FileRenameCli(PlannedFileRenameService renameService, InputStream in, PrintStream out, PrintStream err) {
+        this.renameService = renameService;
+        this.in = in;
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out, 64 * 1024), false, StandardCharsets.UTF_8);
+        PlannedFileRenameService service = createService(args);
+        int exitCode;
+        try {
+            exitCode = new FileRenameCli(service, System.in, out, System.err).run(args);
+        } finally {
+            if (service instanceof ParallelFileRenameService parallel) {
+                parallel.close();
+            }
+        }
+        out.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * 다른 폴더로 옮길 때만 여러 파일을 동시에 복사할 수 있는 병렬 엔진을 사용합니다.
+     * 제자리 이름 변경은 결과가 입력 순서대로 나오도록 순차 엔진을 사용합니다.
+     * 인자가 잘못되었으면 순차 엔진을 반환하고, 오류는 {@link #run} 에서 알립니다.
+     */
+    private static PlannedFileRenameService createService(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            options = null;
+        }
+        if (options == null || options.moveTo == null) {
+            return new FileRenameServiceImpl();
+        }
+        FileMover mover = new FileMover(options.transfers, options.maxBytesPerSecond);
+        return ParallelFileRenameService.withParallelism(options.transfers, mover);
+    }
+
+    /**
+     * 인자를 해석하고 입력 경로를 모두 처리합니다.
+     *
+     * @return 종료 코드
+     */
+    public int run(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options == null) {
+            out.println(USAGE);
+            out.flush();
+            return EXIT_OK;
+        }
+
+        File targetDirectory = options.moveTo == null ? null : new File(options.moveTo);
+        if (targetDirectory != null && !targetDirectory.isDirectory()) {
+            err.println("--move-to 폴더가 없습니다: " + options.moveTo);
+            return EXIT_USAGE;
+        }
+
+        char separator = options.nullSeparated ? '\0' : '\n';
+        StreamingCallback callback = new StreamingCallback(separator);
+        NameTemplate template = NameTemplate.compile(options.pattern);
+        try (Reader reader = openInput(options.input)) {
+            PathReader paths = new PathReader(reader, separator);
+            List<File> chunk = new ArrayList<>(Math.min(options.chunkSize, DEFAULT_CHUNK_SIZE));
+            RenameSession session = new RenameSession(options.startNumber);
+            String path;
+            while ((path = paths.next()) != null) {
+                chunk.add(new File(path));
+                if (chunk.size() >= options.chunkSize) {
+                    renameChunk(chunk, template, session, targetDirectory, callback);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                renameChunk(chunk, template, session, targetDirectory, callback);
+            }
+        } catch (IOException e) {
+            err.println("입력을 읽을 수 없습니다: " + e.getMessage());
+            out.flush();
+            return EXIT_USAGE;
+        }
+        callback.record("COMPLETE", String.valueOf(callback.totalRenamed));
+        out.flush();
+        return callback.errorCount > 0 ? EXIT_RENAME_ERROR : EXIT_OK;
+    }
+
+    /**
+     * 묶음 하나의 이름을 변경합니다. 다음 묶음이 이어서 사용할 번호는 session 에 남습니다.
+     */
+    private void renameChunk(List<File> chunk, NameTemplate template, RenameSession session, File targetDirectory,
+                             StreamingCallback callback) {
+        if (targetDirectory == null) {
+            renameService.renameFiles(chunk, template, session, callback);
+        } else {
+            renameService.moveFiles(chunk, template, session, targetDirectory, callback);
+        }
+        out.flush();
+    }
+
+    private Reader openInput(String input) throws IOException {
+        InputStream stream = input == null || input.equals("-") ? in : new FileInputStream(input);
+        return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * 서비스 콜백을 받는 즉시 레코드로 출력합니다. 묶음마다 호출되는 onComplete 는 합계만 누적합니다.
+     */
+    private class StreamingCallback implements FileRenameService.RenamingCallback {
+        private final char separator;
+        private int totalRenamed;
+        private int errorCount;
+
+        StreamingCallback(char separator) {
+            this.separator = separator;
+        }
+
+        @Override
+        public void onRenamed(File oldFile, File newFile) {
+            totalRenamed++;
+            record("RENAMED", oldFile.getPath(), newFile.getPath());
+        }
+
+        @Override
+        public void onExists(File newFile) {
+            record("EXISTS", newFile.getPath());
+        }
+
+        @Override
+        public void onTransferProgress(int index, File oldFile, long transferred, long total) {
+            record("PROGRESS", oldFile.getPath(), String.valueOf(transferred), String.valueOf(total));
+        }
+
+        @Override
+        public void onComplete(int count) {
+        }
+
+        @Override
+        public void onError(File file, Exception e) {
+            errorCount++;
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            record("ERROR", file.getPath(), String.valueOf(cause));
+        }
+
+        void record(String type, String... fields) {
+            out.print(type);
+            for (String field : fields) {
+                out.print('\t');
+                out.print(field);
+            }
+            out.print(separator);
+        }
+    }
+
+    /**
+     * 구분 문자로 나뉜 경로를 하나씩 읽습니다. 빈 항목과 줄 끝의 '\r' 은 무시합니다.
+     */
+    private static final class PathReader {
+        private final Reader reader;
+        private final char separator;
+        private final StringBuilder buffer = new StringBuilder();
+
+        PathReader(Reader reader, char separator) {
+            this.reader = reader;
+            this.separator = separator;
+        }
+
+        String next() throws IOException {
+            while (true) {
+                buffer.setLength(0);
+                int c;
+                while ((c = reader.read()) != -1 && c != separator) {
+                    buffer.append((char) c);
+                }
+                if (separator == '\n' && buffer.length() > 0 && buffer.charAt(buffer.length() - 1) == '\r') {
+                    buffer.setLength(buffer.length() - 1);
+                }
+                if (buffer.length() > 0) {
+                    return buffer.toString();
+                }
+                if (c == -1) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    private static final class Options {
+        String pattern;
+        int startNumber = 1;
+        String input;
+        boolean nullSeparated;
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        String moveTo;
+        int transfers = FileMover.DEFAULT_MAX_TRANSFERS;
+        long maxBytesPerSecond = FileMover.UNLIMITED;
+
+        /**
+         * @return 해석된 옵션, 도움말 요청이면 null
+         * @throws IllegalArgumentException 인자가 잘못된 경우
+         */
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "-h", "--help" -> {
+                        return null;
+                    }
+                    case "-p", "--pattern" -> options.pattern = value(args, ++i, arg);
+                    case "-s", "--start" -> options.startNumber = number(value(args, ++i, arg), arg);
+                    case "-i", "--input" -> options.input = value(args, ++i, arg);
+                    case "-0", "--null" -> options.nullSeparated = true;
+                    case "--chunk-size" -> {
+                        options.chunkSize = number(value(args, ++i, arg), arg);
+                        if (options.chunkSize <= 0) {
+                            throw new IllegalArgumentException("--chunk-size 는 1 이상이어야 합니다.");
+                        }
+                    }
+                    case "--move-to" -> options.moveTo = value(args, ++i, arg);
+                    case "--transfers" -> {
+                        options.transfers = number(value(args, ++i, arg), arg);
+                        if (options.transfers <= 0) {
+                            throw new IllegalArgumentException("--transfers 는 1 이상이어야 합니다.");
+                        }
+                    }
+                    case "--max-rate" -> {
+                        options.maxBytesPerSecond = longNumber(value(args, ++i, arg), arg);
+                        if (options.maxBytesPerSecond <= 0) {
+                            throw new IllegalArgumentException("--max-rate 는 1 이상이어야 합니다.");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("알 수 없는 인자: " + arg);
+                }
+            }
+            if (options.pattern == null || options.pattern.isEmpty()) {
+                throw new IllegalArgumentException("--pattern 은 반드시 지정해야 합니다.");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String name) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(name + " 의 값이 없습니다.");
+            }
+            return args[index];
+        }
+
+        private static int number(String value, String name) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " 는 숫자여야 합니다: " + value);
+            }
+        }
+
+        private static long longNumber(String value, String name) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(name + " 는 숫자여야 합니다: " + value);
+            }
+        }
+    }
+}
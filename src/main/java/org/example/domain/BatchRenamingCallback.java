@@ -0,0 +1,55 @@
+package org.example.domain;
+
+import java.io.File;
+
+/**
+ * BatchRenamingCallback 은 결과를 파일마다가 아니라 {@link RenameBatch} 묶음으로 받는 콜백입니다.
+ *
+ * 엔진({@link FileRenameServiceImpl}, {@link ParallelFileRenameService})은 콜백이 이 인터페이스를 구현하면
+ * 결과를 {@link #getBatchSize()} 개씩 모아 onBatch 로 전달합니다. 묶음이 다 차지 않았더라도 일정 시간이 지나거나
+ * 작업이 끝나면(onComplete 직전) 남은 결과를 전달합니다.
+ * 파일 단위로만 호출하는 구현체를 위해 파일 단위 메서드는 항목 하나짜리 묶음으로 바꿔 onBatch 로 전달합니다.
+ */
+public interface BatchRenamingCallback extends FileRenameService.RenamingCallback {
+
+    /** 기본 묶음 크기 */
+    int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * 결과 묶음을 전달합니다. 여러 스레드에서 실행되는 엔진도 onBatch 호출은 직렬화합니다.
+     */
+    void onBatch(RenameBatch batch);
+
+    /**
+     * 엔진이 한 번에 모을 최대 결과 수
+     */
+    default int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    @Override
+    default void onRenamed(File oldFile, File newFile) {
+        onRenamed(-1, oldFile, newFile);
+    }
+
+    @Override
+    default void onRenamed(int index, File oldFile, File newFile) {
+        RenameBatch batch = new RenameBatch(1);
+        batch.addRenamed(index, oldFile, newFile);
+        onBatch(batch);
+    }
+
+    @Override
+    default void onExists(File newFile) {
+        RenameBatch batch = new RenameBatch(1);
+        batch.addExists(newFile);
+        onBatch(batch);
+    }
+
+    @Override
+    default void onError(File file, Exception e) {
+        RenameBatch batch = new RenameBatch(1);
+        batch.addError(file, e);
+        onBatch(batch);
+    }
+}
@@ -0,0 +1,214 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * ContentDigestCache 는 파일 내용의 SHA-256 해시를 계산하고, 경로 + 크기 + 수정 시간으로 캐시합니다.
+ *
+ * 크기와 수정 시간이 그대로인 파일은 다시 읽지 않으므로 미리보기와 실행을 반복해도 내용은 한 번만 읽습니다.
+ * 파일이 바뀌면 같은 경로의 항목을 새 해시로 바꾸며, 캐시는 최근에 쓴 {@link #DEFAULT_CAPACITY} 개만 보관합니다.
+ *
+ * 내용은 {@link FileChannel#map} 으로 {@link #REGION_BYTES} 씩 매핑해서 읽습니다.
+ * 작은 파일은 매핑 비용이 더 크므로 바로 읽고, Windows 에서는 매핑이 해제될 때까지 파일 이름을 바꿀 수 없으므로
+ * 항상 바로 읽습니다. 여러 파일은 전용 {@link ForkJoinPool} 에서 병렬로 계산합니다.
+ *
+ * 여러 스레드에서 동시에 사용해도 안전합니다.
+ */
+public final class ContentDigestCache {
+
+    /** 보관하는 해시 수 */
+    public static final int DEFAULT_CAPACITY = 65_536;
+
+    /** 한 번에 매핑하는 최대 바이트 */
+    static final long REGION_BYTES = 64L << 20;
+
+    /** 이보다 작은 파일은 매핑하지 않고 읽음 */
+    static final int MIN_MAP_BYTES = 64 << 10;
+
+    private static final boolean MAP_FILES = !System.getProperty("os.name", "").startsWith("Windows");
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /** 앱 전체가 함께 쓰는 캐시 */
+    public static final ContentDigestCache SHARED = new ContentDigestCache(DEFAULT_CAPACITY);
+
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger hashCount = new AtomicInteger();
+
+    /**
+     * @param capacity 보관할 해시 수
+     */
+    public ContentDigestCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 파일 내용의 해시를 반환합니다. 크기와 수정 시간이 캐시된 값과 같으면 파일을 읽지 않습니다.
+     *
+     * @param file       해시를 계산할 파일
+     * @param attributes 방금 읽은 파일 속성 (캐시가 최신인지 확인하는 데 사용)
+     * @return SHA-256 해시 (32 바이트, 호출자가 수정하면 안 됨)
+     * @throws UncheckedIOException 파일을 읽을 수 없는 경우
+     */
+    public byte[] digest(File file, BasicFileAttributes attributes) {
+        String key = DirectoryConflictIndex.pathKey(file);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        byte[] cached = lookup(key, size, modified);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] digest;
+        try {
+            digest = hash(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        hashCount.incrementAndGet();
+        synchronized (entries) {
+            entries.put(key, new Entry(size, modified, digest));
+        }
+        return digest;
+    }
+
+    /**
+     * 캐시된 해시가 최신이면 반환하고, 아니면 null 을 반환합니다. 파일 내용은 읽지 않습니다.
+     */
+    public byte[] getIfFresh(File file, BasicFileAttributes attributes) {
+        return lookup(DirectoryConflictIndex.pathKey(file), attributes.size(),
+                attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * 여러 파일의 해시를 풀에서 병렬로 계산합니다.
+     *
+     * @param files 해시를 계산할 파일
+     * @return 파일과 같은 위치의 해시 (읽을 수 없는 파일은 null)
+     */
+    public byte[][] digestAll(File[] files) {
+        byte[][] digests = new byte[files.length][];
+        // 풀 안에서 시작한 병렬 스트림은 공용 풀 대신 그 풀의 스레드로 실행됨
+        POOL.submit(() -> IntStream.range(0, files.length).parallel()
+                .forEach(i -> digests[i] = digestOrNull(files[i]))).join();
+        return digests;
+    }
+
+    /**
+     * 파일 하나의 해시를 풀에서 계산합니다. 같은 파일을 이미 계산 중이면 그 작업을 함께 기다립니다.
+     * UI 스레드처럼 파일을 읽느라 멈추면 안 되는 곳에서 사용합니다.
+     *
+     * @return 해시 (읽을 수 없는 파일이면 null 로 완료)
+     */
+    public CompletableFuture<byte[]> digestAsync(File file) {
+        String key = DirectoryConflictIndex.pathKey(file);
+        CompletableFuture<byte[]> future = pending.computeIfAbsent(key,
+                k -> CompletableFuture.supplyAsync(() -> digestOrNull(file), POOL));
+        future.whenComplete((digest, error) -> pending.remove(key, future));
+        return future;
+    }
+
+    /**
+     * 캐시된 해시 수를 반환합니다.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 지금까지 파일 내용을 실제로 읽어 해시를 계산한 횟수를 반환합니다.
+     */
+    public int getHashCount() {
+        return hashCount.get();
+    }
+
+    /**
+     * 캐시된 해시를 모두 버립니다.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private byte[] lookup(String key, long size, long modified) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        return entry != null && entry.size() == size && entry.modified() == modified ? entry.digest() : null;
+    }
+
+    private byte[] digestOrNull(File file) {
+        try {
+            return digest(file, Files.readAttributes(file.toPath(), BasicFileAttributes.class));
+        } catch (IOException | UncheckedIOException e) {
+            // 이름을 만들 때 다시 시도하여 오류를 알림
+            return null;
+        }
+    }
+
+    /**
+     * 파일 내용 전체의 SHA-256 해시를 계산합니다.
+     */
+    static byte[] hash(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (MAP_FILES && size >= MIN_MAP_BYTES) {
+                for (long position = 0; position < size; position += REGION_BYTES) {
+                    long length = Math.min(REGION_BYTES, size - position);
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(MIN_MAP_BYTES);
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 Java 구현은 SHA-256 을 지원해야 함
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(long size, long modified, byte[] digest) {
+    }
+}
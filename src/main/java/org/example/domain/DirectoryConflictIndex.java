@@ -0,0 +1,169 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DirectoryConflictIndex 는 이름 변경 대상이 이미 존재하는지를 디렉토리 단위 스냅샷으로 판단합니다.
+ *
+ * 파일마다 exists()(stat 시스템 콜)를 호출하는 대신, 처음 조회되는 부모 디렉토리를 DirectoryStream 으로
+ * 한 번만 읽어 이름 집합을 만들며, 메타데이터 조회 횟수가 파일 수가 아니라 디렉토리 수에 비례합니다.
+ * {@link RenamePlan} 은 실행 중 실제로 일어난 이동을 {@link #recordMove} 로 기록하므로, 계획을 실행한 뒤에도
+ * 집합이 디스크와 일치하여 같은 색인으로 다음 계획을 세울 수 있습니다.
+ * (한 계획 안에서 앞선 파일이 차지하거나 비울 이름은 {@link RenamePlanner} 가 따로 추적합니다.)
+ *
+ * 대소문자 구분 여부는 운영체제가 아니라 디렉토리마다 확인합니다(macOS 의 APFS, Linux 의 casefold 폴더 등).
+ * 디렉토리를 읽을 때 항목 하나의 대소문자를 바꾼 이름이 같은 파일로 열리는지 한 번 더 확인하고,
+ * 구분하지 않는 디렉토리의 이름은 소문자로 비교합니다. 확인할 항목이 없으면 운영체제 기본값을 따릅니다.
+ * 동시에 호출하지 않아야 합니다. (여러 그룹을 동시에 실행할 때의 기록은 콜백 락으로 직렬화합니다.)
+ */
+public class DirectoryConflictIndex {
+
+    // 디렉토리를 확인할 수 없을 때의 기본값 (Windows 에서만 true)
+    private static final boolean CASE_INSENSITIVE = new File("a").equals(new File("A"));
+
+    private final Map<Path, Snapshot> snapshots = new HashMap<>();
+
+    /**
+     * 파일이 이미 존재하는지 여부를 반환합니다.
+     * 부모 디렉토리를 읽을 수 없으면 해당 파일만 직접 확인합니다.
+     */
+    public boolean exists(File file) {
+        Snapshot snapshot = snapshotOf(file);
+        if (snapshot == null || snapshot.names == null) {
+            return file.exists();
+        }
+        return snapshot.names.contains(snapshot.key(file.getName()));
+    }
+
+    /**
+     * source 가 target 으로 이동되었음을 기록합니다. 아직 읽지 않은 디렉토리는 읽은 뒤 반영합니다.
+     */
+    public void recordMove(File source, File target) {
+        Snapshot sourceSnapshot = snapshotOf(source);
+        if (sourceSnapshot != null && sourceSnapshot.names != null) {
+            sourceSnapshot.names.remove(sourceSnapshot.key(source.getName()));
+        }
+        Snapshot targetSnapshot = snapshotOf(target);
+        if (targetSnapshot != null && targetSnapshot.names != null) {
+            targetSnapshot.names.add(targetSnapshot.key(target.getName()));
+        }
+    }
+
+    /**
+     * 부모 디렉토리의 대소문자 구분 규칙을 반영한 절대 경로 비교 키를 반환합니다.
+     * 같은 파일을 가리키는 두 경로는 같은 키를 갖습니다.
+     */
+    public String keyOf(File file) {
+        Snapshot snapshot = snapshotOf(file);
+        if (snapshot == null) {
+            return pathKey(file);
+        }
+        File absolute = file.getAbsoluteFile();
+        return pathKey(absolute.getParentFile()) + File.separatorChar + snapshot.key(absolute.getName());
+    }
+
+    /**
+     * 지금까지 읽은 디렉토리 수를 반환합니다.
+     */
+    public int getDirectoryCount() {
+        return snapshots.size();
+    }
+
+    private Snapshot snapshotOf(File file) {
+        Path directory = file.getAbsoluteFile().toPath().getParent();
+        if (directory == null) {
+            return null;
+        }
+        Snapshot snapshot = snapshots.get(directory);
+        if (snapshot == null) {
+            snapshot = readDirectory(directory);
+            snapshots.put(directory, snapshot);
+        }
+        return snapshot;
+    }
+
+    private static Snapshot readDirectory(Path directory) {
+        List<String> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                entries.add(entry.getFileName().toString());
+            }
+        } catch (IOException | SecurityException e) {
+            // 읽을 수 없는 디렉토리는 파일별 확인으로 대체
+            return new Snapshot(null, CASE_INSENSITIVE);
+        }
+        Snapshot snapshot = new Snapshot(new HashSet<>(entries.size() * 2), probeCaseInsensitive(directory, entries));
+        for (String name : entries) {
+            snapshot.names.add(snapshot.key(name));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 항목 하나의 대소문자를 바꾼 이름이 목록에 없는데도 같은 파일로 열리면 대소문자를 구분하지 않는 디렉토리입니다.
+     */
+    private static boolean probeCaseInsensitive(Path directory, List<String> entries) {
+        Set<String> listed = new HashSet<>(entries);
+        for (String name : entries) {
+            String swapped = swapCase(name);
+            if (swapped.equals(name) || listed.contains(swapped)) {
+                continue;
+            }
+            Path variant = directory.resolve(swapped);
+            try {
+                return Files.exists(variant, LinkOption.NOFOLLOW_LINKS)
+                        && Files.isSameFile(directory.resolve(name), variant);
+            } catch (IOException | SecurityException e) {
+                // 확인 도중 항목이 사라졌으면 다음 항목으로 확인
+            }
+        }
+        return CASE_INSENSITIVE;
+    }
+
+    private static String swapCase(String name) {
+        StringBuilder swapped = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    /**
+     * 운영체제 기본 대소문자 구분 규칙을 반영한 절대 경로 비교 키를 반환합니다.
+     * 디렉토리를 읽지 않으므로 계획과 무관한 캐시 키 등에 사용합니다.
+     */
+    static String pathKey(File file) {
+        String path = file.getAbsolutePath();
+        return CASE_INSENSITIVE ? path.toLowerCase(Locale.ROOT) : path;
+    }
+
+    /**
+     * 디렉토리 하나의 이름 집합과 대소문자 구분 규칙. 디렉토리를 읽을 수 없으면 names 가 null 입니다.
+     */
+    private static final class Snapshot {
+        final Set<String> names;
+        final boolean caseInsensitive;
+
+        Snapshot(Set<String> names, boolean caseInsensitive) {
+            this.names = names;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        String key(String name) {
+            return caseInsensitive ? name.toLowerCase(Locale.ROOT) : name;
+        }
+    }
+}
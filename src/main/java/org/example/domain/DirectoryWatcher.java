@@ -0,0 +1,248 @@
+package org.example.domain;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * DirectoryWatcher 는 등록한 폴더를 {@link WatchService} 로 감시하고,
+ * 앱 밖에서 일어난 파일 생성/삭제(이름 변경은 삭제 + 생성으로 들어옴)를 묶음({@link Batch})으로 전달합니다.
+ *
+ * 이벤트는 마지막 이벤트 후 debounce 시간 동안 조용할 때까지(최대 {@link #MAX_DELAY_FACTOR} 배) 모은 뒤,
+ * 파일마다 처음과 마지막 상태만 비교한 순 변화로 합쳐 전달합니다.
+ * 예를 들어 묶음 안에서 생겼다가 사라진 임시 파일은 전달하지 않습니다.
+ * 이벤트가 넘쳐 유실된(OVERFLOW) 폴더는 목록을 한 번 다시 읽어 현재 이름 집합을 함께 전달합니다.
+ *
+ * 감시 스레드는 처음 폴더를 등록할 때 데몬 스레드로 시작하며, 묶음은 그 스레드에서 consumer 로 전달됩니다.
+ */
+public class DirectoryWatcher implements Closeable {
+
+    /** 기본 debounce 시간 (밀리초) */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 200;
+
+    /** 이벤트가 끊이지 않아도 첫 이벤트 후 debounce 의 이 배수만큼 지나면 전달 */
+    static final int MAX_DELAY_FACTOR = 10;
+
+    private final Consumer<Batch> consumer;
+    private final long debounceNanos;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    // 이미 등록한 폴더를 키 순회 없이 확인하기 위한 집합 (directories 의 값과 같은 내용)
+    private final Set<Path> watched = new HashSet<>();
+    private WatchService watchService;
+    private volatile boolean closed;
+
+    public DirectoryWatcher(Consumer<Batch> consumer) {
+        this(consumer, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * @param consumer       변경 묶음을 받을 consumer (감시 스레드에서 호출됨)
+     * @param debounceMillis 마지막 이벤트 후 묶음을 닫기까지 기다릴 시간 (밀리초)
+     */
+    public DirectoryWatcher(Consumer<Batch> consumer, long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("debounceMillis must not be negative: " + debounceMillis);
+        }
+        this.consumer = consumer;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    }
+
+    /**
+     * 폴더를 감시 대상에 추가합니다. 이미 등록한 폴더는 무시합니다.
+     *
+     * @param directory 감시할 폴더
+     * @return 새로 등록했으면 true
+     * @throws IOException 감시를 등록할 수 없는 경우
+     */
+    public synchronized boolean watch(File directory) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("watcher is closed");
+        }
+        Path path = directory.getAbsoluteFile().toPath().normalize();
+        if (watched.contains(path)) {
+            return false;
+        }
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(this::run, "directory-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        WatchKey key = path.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, path);
+        watched.add(path);
+        return true;
+    }
+
+    /**
+     * 감시 중인 폴더 수를 반환합니다.
+     */
+    public synchronized int getDirectoryCount() {
+        return directories.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        directories.clear();
+        watched.clear();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void run() {
+        Pending pending = new Pending();
+        try {
+            while (!closed) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long now = System.nanoTime();
+                    long wait = Math.min(pending.lastEventNanos + debounceNanos,
+                            pending.firstEventNanos + debounceNanos * MAX_DELAY_FACTOR) - now;
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (key == null) {
+                        deliver(pending);
+                        pending = new Pending();
+                        continue;
+                    }
+                }
+                collect(key, pending);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() 로 종료
+        }
+    }
+
+    private void collect(WatchKey key, Pending pending) {
+        Path directory;
+        synchronized (this) {
+            directory = directories.get(key);
+        }
+        if (directory != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    pending.overflow(directory);
+                } else {
+                    Path child = directory.resolve((Path) event.context());
+                    pending.record(child, event.kind() == StandardWatchEventKinds.ENTRY_CREATE);
+                }
+            }
+        }
+        if (!key.reset()) {
+            // 폴더가 삭제되어 더 이상 감시할 수 없음
+            synchronized (this) {
+                Path removed = directories.remove(key);
+                if (removed != null) {
+                    watched.remove(removed);
+                }
+            }
+        }
+    }
+
+    private void deliver(Pending pending) {
+        List<Change> changes = new ArrayList<>(pending.states.size());
+        for (Map.Entry<Path, boolean[]> entry : pending.states.entrySet()) {
+            boolean existedBefore = entry.getValue()[0];
+            boolean existsNow = entry.getValue()[1];
+            if (existedBefore == existsNow) {
+                continue;
+            }
+            // 새로 생긴 하위 폴더는 파일 목록과 관계없으므로 제외
+            if (existsNow && Files.isDirectory(entry.getKey())) {
+                continue;
+            }
+            changes.add(new Change(entry.getKey().toFile(), existsNow));
+        }
+        Map<File, Set<String>> rescanned = new LinkedHashMap<>();
+        for (Path directory : pending.overflowed) {
+            Set<String> names = new HashSet<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path child : stream) {
+                    names.add(child.getFileName().toString());
+                }
+            } catch (IOException e) {
+                // 읽을 수 없으면 폴더 안의 파일이 모두 사라진 것으로 봄
+                names.clear();
+            }
+            rescanned.put(directory.toFile(), names);
+        }
+        if (!changes.isEmpty() || !rescanned.isEmpty()) {
+            consumer.accept(new Batch(changes, rescanned));
+        }
+    }
+
+    /**
+     * 한 묶음 동안 모은 이벤트. 경로마다 [처음에 있었는지, 지금 있는지] 를 기록합니다.
+     */
+    private static final class Pending {
+        final Map<Path, boolean[]> states = new LinkedHashMap<>();
+        final Set<Path> overflowed = new LinkedHashSet<>();
+        long firstEventNanos;
+        long lastEventNanos;
+
+        boolean isEmpty() {
+            return states.isEmpty() && overflowed.isEmpty();
+        }
+
+        void record(Path path, boolean created) {
+            touch();
+            // 첫 이벤트가 삭제면 원래 있던 파일, 생성이면 원래 없던 파일
+            boolean[] state = states.computeIfAbsent(path, p -> new boolean[]{!created, !created});
+            state[1] = created;
+        }
+
+        void overflow(Path directory) {
+            touch();
+            overflowed.add(directory);
+        }
+
+        private void touch() {
+            long now = System.nanoTime();
+            if (isEmpty()) {
+                firstEventNanos = now;
+            }
+            lastEventNanos = now;
+        }
+    }
+
+    /**
+     * 파일 하나의 순 변화. WatchService 는 이름 변경의 앞뒤 이름을 이어 주지 않으므로 삭제와 생성으로 따로 들어옵니다.
+     *
+     * @param file    생기거나 사라진 파일
+     * @param created 생겼으면 true, 사라졌으면 false
+     */
+    public record Change(File file, boolean created) {
+    }
+
+    /**
+     * 한 번에 전달되는 변경 묶음.
+     *
+     * @param changes   발생 순서대로의 파일 변화
+     * @param rescanned 이벤트가 유실되어 다시 읽은 폴더와 그 폴더의 현재 이름 집합
+     */
+    public record Batch(List<Change> changes, Map<File, Set<String>> rescanned) {
+    }
+}
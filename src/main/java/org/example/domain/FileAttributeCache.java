@@ -0,0 +1,113 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FileAttributeCache 는 이름 변경 작업 하나 동안 파일의 기본 속성(수정 시간, 크기)을 캐시합니다.
+ *
+ * 속성은 {@link NameTemplate} 이 날짜/크기 토큰을 처음 채울 때만 읽으며,
+ * {@link Files#readAttributes(java.nio.file.Path, Class, java.nio.file.LinkOption...)} 한 번으로
+ * 필요한 값을 모두 가져옵니다. 따라서 번호와 이름 토큰만 쓰는 패턴은 stat 호출을 전혀 하지 않습니다.
+ * 내용 해시는 {@link ContentDigestCache} 에서 가져오며, 작업 대상 전체를 알면 {@link #prefetchDigests} 로
+ * 미리 병렬 계산해 둘 수 있습니다.
+ *
+ * 작업마다 새로 만들어 쓰며, 한 스레드에서만 사용해야 합니다.
+ */
+public final class FileAttributeCache {
+
+    private final Map<File, BasicFileAttributes> attributes = new HashMap<>();
+    private final Map<File, byte[]> digests = new HashMap<>();
+    private final ContentDigestCache digestCache;
+    private int readCount;
+
+    public FileAttributeCache() {
+        this(ContentDigestCache.SHARED);
+    }
+
+    /**
+     * @param digestCache 내용 해시를 가져올 캐시
+     */
+    public FileAttributeCache(ContentDigestCache digestCache) {
+        this.digestCache = digestCache;
+    }
+
+    /**
+     * 파일의 기본 속성을 반환합니다. 처음 조회하는 파일만 디스크에서 읽습니다.
+     *
+     * @param file 속성을 읽을 파일
+     * @return 파일의 기본 속성
+     * @throws UncheckedIOException 속성을 읽을 수 없는 경우
+     */
+    public BasicFileAttributes get(File file) {
+        BasicFileAttributes cached = attributes.get(file);
+        if (cached == null) {
+            try {
+                cached = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            readCount++;
+            attributes.put(file, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * 파일 내용의 SHA-256 해시를 반환합니다. 크기와 수정 시간이 그대로인 파일은 다시 읽지 않습니다.
+     *
+     * @param file 해시를 계산할 파일
+     * @return SHA-256 해시 (32 바이트)
+     * @throws UncheckedIOException 파일을 읽을 수 없는 경우
+     */
+    public byte[] digest(File file) {
+        byte[] cached = digests.get(file);
+        if (cached == null) {
+            cached = digestCache.digest(file, get(file));
+            digests.put(file, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * 여러 파일의 내용 해시를 병렬로 미리 계산해 둡니다.
+     * 읽을 수 없는 파일은 건너뛰며, {@link #digest} 를 호출할 때 다시 읽어 오류를 알립니다.
+     *
+     * @param files 해시를 계산할 파일
+     */
+    public void prefetchDigests(File[] files) {
+        byte[][] computed = digestCache.digestAll(files);
+        for (int i = 0; i < files.length; i++) {
+            if (computed[i] != null) {
+                digests.put(files[i], computed[i]);
+            }
+        }
+    }
+
+    /**
+     * 캐시된 속성 수를 반환합니다.
+     */
+    public int size() {
+        return attributes.size();
+    }
+
+    /**
+     * 지금까지 디스크에서 속성을 읽은 횟수를 반환합니다.
+     */
+    public int getReadCount() {
+        return readCount;
+    }
+
+    /**
+     * 캐시된 속성을 모두 버립니다.
+     */
+    public void clear() {
+        attributes.clear();
+        digests.clear();
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.domain;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileMover 는 {@link RenamePlan} 의 이동 단계 하나를 실제로 실행합니다.
+ *
+ * 같은 폴더 안의 이름 변경은 {@link Files#move} 한 번으로 끝납니다.
+ * 다른 폴더로 옮길 때는 먼저 {@link StandardCopyOption#ATOMIC_MOVE} 로 rename 을 시도하고,
+ * 대상이 다른 파일 시스템에 있어 {@link AtomicMoveNotSupportedException} 이 나면 복사 후 삭제로 옮깁니다.
+ * 복사는 {@link FileChannel#transferTo} 로 하므로 커널이 지원하면 사용자 공간 버퍼를 거치지 않습니다.
+ * 내용은 대상 폴더의 임시 파일에 쓰고 디스크에 반영한 뒤 새 이름으로 옮기고, 그다음에 원본을 지웁니다.
+ * 도중에 실패하면 임시 파일만 지우므로 원본은 남고 대상 이름에 덜 쓴 파일이 보이지 않습니다.
+ *
+ * 동시에 진행하는 복사 수는 {@link Semaphore} 로, 초당 전송 바이트는 모든 복사가 나눠 쓰는 예산으로 제한합니다.
+ * rename 으로 끝나는 이동은 데이터를 옮기지 않으므로 제한하지 않습니다. 여러 스레드에서 동시에 사용해도 안전합니다.
+ */
+public final class FileMover {
+
+    /** 기본 동시 복사 수 */
+    public static final int DEFAULT_MAX_TRANSFERS = 4;
+
+    /** 전송 속도를 제한하지 않음 */
+    public static final long UNLIMITED = 0;
+
+    /** 제한 없이 복사할 때 transferTo 한 번에 보내는 최대 바이트 (진행 상황 보고 단위) */
+    static final long MAX_CHUNK_BYTES = 8L << 20;
+
+    private static final long MIN_CHUNK_BYTES = 64L << 10;
+
+    /** 동시 복사 {@value #DEFAULT_MAX_TRANSFERS} 개, 속도 제한 없음 */
+    public static final FileMover DEFAULT = new FileMover(DEFAULT_MAX_TRANSFERS, UNLIMITED);
+
+    private final int maxTransfers;
+    private final long bytesPerSecond;
+    private final long chunkBytes;
+    private final Semaphore transfers;
+    private final Object budgetLock = new Object();
+    private long budgetFreeNanos = System.nanoTime();
+
+    /**
+     * @param maxTransfers   동시에 진행할 수 있는 복사 수
+     * @param bytesPerSecond 모든 복사가 나눠 쓰는 초당 전송 바이트 ({@link #UNLIMITED} 이면 제한 없음)
+     */
+    public FileMover(int maxTransfers, long bytesPerSecond) {
+        if (maxTransfers <= 0) {
+            throw new IllegalArgumentException("maxTransfers must be positive: " + maxTransfers);
+        }
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("bytesPerSecond must not be negative: " + bytesPerSecond);
+        }
+        this.maxTransfers = maxTransfers;
+        this.bytesPerSecond = bytesPerSecond;
+        // 예산이 있으면 한 번에 약 0.1초 분량씩 보내 동시에 진행 중인 복사들이 예산을 고르게 나눠 쓰도록 함
+        this.chunkBytes = bytesPerSecond == UNLIMITED ? MAX_CHUNK_BYTES
+                : Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, bytesPerSecond / 10));
+        this.transfers = new Semaphore(maxTransfers, true);
+    }
+
+    public int getMaxTransfers() {
+        return maxTransfers;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * 파일 하나를 옮깁니다. 대상이 이미 있으면 덮어쓰지 않고 {@link FileAlreadyExistsException} 을 던집니다.
+     *
+     * @param from     옮길 파일
+     * @param to       새 경로
+     * @param progress 복사로 옮길 때 보낸 바이트를 전달받을 콜백 (rename 이면 호출되지 않음)
+     * @return 복사 후 삭제로 옮겼으면 true, rename 으로 옮겼으면 false
+     * @throws IOException 옮길 수 없는 경우 (복사 도중 실패하면 원본은 그대로 남음)
+     */
+    public boolean move(Path from, Path to, Progress progress) throws IOException {
+        if (Objects.equals(from.toAbsolutePath().getParent(), to.toAbsolutePath().getParent())) {
+            Files.move(from, to);
+            return false;
+        }
+        // ATOMIC_MOVE 는 대상을 덮어쓸 수 있으므로 옵션 없는 Files.move 처럼 먼저 확인
+        if (Files.exists(to, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(to.toString());
+        }
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+            return false;
+        } catch (AtomicMoveNotSupportedException e) {
+            // 다른 파일 시스템: 일반 파일만 내용을 복사해서 옮김
+            if (!Files.isRegularFile(from, LinkOption.NOFOLLOW_LINKS)) {
+                throw e;
+            }
+        }
+        transfer(from, to, progress);
+        return true;
+    }
+
+    /**
+     * 복사 후 삭제로 옮깁니다. move 에서 rename 이 다른 파일 시스템이라 실패했을 때 사용합니다.
+     */
+    void transfer(Path from, Path to, Progress progress) throws IOException {
+        try {
+            transfers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("복사 대기 중 중단되었습니다: " + from);
+        }
+        try {
+            Path temporary = Files.createTempFile(to.toAbsolutePath().getParent(), "." + to.getFileName(), ".transfer");
+            try {
+                copy(from, temporary, progress);
+                Files.move(temporary, to);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            Files.delete(from);
+        } finally {
+            transfers.release();
+        }
+    }
+
+    private void copy(Path from, Path temporary, Progress progress) throws IOException {
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(chunkBytes, size - position);
+                reserve(length);
+                long sent = in.transferTo(position, length, out);
+                if (sent <= 0) {
+                    throw new IOException("복사하는 동안 원본 파일이 줄어들었습니다: " + from);
+                }
+                position += sent;
+                progress.onProgress(position, size);
+            }
+            // 원본을 지우기 전에 복사본이 디스크에 반영되었는지 확인
+            out.force(true);
+        }
+        Files.setLastModifiedTime(temporary, Files.getLastModifiedTime(from));
+        PosixFileAttributeView posix = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (posix != null) {
+            // createTempFile 은 소유자 전용 권한으로 만들어지므로 원본 권한을 옮겨 줌
+            Files.setPosixFilePermissions(temporary, posix.readAttributes().permissions());
+        }
+    }
+
+    /**
+     * 전송 예산에서 bytes 만큼을 예약하고, 예약한 구간이 시작될 때까지 기다립니다.
+     */
+    private void reserve(long bytes) throws InterruptedIOException {
+        if (bytesPerSecond == UNLIMITED) {
+            return;
+        }
+        long waitNanos;
+        synchronized (budgetLock) {
+            long now = System.nanoTime();
+            long start = now - budgetFreeNanos > 0 ? now : budgetFreeNanos;
+            budgetFreeNanos = start + bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("전송 대기 중 중단되었습니다");
+            }
+        }
+    }
+
+    /**
+     * 복사 진행 상황을 전달받습니다. 파일 하나를 옮기는 스레드에서 호출됩니다.
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        /**
+         * @param transferred 지금까지 보낸 바이트
+         * @param total       파일 전체 바이트
+         */
+        void onProgress(long transferred, long total);
+    }
+}
@@ -8,16 +8,106 @@ public interface FileRenameService {
      * 파일 목록에 대해 새 파일명 패턴을 적용하여 이름을 변경합니다.
      *
      * @param files       변경 대상 파일 목록
-     * @param newPattern  새 파일명 패턴 (예: "A0[0-9].smi")
+     * @param newPattern  새 파일명 패턴 (예: "A0[0-9].smi", 지원 토큰은 {@link NameTemplate} 참고)
      * @param startNumber 번호 시작값
      * @param callback    작업 결과를 전달하는 콜백
      */
-    void renameFiles(List<File> files, String newPattern, int startNumber, RenamingCallback callback);
+    default void renameFiles(List<File> files, String newPattern, int startNumber, RenamingCallback callback) {
+        renameFiles(files, NameTemplate.compile(newPattern), startNumber, callback);
+    }
+
+    /**
+     * 미리 컴파일된 패턴으로 이름을 변경합니다. 같은 패턴을 UI 미리보기 등과 공유할 때 사용합니다.
+     *
+     * @param files       변경 대상 파일 목록
+     * @param template    컴파일된 새 파일명 패턴
+     * @param startNumber 번호 시작값
+     * @param callback    작업 결과를 전달하는 콜백
+     */
+    default void renameFiles(List<File> files, NameTemplate template, int startNumber, RenamingCallback callback) {
+        renameFiles(files, (RenameNamer) template, startNumber, callback);
+    }
+
+    /**
+     * 새 파일명을 만드는 방식(패턴 또는 정규식 규칙 체인)을 지정해 이름을 변경합니다.
+     * 계획 단계를 직접 다루는 엔진은 {@link PlannedFileRenameService} 를 상속합니다.
+     *
+     * @param files       변경 대상 파일 목록
+     * @param namer       새 파일명을 만드는 방식
+     * @param startNumber 번호 시작값
+     * @param callback    작업 결과를 전달하는 콜백
+     */
+    void renameFiles(List<File> files, RenameNamer namer, int startNumber, RenamingCallback callback);
+
+    /**
+     * 새 이름을 붙이면서 파일을 다른 폴더로 옮깁니다.
+     * 대상 폴더가 다른 파일 시스템에 있으면 복사 후 삭제로 옮기며, 복사 진행 상황은
+     * {@link RenamingCallback#onTransferProgress} 로 전달합니다. (자세한 방식은 {@link FileMover} 참고)
+     *
+     * @param files           이동 대상 파일 목록
+     * @param namer           새 파일명을 만드는 방식
+     * @param startNumber     번호 시작값
+     * @param targetDirectory 파일을 옮길 폴더 (이미 있어야 함)
+     * @param callback        작업 결과를 전달하는 콜백
+     * @throws IllegalArgumentException targetDirectory 가 폴더가 아닌 경우
+     */
+    void moveFiles(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                   RenamingCallback callback);
 
     interface RenamingCallback {
         void onRenamed(File oldFile, File newFile);
+
+        /**
+         * 입력 목록에서의 위치(index)와 함께 변경 결과를 전달합니다.
+         * 구현체는 이 메서드를 호출하며, 위치가 필요 없는 콜백은 재정의하지 않아도 됩니다.
+         *
+         * @param index   renameFiles 에 전달된 목록에서 oldFile 의 위치
+         * @param oldFile 변경 전 파일
+         * @param newFile 변경 후 파일
+         */
+        default void onRenamed(int index, File oldFile, File newFile) {
+            onRenamed(oldFile, newFile);
+        }
+
         void onExists(File newFile);
         void onComplete(int count);
         void onError(File file, Exception e);
+
+        /**
+         * 다른 파일 시스템으로 복사해서 옮기는 파일의 진행 상황을 바이트 단위로 전달합니다.
+         * 복사 한 덩어리를 보낼 때마다 호출되며, 기본 구현은 무시합니다.
+         *
+         * @param index       입력 목록에서 oldFile 의 위치
+         * @param oldFile     옮기는 중인 파일
+         * @param transferred 지금까지 보낸 바이트
+         * @param total       파일 전체 바이트
+         */
+        default void onTransferProgress(int index, File oldFile, long transferred, long total) {
+        }
+
+        /**
+         * 측정 정보가 있을 때 onComplete 대신 호출됩니다. 기본 구현은 요약을 무시하고 onComplete 로 전달합니다.
+         *
+         * @param count   변경된 파일 수
+         * @param summary 작업 측정 요약 (측정하지 않았으면 null)
+         */
+        default void onComplete(int count, RenameSummary summary) {
+            onComplete(count);
+        }
+
+        /**
+         * 엔진 내부 비용을 측정할 probe 를 반환합니다. 기본값은 측정하지 않습니다.
+         */
+        default RenameProbe getProbe() {
+            return RenameProbe.NONE;
+        }
+
+        /**
+         * 작업 취소 여부를 반환합니다. 구현체는 파일 사이마다 확인하여 true 이면 남은 파일을 건너뛰고
+         * 그때까지 변경한 개수로 onComplete 를 호출합니다.
+         */
+        default boolean isCancelled() {
+            return false;
+        }
     }
 }
@@ -1,33 +1,27 @@
 package org.example.domain;
 
-import java.io.File;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class FileRenameServiceImpl implements FileRenameService {
+public class FileRenameServiceImpl extends PlannedFileRenameService {
 
-    @Override
-    public void renameFiles(List<File> files, String newPattern, int startNumber, RenamingCallback callback) {
-        int count = 0;
-        int nextNumber = startNumber;
-        for (File oldFile : files) {
-            String newFileName = newPattern.replaceFirst("\\[0-9]", Integer.toString(nextNumber));
-            File newFile = new File(oldFile.getParent(), newFileName);
+    public FileRenameServiceImpl() {
+        this(FileMover.DEFAULT);
+    }
 
-            if (newFile.exists()) {
-                callback.onExists(newFile);
-                continue;
-            }
+    /**
+     * @param mover 파일을 옮길 방식 (다른 파일 시스템으로 옮길 때의 동시 복사 수와 전송 속도 제한)
+     */
+    public FileRenameServiceImpl(FileMover mover) {
+        super(mover);
+    }
 
-            if (oldFile.renameTo(newFile)) {
-                // 파일이 정상적으로 변경된 경우: onFileRenamed만 호출합니다.
-                count++;
-                nextNumber++;
-                callback.onRenamed(oldFile, newFile);
-            } else {
-                callback.onError(oldFile, new Exception("에러 발생: " + oldFile.getAbsolutePath() + " -> " + newFile.getAbsolutePath()));
-            }
+    @Override
+    protected void execute(RenamePlan plan, FileMover mover, RenamingCallback callback, AtomicInteger count) {
+        // 호출 스레드에서 그룹을 차례로 실행
+        Object callbackLock = new Object();
+        for (List<RenamePlan.Step> group : plan.getGroups()) {
+            plan.execute(group, mover, callback, callbackLock, count);
         }
-
-        callback.onComplete(count);
     }
 }
@@ -0,0 +1,13 @@
+package org.example.domain;
+
+/**
+ * 파일 목록 정렬 기준
+ */
+public enum FileSortKey {
+    /** 파일 이름의 자연 정렬 (숫자는 값으로 비교: ep2 < ep10) */
+    NATURAL_NAME,
+    /** 마지막 수정 시간 */
+    MODIFIED_TIME,
+    /** 파일 크기 */
+    SIZE
+}
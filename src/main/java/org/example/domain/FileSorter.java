@@ -0,0 +1,125 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * FileSorter 는 파일 목록의 정렬 순서를 계산합니다.
+ *
+ * 비교할 때마다 이름을 다시 해석하거나 파일 속성을 읽지 않도록, 파일마다 정렬 키를 한 번만 만든 뒤
+ * {@link Arrays#parallelSort} 로 정렬합니다.
+ * - 자연 정렬 키는 숫자 구간을 "자릿수 + 숫자" 로 바꾼 문자열이라 일반 문자열 비교만으로 ep2 < ep10 이 됩니다.
+ * - 수정 시간과 크기는 파일마다 {@link Files#readAttributes} 한 번으로 함께 읽으며, 여러 스레드에서 병렬로 읽습니다.
+ * 키가 같으면 원래 이름, 경로, 원래 위치 순으로 비교하므로 결과는 항상 같습니다(안정 정렬).
+ * 속성을 읽을 수 없는 파일은 맨 뒤로 보냅니다.
+ */
+public class FileSorter {
+
+    /** 자연 정렬 키에서 숫자 구간의 시작을 나타내는 문자 (숫자 '0' 과 같은 위치에 정렬됨) */
+    private static final char NUMBER_MARK = '0';
+    private static final long UNREADABLE = Long.MIN_VALUE;
+
+    /**
+     * 정렬된 순서를 반환합니다.
+     *
+     * @param files      정렬할 파일 목록
+     * @param key        정렬 기준
+     * @param descending 내림차순 여부
+     * @return order[i] = 정렬 후 i 번째에 올 파일의 원래 위치
+     */
+    public int[] sortOrder(List<File> files, FileSortKey key, boolean descending) {
+        int size = files.size();
+        Entry[] entries = new Entry[size];
+        boolean readAttributes = key != FileSortKey.NATURAL_NAME;
+        IntStream.range(0, size).parallel().forEach(i -> {
+            File file = files.get(i);
+            long value = readAttributes ? attributeKey(file, key) : 0;
+            entries[i] = new Entry(i, naturalKey(file.getName()), file, value == UNREADABLE ? 0 : value, value == UNREADABLE);
+        });
+
+        boolean byName = key == FileSortKey.NATURAL_NAME;
+        int direction = descending ? -1 : 1;
+        Comparator<Entry> comparator = (left, right) -> {
+            // 속성을 읽을 수 없는 파일은 정렬 방향과 관계없이 맨 뒤
+            if (left.unreadable() != right.unreadable()) {
+                return left.unreadable() ? 1 : -1;
+            }
+            int result = byName
+                    ? left.naturalKey().compareTo(right.naturalKey())
+                    : Long.compare(left.value(), right.value());
+            if (result != 0) {
+                return direction * result;
+            }
+            return compareTies(left, right);
+        };
+        Arrays.parallelSort(entries, comparator);
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = entries[i].index();
+        }
+        return order;
+    }
+
+    /**
+     * 정렬 키가 같을 때 자연 정렬 키, 원래 이름, 경로, 원래 위치 순으로 비교합니다. (정렬 방향과 무관)
+     */
+    private static int compareTies(Entry left, Entry right) {
+        int result = left.naturalKey().compareTo(right.naturalKey());
+        if (result == 0) {
+            result = left.file().getName().compareTo(right.file().getName());
+        }
+        if (result == 0) {
+            result = left.file().getPath().compareTo(right.file().getPath());
+        }
+        return result != 0 ? result : Integer.compare(left.index(), right.index());
+    }
+
+    /**
+     * 자연 정렬 키를 만듭니다. 대소문자는 구분하지 않고, 숫자 구간은 앞의 0 을 뺀 뒤
+     * "표시 문자 + 자릿수 + 숫자" 로 바꿔 자릿수가 적은 수가 먼저 오게 합니다.
+     */
+    static String naturalKey(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(lower.length() + 8);
+        int length = lower.length();
+        int i = 0;
+        while (i < length) {
+            char c = lower.charAt(i);
+            if (c < '0' || c > '9') {
+                key.append(c);
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && lower.charAt(i) >= '0' && lower.charAt(i) <= '9') {
+                i++;
+            }
+            int significant = start;
+            while (significant < i - 1 && lower.charAt(significant) == '0') {
+                significant++;
+            }
+            key.append(NUMBER_MARK).append((char) (i - significant)).append(lower, significant, i);
+        }
+        return key.toString();
+    }
+
+    private static long attributeKey(File file, FileSortKey key) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return key == FileSortKey.SIZE ? attributes.size() : attributes.lastModifiedTime().toMillis();
+        } catch (IOException | SecurityException e) {
+            return UNREADABLE;
+        }
+    }
+
+    private record Entry(int index, String naturalKey, File file, long value, boolean unreadable) {
+    }
+}
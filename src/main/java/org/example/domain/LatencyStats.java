@@ -0,0 +1,23 @@
+package org.example.domain;
+
+/**
+ * 지연 시간 히스토그램의 요약값. 시간은 모두 나노초입니다.
+ *
+ * @param count     기록된 횟수
+ * @param meanNanos 평균
+ * @param p50Nanos  중앙값 (구간 상한 근사)
+ * @param p99Nanos  99 백분위수 (구간 상한 근사)
+ * @param maxNanos  최댓값
+ */
+public record LatencyStats(long count, long meanNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+
+    public static final LatencyStats EMPTY = new LatencyStats(0, 0, 0, 0, 0);
+
+    /**
+     * 로그에 쓰기 좋은 짧은 문자열 (마이크로초 단위)
+     */
+    public String toShortString() {
+        return String.format("%d회, 평균 %.1fµs, p50 %.1fµs, p99 %.1fµs, 최대 %.1fµs",
+                count, meanNanos / 1_000.0, p50Nanos / 1_000.0, p99Nanos / 1_000.0, maxNanos / 1_000.0);
+    }
+}
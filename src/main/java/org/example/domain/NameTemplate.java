@@ -0,0 +1,405 @@
+package org.example.domain;
+
+import java.io.File;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NameTemplate 은 새 파일명 패턴(예: "A0[0-9].smi")을 한 번만 해석해 둔 컴파일된 패턴입니다.
+ *
+ * 패턴 문자열은 리터럴 조각과 토큰으로 분해되며,
+ * 파일마다 정규식을 다시 컴파일하거나 문자열을 다시 스캔하지 않고 조각을 이어 붙여 이름을 만듭니다.
+ * 지원하는 토큰은 다음과 같습니다.
+ * <ul>
+ *   <li>{@code [0-9]} 번호. 기존 동작({@code replaceFirst("\\[0-9]", ...)})과 같이 첫 번째 것만 토큰으로 취급합니다.</li>
+ *   <li>{@code [n]}, {@code [n:4]} 번호. 너비를 주면 앞을 0 으로 채웁니다. (예: 0007)</li>
+ *   <li>{@code [name]} 확장자를 뺀 원래 이름, {@code [ext]} 점을 포함한 원래 확장자 (없으면 빈 문자열)</li>
+ *   <li>{@code [parent]} 원래 파일이 있는 폴더 이름</li>
+ *   <li>{@code [date]}, {@code [date:yyyy-MM-dd]} 수정 시간 (기본 형식 yyyyMMdd, 시스템 시간대)</li>
+ *   <li>{@code [size]} 바이트 단위 크기</li>
+ *   <li>{@code [hash]}, {@code [hash8]}, {@code [hash:12]} 파일 내용의 SHA-256 (16진수 소문자, 앞에서부터 주어진 글자 수)</li>
+ * </ul>
+ * 알 수 없는 토큰이나 잘못된 날짜 형식은 리터럴로 남기므로 어떤 패턴도 컴파일에 실패하지 않습니다.
+ * 날짜/크기/해시 토큰이 있을 때만 {@link FileAttributeCache} 를 통해 파일 속성을 읽고,
+ * 해시 토큰이 있을 때만 파일 내용을 읽습니다. (크기와 수정 시간이 그대로면 {@link ContentDigestCache} 의 값을 재사용)
+ *
+ * 불변 객체이므로 서비스와 UI 미리보기가 스레드 구분 없이 공유할 수 있습니다.
+ * 많은 이름을 연속으로 만들 때는 호출자가 재사용하는 StringBuilder 를
+ * {@link #appendTo(StringBuilder, int, File, FileAttributeCache)} 에 넘깁니다.
+ */
+public final class NameTemplate implements RenameNamer {
+
+    /** 번호 자리 토큰 */
+    public static final String COUNTER_TOKEN = "[0-9]";
+
+    /** 날짜 토큰의 기본 형식 */
+    public static final String DEFAULT_DATE_FORMAT = "yyyyMMdd";
+
+    private static final int MAX_COUNTER_WIDTH = 10;
+
+    private static final int MAX_HASH_LENGTH = 64;
+
+    private final String pattern;
+    private final Part[] parts;
+    private final int literalLength;
+    private final boolean hasCounter;
+    private final boolean needsFile;
+    private final boolean needsAttributes;
+    private final boolean needsContent;
+
+    private NameTemplate(String pattern, Part[] parts) {
+        this.pattern = pattern;
+        this.parts = parts;
+        int length = 0;
+        boolean counter = false;
+        boolean file = false;
+        boolean attributes = false;
+        boolean content = false;
+        for (Part part : parts) {
+            if (part instanceof Literal literal) {
+                length += literal.text().length();
+            }
+            counter |= part instanceof Counter;
+            file |= !(part instanceof Literal || part instanceof Counter);
+            attributes |= part instanceof ModifiedDate || part == FileToken.SIZE || part instanceof ContentHash;
+            content |= part instanceof ContentHash;
+        }
+        this.literalLength = length;
+        this.hasCounter = counter;
+        this.needsFile = file;
+        this.needsAttributes = attributes;
+        this.needsContent = content;
+    }
+
+    /**
+     * 패턴 문자열을 해석하여 NameTemplate 을 생성합니다.
+     *
+     * @param pattern 새 파일명 패턴 (예: "A0[0-9].smi", "[name]_[n:3][ext]")
+     * @return 컴파일된 패턴
+     */
+    public static NameTemplate compile(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern cannot be null");
+        }
+        List<Part> parts = new ArrayList<>(3);
+        StringBuilder literal = new StringBuilder();
+        boolean legacyCounterUsed = false;
+        int position = 0;
+        while (position < pattern.length()) {
+            int open = pattern.indexOf('[', position);
+            int close = open < 0 ? -1 : pattern.indexOf(']', open + 1);
+            if (close < 0) {
+                literal.append(pattern, position, pattern.length());
+                break;
+            }
+            String body = pattern.substring(open + 1, close);
+            Part token = parseToken(body, legacyCounterUsed);
+            if (token == null) {
+                // 토큰이 아니면 '[' 만 리터럴로 넘기고 그 다음부터 다시 찾음
+                literal.append(pattern, position, open + 1);
+                position = open + 1;
+                continue;
+            }
+            literal.append(pattern, position, open);
+            if (literal.length() > 0) {
+                parts.add(new Literal(literal.toString()));
+                literal.setLength(0);
+            }
+            parts.add(token);
+            legacyCounterUsed |= body.equals("0-9");
+            position = close + 1;
+        }
+        if (literal.length() > 0) {
+            parts.add(new Literal(literal.toString()));
+        }
+        return new NameTemplate(pattern, parts.toArray(new Part[0]));
+    }
+
+    private static Part parseToken(String body, boolean legacyCounterUsed) {
+        switch (body) {
+            case "0-9":
+                return legacyCounterUsed ? null : Counter.PLAIN;
+            case "n":
+                return Counter.PLAIN;
+            case "name":
+                return FileToken.NAME;
+            case "ext":
+                return FileToken.EXTENSION;
+            case "parent":
+                return FileToken.PARENT;
+            case "size":
+                return FileToken.SIZE;
+            case "date":
+                return ModifiedDate.of(DEFAULT_DATE_FORMAT);
+            case "hash":
+                return new ContentHash(MAX_HASH_LENGTH);
+            case "hash8":
+                return new ContentHash(8);
+            default:
+                break;
+        }
+        if (body.startsWith("n:")) {
+            String width = body.substring(2);
+            if (width.isEmpty() || width.length() > 2 || !width.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            int value = Integer.parseInt(width);
+            return value >= 1 && value <= MAX_COUNTER_WIDTH ? new Counter(value) : null;
+        }
+        if (body.startsWith("hash:")) {
+            String length = body.substring(5);
+            if (length.isEmpty() || length.length() > 2 || !length.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            int value = Integer.parseInt(length);
+            return value >= 1 && value <= MAX_HASH_LENGTH ? new ContentHash(value) : null;
+        }
+        if (body.startsWith("date:") && body.length() > 5) {
+            return ModifiedDate.of(body.substring(5));
+        }
+        return null;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 패턴에 번호 자리가 있는지 여부를 반환합니다.
+     */
+    @Override
+    public boolean hasCounter() {
+        return hasCounter;
+    }
+
+    /**
+     * 이름을 만들 때 원래 파일(이름, 확장자, 폴더, 속성)이 필요한지 여부를 반환합니다.
+     */
+    public boolean needsFile() {
+        return needsFile;
+    }
+
+    /**
+     * 이름을 만들 때 파일 속성(수정 시간, 크기)을 읽어야 하는지 여부를 반환합니다.
+     */
+    public boolean needsAttributes() {
+        return needsAttributes;
+    }
+
+    /**
+     * 이름을 만들 때 파일 내용을 읽어야(해시 토큰) 하는지 여부를 반환합니다.
+     */
+    public boolean needsContent() {
+        return needsContent;
+    }
+
+    /**
+     * 주어진 번호로 파일명을 만들어 버퍼 뒤에 덧붙입니다. 스레드마다 다른 버퍼를 넘기면 동시에 호출해도 안전합니다.
+     * 파일 토큰이 없는 패턴에만 사용할 수 있습니다.
+     *
+     * @param target 이름을 덧붙일 버퍼
+     * @param number 번호 자리에 들어갈 값
+     * @return 전달받은 버퍼
+     * @throws IllegalStateException 패턴에 파일 토큰이 있는 경우
+     */
+    public StringBuilder appendTo(StringBuilder target, int number) {
+        return appendTo(target, number, null, null);
+    }
+
+    /**
+     * 주어진 번호와 원래 파일로 파일명을 만들어 버퍼 뒤에 덧붙입니다.
+     *
+     * @param target     이름을 덧붙일 버퍼
+     * @param number     번호 자리에 들어갈 값
+     * @param file       원래 파일 (파일 토큰이 없으면 null 가능)
+     * @param attributes 작업 단위 속성 캐시 (날짜/크기 토큰이 없으면 null 가능)
+     * @return 전달받은 버퍼
+     * @throws IllegalStateException       필요한 파일이나 속성 캐시가 주어지지 않은 경우
+     * @throws java.io.UncheckedIOException 파일 속성을 읽을 수 없는 경우
+     */
+    public StringBuilder appendTo(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+        if (needsFile && file == null) {
+            throw new IllegalStateException("pattern needs a source file: " + pattern);
+        }
+        if (needsAttributes && attributes == null) {
+            throw new IllegalStateException("pattern needs file attributes: " + pattern);
+        }
+        for (Part part : parts) {
+            part.append(target, number, file, attributes);
+        }
+        return target;
+    }
+
+    /**
+     * 주어진 번호로 파일명을 만듭니다. 미리보기처럼 이름을 하나씩 만들 때 사용합니다.
+     *
+     * @param number 번호 자리에 들어갈 값
+     * @return 새 파일명
+     */
+    public String format(int number) {
+        return appendTo(new StringBuilder(literalLength + 11), number).toString();
+    }
+
+    /**
+     * 재사용하는 버퍼를 비운 뒤 주어진 번호로 파일명을 만듭니다.
+     *
+     * @param buffer 호출자가 재사용하는 버퍼
+     * @param number 번호 자리에 들어갈 값
+     * @return 새 파일명
+     */
+    public String format(StringBuilder buffer, int number) {
+        buffer.setLength(0);
+        return appendTo(buffer, number).toString();
+    }
+
+    /**
+     * 재사용하는 버퍼를 비운 뒤 주어진 번호와 원래 파일로 파일명을 만듭니다.
+     *
+     * @param buffer     호출자가 재사용하는 버퍼
+     * @param number     번호 자리에 들어갈 값
+     * @param file       원래 파일
+     * @param attributes 작업 단위 속성 캐시
+     * @return 새 파일명
+     */
+    public String format(StringBuilder buffer, int number, File file, FileAttributeCache attributes) {
+        buffer.setLength(0);
+        return appendTo(buffer, number, file, attributes).toString();
+    }
+
+    /**
+     * 재사용 버퍼와, 날짜/크기 토큰이 있을 때만 작업 단위 속성 캐시를 갖는 세션을 엽니다.
+     */
+    @Override
+    public Session open() {
+        StringBuilder buffer = new StringBuilder(literalLength + 16);
+        FileAttributeCache attributes = needsAttributes ? new FileAttributeCache() : null;
+        return (index, source, number) -> format(buffer, number, source, attributes);
+    }
+
+    /**
+     * 해시 토큰이 있으면 작업 대상 전체의 내용 해시를 병렬로 미리 계산해 둔 세션을 엽니다.
+     */
+    @Override
+    public Session open(File[] sources) {
+        if (!needsContent) {
+            return open();
+        }
+        StringBuilder buffer = new StringBuilder(literalLength + 16);
+        FileAttributeCache attributes = new FileAttributeCache();
+        attributes.prefetchDigests(sources);
+        return (index, source, number) -> format(buffer, number, source, attributes);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * 패턴을 이루는 조각 하나.
+     */
+    private interface Part {
+        void append(StringBuilder target, int number, File file, FileAttributeCache attributes);
+    }
+
+    private record Literal(String text) implements Part {
+        @Override
+        public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+            target.append(text);
+        }
+    }
+
+    private record Counter(int width) implements Part {
+        static final Counter PLAIN = new Counter(0);
+
+        @Override
+        public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+            if (width == 0) {
+                target.append(number);
+                return;
+            }
+            // String.format("%0" + width + "d") 와 같이 부호도 너비에 포함
+            int digitWidth = width;
+            if (number < 0) {
+                target.append('-');
+                digitWidth--;
+            }
+            String digits = Long.toString(Math.abs((long) number));
+            for (int i = digits.length(); i < digitWidth; i++) {
+                target.append('0');
+            }
+            target.append(digits);
+        }
+    }
+
+    private enum FileToken implements Part {
+        NAME {
+            @Override
+            public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+                String name = file.getName();
+                target.append(name, 0, extensionStart(name));
+            }
+        },
+        EXTENSION {
+            @Override
+            public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+                String name = file.getName();
+                target.append(name, extensionStart(name), name.length());
+            }
+        },
+        PARENT {
+            @Override
+            public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+                File parent = file.getAbsoluteFile().getParentFile();
+                if (parent != null) {
+                    target.append(parent.getName());
+                }
+            }
+        },
+        SIZE {
+            @Override
+            public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+                target.append(attributes.get(file).size());
+            }
+        };
+
+        /**
+         * 확장자의 시작 위치(마지막 '.')를 반환합니다. ".bashrc" 처럼 맨 앞의 점은 확장자로 보지 않습니다.
+         */
+        static int extensionStart(String name) {
+            int dot = name.lastIndexOf('.');
+            return dot > 0 ? dot : name.length();
+        }
+    }
+
+    private record ContentHash(int length) implements Part {
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        @Override
+        public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+            byte[] digest = attributes.digest(file);
+            for (int i = 0; i < length; i++) {
+                int value = digest[i >> 1] >> ((i & 1) == 0 ? 4 : 0);
+                target.append(HEX[value & 0xF]);
+            }
+        }
+    }
+
+    private record ModifiedDate(DateTimeFormatter formatter) implements Part {
+
+        static ModifiedDate of(String format) {
+            try {
+                return new ModifiedDate(DateTimeFormatter.ofPattern(format).withZone(ZoneId.systemDefault()));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void append(StringBuilder target, int number, File file, FileAttributeCache attributes) {
+            formatter.formatTo(attributes.get(file).lastModifiedTime().toInstant(), target);
+        }
+    }
+}
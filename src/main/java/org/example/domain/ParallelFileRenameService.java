@@ -0,0 +1,104 @@
+package org.example.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParallelFileRenameService 는 파일 이동을 부모 디렉토리 단위로 나누어 여러 스레드에서 동시에 실행하는 구현체입니다.
+ *
+ * 1단계(계획)에서는 호출 스레드가 {@link RenamePlanner} 로 각 파일에 번호를 미리 배정하고 이동 순서를 정하며,
+ * 2단계(실행)에서는 디렉토리별 단계 그룹을 풀에 제출하여 {@link java.nio.file.Files#move} 로 이동합니다.
+ * 순차 구현과 같은 계획을 사용하므로 같은 번호가 배정됩니다.
+ * 다른 폴더로 옮길 때({@link #moveFiles})는 체인/순환 단위로 나눈 그룹을 제출하므로, 다른 파일 시스템으로의 복사가
+ * {@link FileMover} 의 동시 복사 수만큼 함께 진행됩니다.
+ *
+ * {@link #withParallelism} 으로 만든 구현체는 전용 풀을 직접 소유하므로 다 쓰면 {@link #close} 로 풀을 종료해야 합니다.
+ * 호출자가 넘긴 풀은 close 해도 종료하지 않습니다.
+ */
+public class ParallelFileRenameService extends PlannedFileRenameService implements AutoCloseable {
+
+    private final ExecutorService executor;
+    // true 면 이 구현체가 만든 풀이므로 close 에서 종료
+    private final boolean ownsExecutor;
+
+    /**
+     * 공용 ForkJoinPool 을 사용하는 구현체를 생성합니다.
+     */
+    public ParallelFileRenameService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 이동 작업을 실행할 풀을 지정하여 생성합니다.
+     * ForkJoinPool, 고정 크기 스레드 풀, 가상 스레드 executor(JDK 21 이상) 등 어떤 ExecutorService 든 사용할 수 있습니다.
+     * 풀의 생명주기는 호출자가 관리합니다.
+     *
+     * @param executor 디렉토리별 이동 작업을 실행할 풀
+     */
+    public ParallelFileRenameService(ExecutorService executor) {
+        this(executor, FileMover.DEFAULT);
+    }
+
+    /**
+     * 이동 작업을 실행할 풀과 파일을 옮길 방식을 지정하여 생성합니다.
+     *
+     * @param executor 이동 작업을 실행할 풀
+     * @param mover    파일을 옮길 방식 (다른 파일 시스템으로 옮길 때의 동시 복사 수와 전송 속도 제한)
+     */
+    public ParallelFileRenameService(ExecutorService executor, FileMover mover) {
+        this(executor, mover, false);
+    }
+
+    private ParallelFileRenameService(ExecutorService executor, FileMover mover, boolean ownsExecutor) {
+        super(mover);
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * 지정한 병렬도를 갖는 전용 ForkJoinPool 로 구현체를 생성합니다. 다 쓰면 {@link #close} 를 호출해야 합니다.
+     *
+     * @param parallelism 동시에 이동을 실행할 스레드 수
+     */
+    public static ParallelFileRenameService withParallelism(int parallelism) {
+        return withParallelism(parallelism, FileMover.DEFAULT);
+    }
+
+    /**
+     * 지정한 병렬도를 갖는 전용 ForkJoinPool 과 파일을 옮길 방식으로 구현체를 생성합니다. 다 쓰면 {@link #close} 를 호출해야 합니다.
+     *
+     * @param parallelism 동시에 이동을 실행할 스레드 수
+     * @param mover       파일을 옮길 방식
+     */
+    public static ParallelFileRenameService withParallelism(int parallelism, FileMover mover) {
+        return new ParallelFileRenameService(new ForkJoinPool(parallelism), mover, true);
+    }
+
+    /**
+     * 이 구현체가 만든 전용 풀이면 종료합니다. 이미 제출한 이동은 끝까지 실행되며, 호출자가 넘긴 풀은 그대로 둡니다.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    protected void execute(RenamePlan plan, FileMover mover, RenamingCallback callback, AtomicInteger count) {
+        // 콜백은 여러 스레드에서 호출되므로 하나의 락으로 직렬화하여 전달합니다.
+        Object callbackLock = new Object();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(plan.getGroups().size());
+        for (List<RenamePlan.Step> group : plan.getGroups()) {
+            futures.add(CompletableFuture.runAsync(() -> plan.execute(group, mover, callback, callbackLock, count), executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
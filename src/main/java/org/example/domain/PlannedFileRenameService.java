@@ -0,0 +1,89 @@
+package org.example.domain;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PlannedFileRenameService 는 {@link RenamePlanner} 로 번호와 이동 순서를 먼저 계획한 뒤 실행하는 엔진의 공통 부분입니다.
+ *
+ * 패턴, 컴파일된 패턴, 규칙 체인, 다른 폴더로의 이동을 모두 같은 계획 단계로 처리하며,
+ * 하위 클래스는 계획의 그룹들을 어떻게 실행할지(차례로, 또는 풀에서 동시에)만 정합니다.
+ */
+public abstract class PlannedFileRenameService implements FileRenameService {
+
+    private final RenamePlanner planner = new RenamePlanner();
+    private final FileMover mover;
+
+    /**
+     * @param mover 파일을 옮길 방식 (다른 파일 시스템으로 옮길 때의 동시 복사 수와 전송 속도 제한)
+     */
+    protected PlannedFileRenameService(FileMover mover) {
+        if (mover == null) {
+            throw new IllegalArgumentException("mover cannot be null");
+        }
+        this.mover = mover;
+    }
+
+    @Override
+    public void renameFiles(List<File> files, RenameNamer namer, int startNumber, RenamingCallback callback) {
+        renameFiles(files, namer, new RenameSession(startNumber), callback);
+    }
+
+    @Override
+    public void moveFiles(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                          RenamingCallback callback) {
+        moveFiles(files, namer, new RenameSession(startNumber), targetDirectory, callback);
+    }
+
+    /**
+     * 이전 호출에 이어서 이름을 변경합니다. 번호는 session 의 다음 번호부터 배정하며, 끝나면 session 을 갱신합니다.
+     *
+     * @param files    변경 대상 파일 목록
+     * @param namer    새 파일명을 만드는 방식
+     * @param session  호출 사이에 이어지는 번호와 디렉토리 스냅샷
+     * @param callback 작업 결과를 전달하는 콜백
+     */
+    public void renameFiles(List<File> files, RenameNamer namer, RenameSession session, RenamingCallback callback) {
+        run(files, namer, session, null, callback);
+    }
+
+    /**
+     * 이전 호출에 이어서 새 이름을 붙여 파일을 다른 폴더로 옮깁니다. 번호는 session 의 다음 번호부터 배정합니다.
+     *
+     * @param files           이동 대상 파일 목록
+     * @param namer           새 파일명을 만드는 방식
+     * @param session         호출 사이에 이어지는 번호와 디렉토리 스냅샷
+     * @param targetDirectory 파일을 옮길 폴더 (이미 있어야 함)
+     * @param callback        작업 결과를 전달하는 콜백
+     * @throws IllegalArgumentException targetDirectory 가 폴더가 아닌 경우
+     */
+    public void moveFiles(List<File> files, RenameNamer namer, RenameSession session, File targetDirectory,
+                          RenamingCallback callback) {
+        run(files, namer, session, targetDirectory, callback);
+    }
+
+    private void run(List<File> files, RenameNamer namer, RenameSession session, File targetDirectory,
+                     RenamingCallback callback) {
+        // 이름이 서로 물려 있는 배치(A01→A02, A02→A03 ...)도 건너뛰지 않도록 이동 순서를 먼저 계획한 뒤 실행
+        // 묶음을 받는 콜백이면 결과를 묶음 단위로 모아서 전달
+        RenamingCallback sink = RenameBatcher.wrap(callback);
+        RenamePlan plan = planner.plan(files, namer, session.getNextNumber(), targetDirectory, session.conflicts(), sink);
+        session.advanceTo(plan.getNextNumber());
+        AtomicInteger count = new AtomicInteger();
+        execute(plan, mover, sink, count);
+
+        sink.onComplete(count.get());
+    }
+
+    /**
+     * 계획의 그룹을 모두 실행하고 끝날 때까지 기다립니다. 그룹끼리는 경로를 공유하지 않으므로 동시에 실행해도 됩니다.
+     * 그룹 하나는 {@link RenamePlan#execute} 로 실행합니다.
+     *
+     * @param plan     실행할 계획
+     * @param mover    파일을 옮길 방식
+     * @param callback 결과를 전달할 콜백 (여러 스레드에서 호출하려면 하나의 락으로 직렬화해야 함)
+     * @param count    실제로 바뀐 파일 수를 더할 카운터
+     */
+    protected abstract void execute(RenamePlan plan, FileMover mover, RenamingCallback callback, AtomicInteger count);
+}
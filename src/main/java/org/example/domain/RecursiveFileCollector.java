@@ -0,0 +1,148 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * RecursiveFileCollector 는 폴더를 {@link Files#walkFileTree} 로 재귀 탐색하며 찾은 파일을
+ * 일정 개수(chunk)씩 묶어 바로 전달합니다. 전체 목록을 한 번에 만들지 않으므로
+ * 파일이 아주 많은 트리도 첫 묶음이 곧바로 전달되고 메모리 사용량은 묶음 크기에 비례합니다.
+ *
+ * 포함/제외 필터는 glob 문법을 사용합니다. 패턴에 '/' 가 있으면 시작 폴더 기준 상대 경로에,
+ * 없으면 파일 이름에 적용합니다. 제외 패턴에 맞는 폴더는 하위 전체를 건너뜁니다.
+ */
+public class RecursiveFileCollector {
+
+    /** 기본 묶음 크기 */
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    private final int chunkSize;
+
+    public RecursiveFileCollector() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public RecursiveFileCollector(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * roots 를 차례로 탐색하며 파일을 묶음 단위로 전달합니다. roots 중 일반 파일은 필터 없이 그대로 전달합니다.
+     *
+     * @param roots       탐색할 폴더 또는 파일 목록
+     * @param includeGlob 포함할 파일의 glob 패턴 (null 또는 빈 문자열이면 모두 포함)
+     * @param excludeGlob 제외할 파일/폴더의 glob 패턴 (null 또는 빈 문자열이면 제외 없음)
+     * @param chunkConsumer 찾은 파일 묶음을 받을 consumer (탐색 스레드에서 호출됨)
+     * @param cancelled   true 를 반환하면 탐색을 멈춤
+     * @return 전달한 전체 파일 수
+     * @throws IOException 탐색을 시작할 수 없는 경우
+     */
+    public int collect(List<File> roots, String includeGlob, String excludeGlob,
+                       Consumer<List<File>> chunkConsumer, BooleanSupplier cancelled) throws IOException {
+        Matcher include = Matcher.of(includeGlob);
+        Matcher exclude = Matcher.of(excludeGlob);
+        ChunkBuffer buffer = new ChunkBuffer(chunkConsumer);
+
+        for (File root : roots) {
+            if (cancelled.getAsBoolean()) {
+                break;
+            }
+            Path rootPath = root.toPath();
+            if (!Files.isDirectory(rootPath)) {
+                buffer.add(root);
+                continue;
+            }
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (cancelled.getAsBoolean()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    if (!dir.equals(rootPath) && exclude != null && exclude.matches(rootPath, dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isDirectory()
+                            || (include != null && !include.matches(rootPath, file))
+                            || (exclude != null && exclude.matches(rootPath, file))) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    buffer.add(file.toFile());
+                    return cancelled.getAsBoolean() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    // 읽을 수 없는 항목은 건너뛰고 계속 탐색
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        buffer.flush();
+        return buffer.total;
+    }
+
+    private class ChunkBuffer {
+        private final Consumer<List<File>> consumer;
+        private List<File> chunk = new ArrayList<>(chunkSize);
+        private int total;
+
+        ChunkBuffer(Consumer<List<File>> consumer) {
+            this.consumer = consumer;
+        }
+
+        void add(File file) {
+            chunk.add(file);
+            total++;
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+    }
+
+    /**
+     * glob 패턴 하나. '/' 포함 여부에 따라 상대 경로 또는 이름에 적용합니다.
+     */
+    private record Matcher(PathMatcher matcher, boolean matchRelativePath) {
+
+        static Matcher of(String glob) {
+            if (glob == null || glob.isBlank()) {
+                return null;
+            }
+            String trimmed = glob.trim();
+            FileSystem fileSystem = FileSystems.getDefault();
+            return new Matcher(fileSystem.getPathMatcher("glob:" + trimmed), trimmed.contains("/"));
+        }
+
+        boolean matches(Path root, Path path) {
+            Path subject = matchRelativePath ? root.relativize(path) : path.getFileName();
+            return subject != null && matcher.matches(subject);
+        }
+    }
+}
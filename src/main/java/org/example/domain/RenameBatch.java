@@ -0,0 +1,145 @@
+package org.example.domain;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * RenameBatch 는 이름 변경 결과 여러 개를 배열에 모아 한 번에 전달하는 묶음입니다.
+ * {@link BatchRenamingCallback#onBatch(RenameBatch)} 로 전달되며, 전달된 뒤에는 엔진이 다시 사용하지 않습니다.
+ *
+ * 항목 i 의 의미는 상태 코드에 따라 다릅니다.
+ * - {@link #RENAMED}: index(i) 위치의 oldFile(i) 이 newFile(i) 로 변경됨 (위치를 모르면 index 는 -1)
+ * - {@link #EXISTS}: newFile(i) 가 이미 존재하여 건너뜀 (oldFile 은 null, index 는 -1)
+ * - {@link #ERROR}: oldFile(i) 변경 중 error(i) 발생 (index 는 -1)
+ */
+public final class RenameBatch {
+
+    public static final byte RENAMED = 0;
+    public static final byte EXISTS = 1;
+    public static final byte ERROR = 2;
+
+    private final int[] indices;
+    private final File[] oldFiles;
+    private final File[] newFiles;
+    private final byte[] statuses;
+    // 에러는 드물기 때문에 처음 필요할 때 만듦
+    private Exception[] errors;
+    private int size;
+
+    public RenameBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.indices = new int[capacity];
+        this.oldFiles = new File[capacity];
+        this.newFiles = new File[capacity];
+        this.statuses = new byte[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == statuses.length;
+    }
+
+    public int index(int i) {
+        checkEntry(i);
+        return indices[i];
+    }
+
+    public File oldFile(int i) {
+        checkEntry(i);
+        return oldFiles[i];
+    }
+
+    public File newFile(int i) {
+        checkEntry(i);
+        return newFiles[i];
+    }
+
+    public byte status(int i) {
+        checkEntry(i);
+        return statuses[i];
+    }
+
+    public Exception error(int i) {
+        checkEntry(i);
+        return errors == null ? null : errors[i];
+    }
+
+    /**
+     * 주어진 상태 코드를 가진 항목 수를 반환합니다.
+     */
+    public int count(byte status) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (statuses[i] == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void addRenamed(int index, File oldFile, File newFile) {
+        add(index, oldFile, newFile, RENAMED);
+    }
+
+    public void addExists(File newFile) {
+        add(-1, null, newFile, EXISTS);
+    }
+
+    public void addError(File file, Exception error) {
+        if (errors == null) {
+            errors = new Exception[statuses.length];
+        }
+        errors[size] = error;
+        add(-1, file, null, ERROR);
+    }
+
+    /**
+     * 묶음의 항목을 순서대로 파일 단위 콜백으로 풀어 전달합니다. 묶음을 모르는 콜백을 위한 어댑터입니다.
+     */
+    public void deliverTo(FileRenameService.RenamingCallback callback) {
+        for (int i = 0; i < size; i++) {
+            switch (statuses[i]) {
+                case RENAMED -> {
+                    if (indices[i] >= 0) {
+                        callback.onRenamed(indices[i], oldFiles[i], newFiles[i]);
+                    } else {
+                        callback.onRenamed(oldFiles[i], newFiles[i]);
+                    }
+                }
+                case EXISTS -> callback.onExists(newFiles[i]);
+                default -> callback.onError(oldFiles[i], errors[i]);
+            }
+        }
+    }
+
+    private void add(int index, File oldFile, File newFile, byte status) {
+        if (isFull()) {
+            throw new IllegalStateException("batch is full: " + size);
+        }
+        indices[size] = index;
+        oldFiles[size] = oldFile;
+        newFiles[size] = newFile;
+        statuses[size] = status;
+        size++;
+    }
+
+    private void checkEntry(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Invalid entry: " + i);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RenameBatch{size=" + size + ", statuses=" + Arrays.toString(Arrays.copyOf(statuses, size)) + "}";
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.domain;
+
+import java.io.File;
+
+/**
+ * RenameBatcher 는 엔진이 파일마다 보내는 결과를 {@link RenameBatch} 로 모아
+ * {@link BatchRenamingCallback} 에 전달하는 엔진 내부용 콜백입니다.
+ *
+ * 묶음이 가득 차거나, 마지막 전달 후 {@link #MAX_DELAY_NANOS} 가 지났으면 바로 전달하고,
+ * onComplete 전에 남은 결과를 모두 전달합니다. 여러 스레드에서 호출해도 안전하며 onBatch 호출은 직렬화됩니다.
+ */
+final class RenameBatcher implements FileRenameService.RenamingCallback {
+
+    // 느린 파일 시스템에서도 진행 상황이 멈춰 보이지 않도록 묶음을 오래 붙잡지 않음
+    static final long MAX_DELAY_NANOS = 50_000_000L;
+
+    private final BatchRenamingCallback target;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private RenameBatch current;
+    private long lastFlushNanos = System.nanoTime();
+
+    private RenameBatcher(BatchRenamingCallback target) {
+        this.target = target;
+        this.batchSize = Math.max(1, target.getBatchSize());
+        this.current = new RenameBatch(batchSize);
+    }
+
+    /**
+     * 묶음을 받을 수 있는 콜백이면 RenameBatcher 로 감싸고, 아니면 그대로 반환합니다.
+     */
+    static FileRenameService.RenamingCallback wrap(FileRenameService.RenamingCallback callback) {
+        return callback instanceof BatchRenamingCallback batchCallback ? new RenameBatcher(batchCallback) : callback;
+    }
+
+    @Override
+    public void onRenamed(File oldFile, File newFile) {
+        onRenamed(-1, oldFile, newFile);
+    }
+
+    @Override
+    public void onRenamed(int index, File oldFile, File newFile) {
+        synchronized (lock) {
+            current.addRenamed(index, oldFile, newFile);
+            flushIfDue();
+        }
+    }
+
+    @Override
+    public void onExists(File newFile) {
+        synchronized (lock) {
+            current.addExists(newFile);
+            flushIfDue();
+        }
+    }
+
+    @Override
+    public void onError(File file, Exception e) {
+        synchronized (lock) {
+            current.addError(file, e);
+            flushIfDue();
+        }
+    }
+
+    @Override
+    public void onTransferProgress(int index, File oldFile, long transferred, long total) {
+        target.onTransferProgress(index, oldFile, transferred, total);
+    }
+
+    @Override
+    public void onComplete(int count) {
+        flush();
+        target.onComplete(count);
+    }
+
+    @Override
+    public void onComplete(int count, RenameSummary summary) {
+        flush();
+        target.onComplete(count, summary);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return target.isCancelled();
+    }
+
+    @Override
+    public RenameProbe getProbe() {
+        return target.getProbe();
+    }
+
+    void flush() {
+        synchronized (lock) {
+            if (current.isEmpty()) {
+                return;
+            }
+            RenameBatch batch = current;
+            current = new RenameBatch(batchSize);
+            lastFlushNanos = System.nanoTime();
+            target.onBatch(batch);
+        }
+    }
+
+    private void flushIfDue() {
+        if (current.isFull() || System.nanoTime() - lastFlushNanos >= MAX_DELAY_NANOS) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package org.example.domain;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * RenameJournal 은 이름 변경 작업마다 실제로 바뀐 (이전 이름 → 새 이름) 쌍을 기록해 두고,
+ * 되돌리기(undo)와 다시 실행(redo) 스택으로 관리합니다.
+ *
+ * 작업 하나는 {@link Batch} 하나에 추가만 하는 방식으로 기록합니다.
+ * - 폴더 경로는 작업마다 한 번만 저장하고 항목은 폴더 id 로 참조합니다.
+ * - 새 이름은 바로 앞 항목의 새 이름과 겹치는 앞부분과 뒷부분(trip_00, .jpg 등)의 길이와 달라진 가운데 바이트만 저장합니다.
+ * - 이전 이름은 새 이름이나 앞 항목의 이전 이름 중 더 많이 겹치는 쪽을 기준으로 같은 방식으로 저장합니다.
+ * 연번 파일을 일괄 변경하면 항목 하나가 10 바이트 안팎입니다.
+ * - 기록이 {@link #DEFAULT_SPILL_BYTES} 를 넘으면 임시 파일로 내보내고(spill), 되돌릴 때 메모리 매핑해 읽습니다.
+ * 따라서 메모리에는 작업마다 폴더 목록과 아직 내보내지 않은 마지막 조각만 남습니다.
+ *
+ * 되돌리기는 기록을 {@link Replay} 로 풀어 같은 이름 변경 엔진에 넘기는 방식입니다.
+ * Replay 는 지금 이름(새 이름)을 원본 목록으로, 이전 이름을 새 이름으로 주는 {@link RenameNamer} 이므로
+ * 서로 이름을 맞바꾼 경우 등도 엔진의 계획(RenamePlanner)이 그대로 처리합니다.
+ *
+ * 한 스레드에서만 사용해야 합니다.
+ */
+public final class RenameJournal implements Closeable {
+
+    /** 기본으로 보관하는 되돌리기 단계 수 */
+    public static final int DEFAULT_MAX_BATCHES = 20;
+
+    /** 작업 하나의 기록을 메모리에 두는 최대 바이트 수. 넘으면 임시 파일로 내보냄 */
+    public static final int DEFAULT_SPILL_BYTES = 1 << 20;
+
+    private final int maxBatches;
+    private final int spillBytes;
+    private final Deque<Batch> undoStack = new ArrayDeque<>();
+    private final Deque<Batch> redoStack = new ArrayDeque<>();
+
+    public RenameJournal() {
+        this(DEFAULT_MAX_BATCHES, DEFAULT_SPILL_BYTES);
+    }
+
+    /**
+     * @param maxBatches 스택마다 보관할 최대 작업 수 (넘으면 가장 오래된 작업을 버림)
+     * @param spillBytes 작업 하나의 기록을 메모리에 두는 최대 바이트 수
+     */
+    public RenameJournal(int maxBatches, int spillBytes) {
+        if (maxBatches <= 0 || spillBytes <= 0) {
+            throw new IllegalArgumentException("maxBatches and spillBytes must be positive");
+        }
+        this.maxBatches = maxBatches;
+        this.spillBytes = spillBytes;
+    }
+
+    /**
+     * 새 작업 기록을 만듭니다. 기록이 끝나면 {@link #pushUndo(Batch)} 나 {@link #pushRedo(Batch)} 로 스택에 넣습니다.
+     */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * 되돌리기 스택에 작업을 넣습니다. 바뀐 파일이 없는 작업은 버립니다.
+     */
+    public void pushUndo(Batch batch) {
+        push(undoStack, batch);
+    }
+
+    /**
+     * 다시 실행 스택에 작업을 넣습니다. 바뀐 파일이 없는 작업은 버립니다.
+     */
+    public void pushRedo(Batch batch) {
+        push(redoStack, batch);
+    }
+
+    /**
+     * 가장 최근 작업을 되돌리기 스택에서 꺼냅니다. 없으면 null 을 반환합니다.
+     */
+    public Batch pollUndo() {
+        return undoStack.pollFirst();
+    }
+
+    /**
+     * 가장 최근에 되돌린 작업을 다시 실행 스택에서 꺼냅니다. 없으면 null 을 반환합니다.
+     */
+    public Batch pollRedo() {
+        return redoStack.pollFirst();
+    }
+
+    /**
+     * 새 작업을 실행하면 되돌린 작업은 다시 실행할 수 없으므로 다시 실행 스택을 비웁니다.
+     */
+    public void clearRedo() {
+        closeAll(redoStack);
+    }
+
+    public int getUndoCount() {
+        return undoStack.size();
+    }
+
+    public int getRedoCount() {
+        return redoStack.size();
+    }
+
+    /**
+     * 기록을 모두 버리고 임시 파일을 지웁니다.
+     */
+    @Override
+    public void close() {
+        closeAll(undoStack);
+        closeAll(redoStack);
+    }
+
+    private void push(Deque<Batch> stack, Batch batch) {
+        if (batch.size() == 0) {
+            batch.close();
+            return;
+        }
+        stack.addFirst(batch);
+        while (stack.size() > maxBatches) {
+            stack.pollLast().close();
+        }
+    }
+
+    private static void closeAll(Deque<Batch> stack) {
+        Batch batch;
+        while ((batch = stack.pollFirst()) != null) {
+            batch.close();
+        }
+    }
+
+    /**
+     * 이름 변경 작업 하나의 기록. 항목마다 [폴더 id, 앞 항목의 새 이름 기준 새 이름 차이,
+     * 새 이름 또는 앞 항목의 이전 이름 기준 이전 이름 차이] 를 varint 와 함께 이어 씁니다.
+     */
+    public final class Batch implements Closeable {
+        private final List<String> directories = new ArrayList<>();
+        private final Map<String, Integer> directoryIds = new HashMap<>();
+        private String lastDirectory;
+        private int lastDirectoryId;
+        private byte[] lastNewName = new byte[0];
+        private byte[] lastOldName = new byte[0];
+
+        private byte[] buffer = new byte[256];
+        private int length;
+        private int size;
+
+        // 임시 파일로 내보낸 앞부분 (없으면 null)
+        private Path spillPath;
+        private FileChannel spillChannel;
+        private long spilledBytes;
+
+        private Batch() {
+        }
+
+        /**
+         * 바뀐 파일 하나를 기록합니다. 되돌릴 때는 newFile 의 폴더에서 이름을 oldFile 의 이름으로 바꿉니다.
+         *
+         * @throws UncheckedIOException 임시 파일로 내보내지 못한 경우
+         */
+        public void record(File oldFile, File newFile) {
+            byte[] oldName = oldFile.getName().getBytes(StandardCharsets.UTF_8);
+            byte[] newName = newFile.getName().getBytes(StandardCharsets.UTF_8);
+            // 이전 이름은 새 이름(정규식 치환 등)과 앞 항목의 이전 이름(연번 등) 중 더 많이 겹치는 쪽을 기준으로 저장
+            int pairOverlap = overlap(newName, oldName);
+            int runOverlap = overlap(lastOldName, oldName);
+            boolean fromPreviousOld = runOverlap > pairOverlap;
+            ensure(40 + newName.length + oldName.length);
+            writeVarint(directoryIdOf(newFile.getParent()) + 1);
+            writeDelta(lastNewName, newName, 0);
+            writeDelta(fromPreviousOld ? lastOldName : newName, oldName, fromPreviousOld ? 1 : 0);
+            lastNewName = newName;
+            lastOldName = oldName;
+            size++;
+            if (length >= spillBytes) {
+                spill();
+            }
+        }
+
+        /**
+         * 기록된 파일 수를 반환합니다.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * 기록이 차지하는 바이트 수(임시 파일 포함)를 반환합니다.
+         */
+        public long getByteSize() {
+            return spilledBytes + length;
+        }
+
+        /**
+         * 기록 일부를 임시 파일로 내보냈으면 true 를 반환합니다.
+         */
+        public boolean isSpilled() {
+            return spillPath != null;
+        }
+
+        /**
+         * 기록을 되돌리기용으로 풉니다. 임시 파일로 내보낸 부분은 메모리 매핑해 읽습니다.
+         * 백그라운드 스레드에서 호출해도 되지만, 그동안 이 기록에 추가하면 안 됩니다.
+         *
+         * @throws IOException 임시 파일을 읽을 수 없는 경우
+         */
+        public Replay replay() throws IOException {
+            Replay replay = new Replay(List.copyOf(directories), size, (int) Math.min(Integer.MAX_VALUE, getByteSize() * 2));
+            try {
+                if (spillChannel != null) {
+                    replay.decode(spillChannel.map(FileChannel.MapMode.READ_ONLY, 0, spilledBytes));
+                }
+                replay.decode(ByteBuffer.wrap(buffer, 0, length));
+            } catch (BufferUnderflowException e) {
+                throw new IOException("이름 변경 기록이 손상되었습니다: 기록이 중간에 끝났습니다.", e);
+            }
+            if (replay.size != size) {
+                throw new IOException("이름 변경 기록이 손상되었습니다: 항목 수 " + replay.size + " != " + size);
+            }
+            return replay;
+        }
+
+        /**
+         * 임시 파일을 지웁니다.
+         */
+        @Override
+        public void close() {
+            if (spillPath == null) {
+                return;
+            }
+            try {
+                spillChannel.close();
+                Files.deleteIfExists(spillPath);
+            } catch (IOException e) {
+                // 지우지 못한 파일만 종료 시 다시 시도 (DeleteOnExitHook 은 경로를 끝까지 보관하므로 실패한 경우에만 등록)
+                spillPath.toFile().deleteOnExit();
+            }
+            spillChannel = null;
+            spillPath = null;
+        }
+
+        private int directoryIdOf(String directory) {
+            if (directory == null) {
+                return -1;
+            }
+            if (directory.equals(lastDirectory)) {
+                return lastDirectoryId;
+            }
+            Integer id = directoryIds.get(directory);
+            if (id == null) {
+                id = directories.size();
+                directories.add(directory);
+                directoryIds.put(directory, id);
+            }
+            lastDirectory = directory;
+            lastDirectoryId = id;
+            return id;
+        }
+
+        private void spill() {
+            try {
+                if (spillPath == null) {
+                    spillPath = Files.createTempFile("rename-journal", ".bin");
+                    spillChannel = FileChannel.open(spillPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, length);
+                while (chunk.hasRemaining()) {
+                    spilledBytes += spillChannel.write(chunk, spilledBytes);
+                }
+                length = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * target 을 reference 와 겹치는 앞부분 길이, 뒷부분 길이, 달라진 가운데 바이트로 씁니다.
+         * 앞부분 길이의 가장 낮은 비트에는 기준을 구분하는 flag 를 함께 넣습니다.
+         */
+        private void writeDelta(byte[] reference, byte[] target, int flag) {
+            int prefix = commonPrefix(reference, target);
+            int suffix = commonSuffix(reference, target, prefix);
+            int middle = target.length - prefix - suffix;
+            writeVarint(prefix << 1 | flag);
+            writeVarint(suffix);
+            writeVarint(middle);
+            System.arraycopy(target, prefix, buffer, length, middle);
+            length += middle;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(length + extra, buffer.length * 2));
+            }
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+    }
+
+    private static int overlap(byte[] reference, byte[] target) {
+        int prefix = commonPrefix(reference, target);
+        return prefix + commonSuffix(reference, target, prefix);
+    }
+
+    private static int commonPrefix(byte[] a, byte[] b) {
+        int prefix = Arrays.mismatch(a, b);
+        return prefix < 0 ? a.length : prefix;
+    }
+
+    private static int commonSuffix(byte[] a, byte[] b, int prefix) {
+        int limit = Math.min(a.length, b.length) - prefix;
+        int suffix = 0;
+        while (suffix < limit && a[a.length - 1 - suffix] == b[b.length - 1 - suffix]) {
+            suffix++;
+        }
+        return suffix;
+    }
+
+    /**
+     * 풀어 놓은 기록. {@link #sources()} 는 지금 이름(기록의 새 이름)의 파일 목록이고,
+     * 이름 변경 엔진에 {@link RenameNamer} 로 넘기면 각 파일을 기록의 이전 이름으로 되돌립니다.
+     * 이름은 하나의 바이트 배열에 담아 두고 File 과 문자열은 요청할 때 만듭니다.
+     */
+    public static final class Replay implements RenameNamer {
+        private final List<String> directories;
+        private final int[] directory;
+        private final int[] oldOffset;
+        private final int[] oldLength;
+        private final int[] newOffset;
+        private final int[] newLength;
+        private byte[] names;
+        private int used;
+        private int size;
+
+        private Replay(List<String> directories, int capacity, int nameBytes) {
+            this.directories = directories;
+            this.directory = new int[capacity];
+            this.oldOffset = new int[capacity];
+            this.oldLength = new int[capacity];
+            this.newOffset = new int[capacity];
+            this.newLength = new int[capacity];
+            this.names = new byte[Math.max(16, nameBytes)];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * 되돌릴 파일(지금 이름) 목록. 원소는 접근할 때 만들어집니다.
+         */
+        public List<File> sources() {
+            return new Sources();
+        }
+
+        /**
+         * index 번째 파일의 이전 이름을 반환합니다.
+         */
+        public String oldName(int index) {
+            return new String(names, oldOffset[index], oldLength[index], StandardCharsets.UTF_8);
+        }
+
+        /**
+         * index 번째 파일의 지금 파일을 반환합니다.
+         */
+        public File currentFile(int index) {
+            String name = new String(names, newOffset[index], newLength[index], StandardCharsets.UTF_8);
+            int parent = directory[index];
+            return parent < 0 ? new File(name) : new File(directories.get(parent), name);
+        }
+
+        @Override
+        public Session open() {
+            return (index, source, number) -> oldName(index);
+        }
+
+        @Override
+        public boolean hasCounter() {
+            return false;
+        }
+
+        private void decode(ByteBuffer in) throws IOException {
+            while (in.hasRemaining()) {
+                if (size == directory.length) {
+                    throw corrupted("항목 수");
+                }
+                int parent = readVarint(in) - 1;
+                if (parent < -1 || parent >= directories.size()) {
+                    throw corrupted("폴더");
+                }
+                int previousNewOffset = size > 0 ? newOffset[size - 1] : 0;
+                int previousNewLength = size > 0 ? newLength[size - 1] : 0;
+                int newAt = used;
+                int newNameLength = readDelta(in, previousNewOffset, previousNewLength, previousNewOffset, previousNewLength);
+                int previousOldOffset = size > 0 ? oldOffset[size - 1] : 0;
+                int previousOldLength = size > 0 ? oldLength[size - 1] : 0;
+                int oldAt = used;
+                int oldNameLength = readDelta(in, newAt, newNameLength, previousOldOffset, previousOldLength);
+
+                directory[size] = parent;
+                newOffset[size] = newAt;
+                newLength[size] = newNameLength;
+                oldOffset[size] = oldAt;
+                oldLength[size] = oldNameLength;
+                size++;
+            }
+        }
+
+        /**
+         * 기준 이름과의 차이를 읽어 names 의 끝에 이름을 만들고 길이를 반환합니다.
+         * flag 가 0 이면 첫 번째 기준, 1 이면 두 번째 기준을 사용합니다.
+         */
+        private int readDelta(ByteBuffer in, int offset0, int length0, int offset1, int length1) throws IOException {
+            int head = readVarint(in);
+            int prefix = head >>> 1;
+            int suffix = readVarint(in);
+            int middle = readVarint(in);
+            int referenceOffset = (head & 1) == 0 ? offset0 : offset1;
+            int referenceLength = (head & 1) == 0 ? length0 : length1;
+            if (suffix < 0 || prefix + suffix > referenceLength || middle < 0 || middle > in.remaining()) {
+                throw corrupted("이름");
+            }
+            int at = used;
+            int nameLength = prefix + middle + suffix;
+            ensure(nameLength);
+            System.arraycopy(names, referenceOffset, names, at, prefix);
+            in.get(names, at + prefix, middle);
+            System.arraycopy(names, referenceOffset + referenceLength - suffix, names, at + prefix + middle, suffix);
+            used = at + nameLength;
+            return nameLength;
+        }
+
+        private static IOException corrupted(String part) {
+            return new IOException("이름 변경 기록이 손상되었습니다: " + part + " 정보가 맞지 않습니다.");
+        }
+
+        private void ensure(int extra) {
+            if (used + extra > names.length) {
+                names = Arrays.copyOf(names, Math.max(used + extra, names.length * 2));
+            }
+        }
+
+        private static int readVarint(ByteBuffer in) {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private final class Sources extends AbstractList<File> implements RandomAccess {
+            @Override
+            public File get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Invalid index: " + index);
+                }
+                return currentFile(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        }
+    }
+}
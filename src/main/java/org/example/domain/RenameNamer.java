@@ -0,0 +1,49 @@
+package org.example.domain;
+
+import java.io.File;
+
+/**
+ * RenameNamer 는 이름 변경 작업에서 파일마다 새 파일명을 만드는 방식입니다.
+ * 번호 패턴({@link NameTemplate})과 정규식 규칙({@link RenameRuleChain})이 이를 구현합니다.
+ *
+ * 구현체는 불변이어야 하며, 작업마다 {@link #open()} 으로 만든 {@link Session} 이 버퍼나 Matcher 같은
+ * 재사용 상태를 가집니다.
+ */
+public interface RenameNamer {
+
+    /**
+     * 파일을 하나씩 요청할 때 쓸 세션을 엽니다. 미리보기처럼 필요한 행만 계산할 때 사용합니다.
+     */
+    Session open();
+
+    /**
+     * 작업 대상 전체를 미리 알 때 쓸 세션을 엽니다. 구현체는 이름을 한꺼번에(병렬로) 계산해 둘 수 있습니다.
+     *
+     * @param sources 작업 대상 파일 (세션의 index 는 이 배열의 위치)
+     */
+    default Session open(File[] sources) {
+        return open();
+    }
+
+    /**
+     * 번호를 사용하는지 여부를 반환합니다.
+     */
+    boolean hasCounter();
+
+    /**
+     * 한 작업 동안 새 파일명을 만드는 세션입니다. 한 스레드에서만 사용해야 합니다.
+     */
+    interface Session {
+        /**
+         * 새 파일명을 만듭니다.
+         *
+         * @param index  작업 대상에서의 위치
+         * @param source 원래 파일
+         * @param number 배정된 번호
+         * @return 새 파일명
+         * @throws IllegalArgumentException     올바른 파일명을 만들 수 없는 경우
+         * @throws java.io.UncheckedIOException 파일 정보를 읽을 수 없는 경우
+         */
+        String name(int index, File source, int number);
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RenamePlan 은 {@link RenamePlanner} 가 만든 실행 순서가 정해진 이동 계획입니다.
+ *
+ * 이동 단계는 서로 독립적인 그룹으로 나뉘며, 그룹 안의 단계는 반드시 순서대로 실행해야 하지만
+ * 서로 다른 그룹은 동시에 실행할 수 있습니다. (보통 그룹 하나가 부모 디렉토리 하나에 해당합니다.)
+ */
+public final class RenamePlan {
+
+    private final List<List<Step>> groups;
+    private final int moveCount;
+    private final int nextNumber;
+    private final DirectoryConflictIndex conflicts;
+
+    RenamePlan(List<List<Step>> groups, int moveCount, int nextNumber, DirectoryConflictIndex conflicts) {
+        this.groups = groups;
+        this.moveCount = moveCount;
+        this.nextNumber = nextNumber;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * 동시에 실행할 수 있는 단계 그룹 목록을 반환합니다.
+     */
+    public List<List<Step>> getGroups() {
+        return groups;
+    }
+
+    /**
+     * 이름이 바뀌는 파일 수(임시 이름 단계 제외)를 반환합니다.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * 이 계획이 배정하지 않은 첫 번호를 반환합니다. 이어지는 목록은 이 번호부터 배정해야 번호가 겹치지 않습니다.
+     */
+    public int getNextNumber() {
+        return nextNumber;
+    }
+
+    /**
+     * 그룹 하나의 단계를 순서대로 실행하고 결과를 콜백으로 전달합니다.
+     * 여러 그룹을 동시에 실행할 때는 같은 callbackLock 을 넘겨 콜백 호출을 직렬화합니다.
+     * 취소는 체인이나 순환이 시작되는 지점에서만 확인하므로 임시 이름이 남지 않습니다.
+     *
+     * 체인에서 이동 하나가 실패하면 그 자리를 기다리던 나머지 이동은 시도하지 않고 onError 로 알립니다.
+     * 순환에서 이동 하나가 실패하면 이미 옮긴 파일을 역순으로 되돌려 임시 이름을 포함한 모든 파일을 원래 이름으로 돌려놓고,
+     * 순환의 모든 파일을 onError 로 알립니다. (순환의 변경 결과는 순환 전체가 끝난 뒤에 전달합니다.)
+     * 되돌리기마저 실패한 파일은 현재 경로를 에러 메시지에 담아 알립니다.
+     * 계획 단계에서 배정된 번호는 실행 중 이동이 실패해도 다른 파일에 다시 배정되지 않습니다.
+     * 실제로 일어난 이동(되돌리기 포함)은 계획을 세울 때 쓴 {@link DirectoryConflictIndex} 에 기록합니다.
+     *
+     * @param steps        실행할 그룹
+     * @param mover        단계마다 파일을 옮길 방식 (다른 파일 시스템이면 복사 후 삭제)
+     * @param callback     결과를 전달받을 콜백
+     * @param callbackLock 콜백 호출을 직렬화할 락
+     * @param count        변경된 파일 수 누적값
+     */
+    public void execute(List<Step> steps, FileMover mover, FileRenameService.RenamingCallback callback,
+                        Object callbackLock, AtomicInteger count) {
+        int start = 0;
+        while (start < steps.size()) {
+            int end = start + 1;
+            while (end < steps.size() && !steps.get(end).unitStart()) {
+                end++;
+            }
+            if (callback.isCancelled()) {
+                return;
+            }
+            List<Step> unit = steps.subList(start, end);
+            if (unit.get(0).kind() == StepKind.TO_TEMPORARY) {
+                executeCycle(unit, mover, callback, callbackLock, count);
+            } else {
+                executeChain(unit, mover, callback, callbackLock, count);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * 체인은 끝에서부터 이동하므로, 실패한 단계 뒤의 단계는 모두 아직 비지 않은 자리로 옮기려는 이동입니다.
+     */
+    private void executeChain(List<Step> unit, FileMover mover, FileRenameService.RenamingCallback callback,
+                                     Object callbackLock, AtomicInteger count) {
+        for (int i = 0; i < unit.size(); i++) {
+            Step step = unit.get(i);
+            try {
+                move(step, mover, callback, callbackLock);
+            } catch (IOException | RuntimeException e) {
+                error(step, e, callback, callbackLock);
+                for (Step blocked : unit.subList(i + 1, unit.size())) {
+                    error(blocked, new IOException("앞선 이동이 실패하여 건너뜀: " + step.oldFile().getAbsolutePath()),
+                            callback, callbackLock);
+                }
+                return;
+            }
+            renamed(step, callback, callbackLock, count);
+        }
+    }
+
+    private void executeCycle(List<Step> unit, FileMover mover, FileRenameService.RenamingCallback callback,
+                                     Object callbackLock, AtomicInteger count) {
+        int done = 0;
+        Exception failure = null;
+        for (; done < unit.size(); done++) {
+            try {
+                move(unit.get(done), mover, callback, callbackLock);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+                break;
+            }
+        }
+        if (failure == null) {
+            for (Step step : unit) {
+                if (step.kind() != StepKind.TO_TEMPORARY) {
+                    renamed(step, callback, callbackLock, count);
+                }
+            }
+            return;
+        }
+
+        // 옮긴 순서의 역순으로 되돌림. 되돌리지 못하면 그보다 앞서 옮긴 파일도 자리가 막혀 있으므로 멈춤
+        Step failed = unit.get(done);
+        Map<Integer, File> stranded = new HashMap<>();
+        for (int i = done - 1; i >= 0; i--) {
+            Step step = unit.get(i);
+            try {
+                mover.move(step.to().toPath(), step.from().toPath(), (transferred, total) -> {
+                });
+                recordMove(step.to(), step.from(), callbackLock);
+            } catch (IOException | RuntimeException e) {
+                for (int j = i; j >= 0; j--) {
+                    stranded.putIfAbsent(unit.get(j).index(), unit.get(j).to());
+                }
+                break;
+            }
+        }
+        error(failed, failure, callback, callbackLock);
+        for (Step step : unit) {
+            if (step.index() == failed.index() || step.kind() == StepKind.FROM_TEMPORARY) {
+                continue;
+            }
+            File current = stranded.get(step.index());
+            String message = current == null
+                    ? "순환 이동 중 다른 파일의 이동이 실패하여 원래 이름으로 되돌림: " + failed.oldFile().getAbsolutePath()
+                    : "순환 이동 중 다른 파일의 이동이 실패했고 되돌리지 못함. 현재 위치: " + current.getAbsolutePath();
+            error(step, new IOException(message), callback, callbackLock);
+        }
+    }
+
+    private void move(Step step, FileMover mover, FileRenameService.RenamingCallback callback,
+                      Object callbackLock) throws IOException {
+        if (step.kind() == StepKind.NOOP) {
+            return;
+        }
+        RenameProbe probe = callback.getProbe();
+        boolean timed = probe.isEnabled();
+        long moveStart = timed ? System.nanoTime() : 0;
+        mover.move(step.from().toPath(), step.to().toPath(), (transferred, total) -> {
+            synchronized (callbackLock) {
+                callback.onTransferProgress(step.index(), step.oldFile(), transferred, total);
+            }
+        });
+        if (timed) {
+            probe.onMove(step.from(), step.to(), System.nanoTime() - moveStart);
+        }
+        recordMove(step.from(), step.to(), callbackLock);
+    }
+
+    /**
+     * 여러 그룹이 동시에 실행되어도 색인은 콜백과 같은 락으로 한 번에 하나씩 갱신합니다.
+     */
+    private void recordMove(File from, File to, Object callbackLock) {
+        synchronized (callbackLock) {
+            conflicts.recordMove(from, to);
+        }
+    }
+
+    private static void renamed(Step step, FileRenameService.RenamingCallback callback, Object callbackLock,
+                                AtomicInteger count) {
+        count.incrementAndGet();
+        synchronized (callbackLock) {
+            callback.onRenamed(step.index(), step.oldFile(), step.newFile());
+        }
+    }
+
+    private static void error(Step step, Exception cause, FileRenameService.RenamingCallback callback, Object callbackLock) {
+        Exception error = new Exception("에러 발생: " + step.oldFile().getAbsolutePath() + " -> " + step.newFile().getAbsolutePath(), cause);
+        synchronized (callbackLock) {
+            callback.onError(step.oldFile(), error);
+        }
+    }
+
+    public enum StepKind {
+        /** 원래 이름에서 새 이름으로 바로 이동 */
+        MOVE,
+        /** 이미 새 이름과 같아 이동이 필요 없음 */
+        NOOP,
+        /** 순환을 끊기 위해 임시 이름으로 이동 */
+        TO_TEMPORARY,
+        /** 임시 이름에서 새 이름으로 이동 */
+        FROM_TEMPORARY
+    }
+
+    /**
+     * 이동 단계 하나.
+     *
+     * @param index     입력 목록에서 파일의 위치
+     * @param oldFile   변경 전 원래 파일
+     * @param newFile   최종 새 파일
+     * @param from      이 단계에서 옮길 경로
+     * @param to        이 단계에서 옮겨질 경로
+     * @param kind      단계 종류
+     * @param unitStart 체인이나 순환의 첫 단계인지 여부 (취소 확인 지점)
+     */
+    public record Step(int index, File oldFile, File newFile, File from, File to, StepKind kind, boolean unitStart) {
+    }
+}
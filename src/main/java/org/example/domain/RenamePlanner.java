@@ -0,0 +1,245 @@
+package org.example.domain;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RenamePlanner 는 파일 목록에 새 이름을 배정하고, 이름이 서로 물려 있는 경우에도 한 번에 실행할 수 있는
+ * 이동 순서({@link RenamePlan})를 만듭니다.
+ *
+ * 1. 입력 순서대로 번호를 배정합니다. 대상 이름이 디스크에 있더라도 같은 배치에서 이동될 원본이면 충돌로 보지 않습니다.
+ * 2. 배정된 old → new 관계는 각 노드가 들어오는/나가는 간선을 최대 하나씩 갖는 그래프이므로
+ *    체인과 순환으로만 이루어집니다. 체인은 끝에서부터 역순으로 이동하고,
+ *    순환은 한 파일을 임시 이름으로 옮겨 끊은 뒤 나머지를 이동하고 마지막에 임시 파일을 제자리로 옮깁니다.
+ * 모든 단계는 파일 수에 비례하는 시간에 계산됩니다.
+ *
+ * 이동하지 않는 파일(충돌로 건너뛴 파일)의 자리를 노리던 파일은 연쇄적으로 건너뛰며,
+ * 이 경우 이미 배정된 번호는 다음 파일에 재사용되지 않습니다.
+ * 새 이름은 계획마다 여는 {@link RenameNamer.Session} 으로 만들며(패턴의 날짜/크기 토큰은 작업 단위로 캐시),
+ * 파일 정보를 읽을 수 없거나 올바른 이름을 만들 수 없는 파일은 callback.onError 로 알리고 번호를 소비하지 않고 건너뜁니다.
+ * 원본이 이미 없는 파일도 디렉토리 스냅샷으로 걸러 이동 시스템 콜 없이 onError 로 알리고, 번호를 소비하지 않고 건너뜁니다.
+ * 대상 폴더를 지정하면 새 이름은 그 폴더 안에 만들어지며, 충돌 확인과 체인/순환 풀이는 같은 방식으로 합니다.
+ */
+public class RenamePlanner {
+
+    private static final int NONE = -1;
+
+    /**
+     * 이동 계획을 만듭니다. 이미 존재하는 대상은 callback.onExists 로 바로 알립니다.
+     *
+     * @param files       변경 대상 파일 목록
+     * @param namer       새 파일명을 만드는 방식 (컴파일된 패턴 또는 규칙 체인)
+     * @param startNumber 번호 시작값
+     * @param callback    충돌을 알릴 콜백 (취소 여부도 확인)
+     * @return 실행 순서가 정해진 이동 계획
+     */
+    public RenamePlan plan(List<File> files, RenameNamer namer, int startNumber,
+                           FileRenameService.RenamingCallback callback) {
+        return plan(files, namer, startNumber, null, callback);
+    }
+
+    /**
+     * 새 이름을 붙여 targetDirectory 로 옮기는 계획을 만듭니다. targetDirectory 가 null 이면 제자리에서 이름만 바꿉니다.
+     *
+     * @param files           변경 대상 파일 목록
+     * @param namer           새 파일명을 만드는 방식
+     * @param startNumber     번호 시작값
+     * @param targetDirectory 파일을 옮길 폴더 (null 이면 각 파일의 원래 폴더)
+     * @param callback        충돌을 알릴 콜백 (취소 여부도 확인)
+     * @return 실행 순서가 정해진 이동 계획
+     * @throws IllegalArgumentException targetDirectory 가 폴더가 아닌 경우
+     */
+    public RenamePlan plan(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                           FileRenameService.RenamingCallback callback) {
+        return plan(files, namer, startNumber, targetDirectory, new DirectoryConflictIndex(), callback);
+    }
+
+    /**
+     * 이미 읽은 디렉토리 스냅샷으로 계획을 만듭니다. 계획을 실행하면 실제 이동이 conflicts 에 기록됩니다.
+     *
+     * @param conflicts 대상 이름의 존재 여부를 판단할 색인
+     */
+    RenamePlan plan(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                    DirectoryConflictIndex conflicts, FileRenameService.RenamingCallback callback) {
+        if (targetDirectory != null && !targetDirectory.isDirectory()) {
+            throw new IllegalArgumentException("targetDirectory is not a directory: " + targetDirectory);
+        }
+        int size = files.size();
+        File[] sources = files.toArray(new File[0]);
+        // 경로 비교 키는 디렉토리마다 확인한 대소문자 구분 규칙을 따름
+        String[] sourceKeys = new String[size];
+        Map<String, Integer> sourceIndex = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            sourceKeys[i] = conflicts.keyOf(sources[i]);
+            sourceIndex.putIfAbsent(sourceKeys[i], i);
+        }
+
+        // 1. 번호 배정
+        File[] targets = new File[size];
+        int[] next = new int[size];
+        Arrays.fill(next, NONE);
+        Set<String> claimed = new HashSet<>(size * 2);
+        RenameNamer.Session names = namer.open(sources);
+        RenameProbe probe = callback.getProbe();
+        boolean timed = probe.isEnabled();
+        int nextNumber = startNumber;
+        for (int i = 0; i < size && !callback.isCancelled(); i++) {
+            // 목록이 디스크보다 오래되어 이미 없어진 원본은 이동을 시도하지 않고 바로 알림 (다른 계획 단계 오류처럼 번호는 소비하지 않음)
+            if (!conflicts.exists(sources[i])) {
+                String path = sources[i].getAbsolutePath();
+                callback.onError(sources[i], new Exception("에러 발생: " + path + " 파일이 없습니다. 건너뜀.",
+                        new NoSuchFileException(path)));
+                continue;
+            }
+            String newName;
+            try {
+                newName = names.name(i, sources[i], nextNumber);
+            } catch (UncheckedIOException e) {
+                callback.onError(sources[i], e.getCause());
+                continue;
+            } catch (IllegalArgumentException e) {
+                callback.onError(sources[i], e);
+                continue;
+            }
+            File newFile = new File(targetDirectory != null ? targetDirectory.getPath() : sources[i].getParent(), newName);
+            String targetKey = conflicts.keyOf(newFile);
+            Integer occupant = sourceIndex.get(targetKey);
+            // 목록에는 있지만 디스크에서 이미 사라진 원본은 그 이름을 차지하지 않음
+            if (occupant != null && occupant != i && !conflicts.exists(sources[occupant])) {
+                occupant = null;
+            }
+            boolean self = targetKey.equals(sourceKeys[i]);
+
+            // 다른 파일이 이미 배정받았거나, 배치 밖의 파일이 차지하고 있으면 건너뜀
+            boolean taken = claimed.contains(targetKey);
+            if (!taken && occupant == null && !self) {
+                long checkStart = timed ? System.nanoTime() : 0;
+                taken = conflicts.exists(newFile);
+                if (timed) {
+                    probe.onConflictCheck(System.nanoTime() - checkStart);
+                }
+            }
+            if (taken) {
+                callback.onExists(newFile);
+                continue;
+            }
+            claimed.add(targetKey);
+            targets[i] = newFile;
+            if (occupant != null && !self) {
+                next[i] = occupant;
+            }
+            nextNumber++;
+        }
+
+        // 2. 이동하지 않는 파일의 자리를 노리는 이동은 연쇄적으로 건너뜀
+        int[] prev = new int[size];
+        Arrays.fill(prev, NONE);
+        for (int i = 0; i < size; i++) {
+            if (targets[i] != null && next[i] != NONE) {
+                prev[next[i]] = i;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int current = i;
+            while (current != NONE && targets[current] != null && next[current] != NONE && targets[next[current]] == null) {
+                callback.onExists(targets[current]);
+                targets[current] = null;
+                int blocked = prev[current];
+                prev[current] = NONE;
+                current = blocked;
+            }
+        }
+
+        // 3. 체인과 순환을 풀어 실행 순서 결정
+        boolean crossDirectory = false;
+        int moveCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (targets[i] != null) {
+                moveCount++;
+                if (!sameParent(sources[i], targets[i])) {
+                    crossDirectory = true;
+                }
+            }
+        }
+        Map<String, List<RenamePlan.Step>> groups = new LinkedHashMap<>();
+        boolean[] visited = new boolean[size];
+        List<Integer> chain = new ArrayList<>();
+
+        for (int head = 0; head < size; head++) {
+            if (targets[head] == null || visited[head] || prev[head] != NONE) {
+                continue;
+            }
+            // head 에서 시작하는 체인: 끝(대상이 비어 있는 파일)부터 역순으로 이동
+            chain.clear();
+            for (int node = head; node != NONE; node = next[node]) {
+                visited[node] = true;
+                chain.add(node);
+            }
+            List<RenamePlan.Step> group = groupOf(groups, crossDirectory, head, sources[head]);
+            for (int k = chain.size() - 1; k >= 0; k--) {
+                int node = chain.get(k);
+                // 대소문자만 바뀌는 이름은 같은 파일이어도 실제로 옮겨야 함
+                RenamePlan.StepKind kind = sources[node].getAbsolutePath().equals(targets[node].getAbsolutePath())
+                        ? RenamePlan.StepKind.NOOP : RenamePlan.StepKind.MOVE;
+                group.add(new RenamePlan.Step(node, sources[node], targets[node], sources[node], targets[node],
+                        kind, k == chain.size() - 1));
+            }
+        }
+
+        for (int start = 0; start < size; start++) {
+            if (targets[start] == null || visited[start]) {
+                continue;
+            }
+            // 남은 노드는 모두 순환: start 를 임시 이름으로 옮긴 뒤 start 자리를 노리는 쪽부터 거슬러 올라가며 이동
+            List<RenamePlan.Step> group = groupOf(groups, crossDirectory, start, sources[start]);
+            File temporary = temporaryFile(sources[start], conflicts, claimed);
+            visited[start] = true;
+            group.add(new RenamePlan.Step(start, sources[start], targets[start], sources[start], temporary,
+                    RenamePlan.StepKind.TO_TEMPORARY, true));
+            for (int node = prev[start]; node != start; node = prev[node]) {
+                visited[node] = true;
+                group.add(new RenamePlan.Step(node, sources[node], targets[node], sources[node], targets[node],
+                        RenamePlan.StepKind.MOVE, false));
+            }
+            group.add(new RenamePlan.Step(start, sources[start], targets[start], temporary, targets[start],
+                    RenamePlan.StepKind.FROM_TEMPORARY, false));
+        }
+
+        return new RenamePlan(new ArrayList<>(groups.values()), moveCount, nextNumber, conflicts);
+    }
+
+    private static List<RenamePlan.Step> groupOf(Map<String, List<RenamePlan.Step>> groups, boolean crossDirectory,
+                                                 int unit, File source) {
+        // 체인과 순환은 서로 경로를 공유하지 않으므로 어떻게 묶어도 독립적으로 실행할 수 있음.
+        // 다른 디렉토리로 옮기는 계획은 보통 한 대상 폴더로 모이므로, 디렉토리 대신 체인/순환마다 그룹을 나눠
+        // 여러 파일의 복사가 동시에 진행될 수 있게 함
+        String key = crossDirectory ? "#" + unit : DirectoryConflictIndex.pathKey(source.getAbsoluteFile().getParentFile());
+        return groups.computeIfAbsent(key, k -> new ArrayList<>());
+    }
+
+    private static boolean sameParent(File source, File target) {
+        File sourceParent = source.getAbsoluteFile().getParentFile();
+        File targetParent = target.getAbsoluteFile().getParentFile();
+        return sourceParent != null && sourceParent.equals(targetParent);
+    }
+
+    private static File temporaryFile(File source, DirectoryConflictIndex conflicts, Set<String> claimed) {
+        for (int attempt = 0; ; attempt++) {
+            File temporary = new File(source.getParent(), "." + source.getName() + ".rename-" + attempt + ".tmp");
+            String key = conflicts.keyOf(temporary);
+            if (!claimed.contains(key) && !conflicts.exists(temporary)) {
+                claimed.add(key);
+                return temporary;
+            }
+        }
+    }
+}
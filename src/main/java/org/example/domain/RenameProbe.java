@@ -0,0 +1,35 @@
+package org.example.domain;
+
+import java.io.File;
+
+/**
+ * RenameProbe 는 이름 변경 엔진 내부의 비용(충돌 확인, 파일 이동)을 측정하는 훅입니다.
+ *
+ * 엔진은 {@link #isEnabled()} 가 true 일 때만 시간을 재서 전달하므로,
+ * 기본값인 {@link #NONE} 을 사용하면 측정 비용이 들지 않습니다.
+ * 병렬 서비스에서는 여러 스레드에서 동시에 호출될 수 있습니다.
+ */
+public interface RenameProbe {
+
+    /** 아무것도 측정하지 않는 probe */
+    RenameProbe NONE = new RenameProbe() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    boolean isEnabled();
+
+    /**
+     * 대상 이름이 이미 존재하는지 확인하는 데 걸린 시간을 전달합니다.
+     */
+    default void onConflictCheck(long nanos) {
+    }
+
+    /**
+     * 파일 하나를 이동(Files.move)하는 데 걸린 시간을 전달합니다.
+     */
+    default void onMove(File from, File to, long nanos) {
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.domain;
+
+/**
+ * 파일명에 적용할 정규식 찾아 바꾸기 규칙 하나입니다.
+ * 치환 문자열은 {@link java.util.regex.Matcher#appendReplacement} 문법($1, ${name})을 따릅니다.
+ *
+ * @param find        찾을 정규식 (예: "S01E(\\d+)")
+ * @param replacement 바꿀 문자열 (예: "Episode $1")
+ */
+public record RenameRule(String find, String replacement) {
+
+    public RenameRule {
+        if (find == null || find.isEmpty()) {
+            throw new IllegalArgumentException("find cannot be empty");
+        }
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement cannot be null");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return find + " → " + replacement;
+    }
+}
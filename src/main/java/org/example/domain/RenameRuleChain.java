@@ -0,0 +1,189 @@
+package org.example.domain;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * RenameRuleChain 은 정규식 찾아 바꾸기 규칙 목록을 한 번만 컴파일해 둔 규칙 체인입니다.
+ * 파일명(확장자 포함)에 규칙을 순서대로 적용하며, 앞 규칙의 결과가 다음 규칙의 입력이 됩니다.
+ *
+ * 각 규칙은 {@link Pattern} 으로 한 번만 컴파일되고, 세션마다 규칙별 {@link Matcher} 하나를 만들어
+ * 파일마다 reset 하여 재사용합니다. 작업 대상 전체를 받으면 일정 개수씩 나눈 묶음을 병렬로 계산합니다.
+ * 같은 규칙 목록은 {@link #compile(List)} 의 크기 제한 캐시에서 같은 인스턴스를 돌려주므로
+ * 미리보기와 실행을 반복해도 다시 컴파일하지 않습니다.
+ *
+ * 불변 객체이므로 스레드 구분 없이 공유할 수 있습니다.
+ */
+public final class RenameRuleChain implements RenameNamer {
+
+    /** 캐시에 보관하는 컴파일된 체인 수 */
+    static final int CACHE_CAPACITY = 32;
+
+    /** 병렬로 계산할 때 한 묶음의 파일 수 */
+    static final int CHUNK_SIZE = 4_096;
+
+    private static final Map<List<RenameRule>, RenameRuleChain> CACHE =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<RenameRule>, RenameRuleChain> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            };
+
+    private final List<RenameRule> rules;
+    private final Pattern[] patterns;
+    private final String[] replacements;
+
+    private RenameRuleChain(List<RenameRule> rules) {
+        this.rules = rules;
+        this.patterns = new Pattern[rules.size()];
+        this.replacements = new String[rules.size()];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = Pattern.compile(rules.get(i).find());
+            replacements[i] = rules.get(i).replacement();
+        }
+    }
+
+    /**
+     * 규칙 목록을 컴파일합니다. 최근에 컴파일한 같은 규칙 목록이면 캐시된 체인을 반환합니다.
+     *
+     * @param rules 적용할 규칙 (순서대로 적용)
+     * @return 컴파일된 규칙 체인
+     * @throws IllegalArgumentException 규칙이 비어 있거나 정규식이 잘못된 경우
+     *                                  ({@link java.util.regex.PatternSyntaxException} 포함)
+     */
+    public static RenameRuleChain compile(List<RenameRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("rules cannot be empty");
+        }
+        List<RenameRule> key = List.copyOf(rules);
+        synchronized (CACHE) {
+            RenameRuleChain cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // 컴파일은 락 밖에서 하고, 동시에 같은 규칙을 컴파일했다면 먼저 들어간 쪽을 사용
+        RenameRuleChain chain = new RenameRuleChain(key);
+        synchronized (CACHE) {
+            RenameRuleChain existing = CACHE.putIfAbsent(key, chain);
+            return existing != null ? existing : chain;
+        }
+    }
+
+    public List<RenameRule> getRules() {
+        return rules;
+    }
+
+    @Override
+    public boolean hasCounter() {
+        return false;
+    }
+
+    @Override
+    public Session open() {
+        Applier applier = new Applier();
+        return (index, source, number) -> checked(source, applier.apply(source.getName()));
+    }
+
+    @Override
+    public Session open(File[] sources) {
+        Map<Integer, IllegalArgumentException> failures = new ConcurrentHashMap<>();
+        String[] names = applyAll(sources, failures);
+        return (index, source, number) -> {
+            IllegalArgumentException failure = failures.get(index);
+            if (failure != null) {
+                throw failure;
+            }
+            return checked(source, names[index]);
+        };
+    }
+
+    /**
+     * 모든 파일의 새 이름을 묶음 단위로 병렬 계산합니다. 묶음마다 Matcher 를 한 벌씩 만들어 재사용합니다.
+     * 치환에 실패한 파일은 이름 대신 failures 에 위치별로 기록합니다.
+     */
+    String[] applyAll(File[] sources, Map<Integer, IllegalArgumentException> failures) {
+        String[] names = new String[sources.length];
+        int chunks = (sources.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            Applier applier = new Applier();
+            int end = Math.min(sources.length, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                try {
+                    names[i] = applier.apply(sources[i].getName());
+                } catch (IllegalArgumentException e) {
+                    failures.put(i, e);
+                }
+            }
+        });
+        return names;
+    }
+
+    /**
+     * 파일명 하나에 규칙을 적용합니다. 세션 없이 이름 하나만 바꿀 때 사용합니다.
+     *
+     * @throws IllegalArgumentException 치환 문자열이 없는 그룹을 참조하는 등 치환할 수 없는 경우
+     */
+    public String apply(String name) {
+        return new Applier().apply(name);
+    }
+
+    private static String checked(File source, String name) {
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("규칙을 적용한 이름이 비어 있습니다: " + source.getAbsolutePath());
+        }
+        if (name.indexOf('/') >= 0 || name.indexOf(File.separatorChar) >= 0) {
+            throw new IllegalArgumentException("규칙을 적용한 이름에 경로 구분자가 있습니다: " + name);
+        }
+        return name;
+    }
+
+    /**
+     * 규칙별 Matcher 와 치환 버퍼를 재사용하며 이름을 바꿉니다. 한 스레드에서만 사용합니다.
+     */
+    private final class Applier {
+        private final Matcher[] matchers = new Matcher[patterns.length];
+        private final StringBuilder buffer = new StringBuilder();
+
+        Applier() {
+            for (int i = 0; i < matchers.length; i++) {
+                matchers[i] = patterns[i].matcher("");
+            }
+        }
+
+        String apply(String name) {
+            String current = name;
+            for (int i = 0; i < matchers.length; i++) {
+                Matcher matcher = matchers[i].reset(current);
+                if (!matcher.find()) {
+                    continue;
+                }
+                buffer.setLength(0);
+                try {
+                    do {
+                        matcher.appendReplacement(buffer, replacements[i]);
+                    } while (matcher.find());
+                } catch (IndexOutOfBoundsException e) {
+                    // 없는 그룹 번호($5 등) 참조. 이름이 있는 그룹은 IllegalArgumentException 으로 던져짐
+                    throw new IllegalArgumentException("치환 문자열을 적용할 수 없습니다 (" + rules.get(i) + "): "
+                            + e.getMessage(), e);
+                }
+                matcher.appendTail(buffer);
+                current = buffer.toString();
+            }
+            return current;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return rules.toString();
+    }
+}
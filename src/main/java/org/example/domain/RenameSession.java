@@ -0,0 +1,38 @@
+package org.example.domain;
+
+/**
+ * RenameSession 은 긴 목록을 여러 번에 나눠 이름을 변경할 때 호출 사이에 이어지는 상태입니다.
+ *
+ * 다음 번호는 계획이 배정한 번호만큼 나아갑니다. 실행 중 건너뛰거나 실패한 이동에 배정된 번호도
+ * 다시 쓰지 않으므로, 목록을 어떻게 나눠도 한 번에 실행한 것과 같은 번호가 붙습니다.
+ * 충돌 확인에 쓰는 {@link DirectoryConflictIndex} 도 세션 동안 하나를 유지하므로 폴더는 처음 한 번만 읽고,
+ * 이후에는 실행된 이동을 기록해 최신 상태를 유지합니다. (세션 중 밖에서 생긴 파일을 덮어쓰지는 않으며 이동 실패로 onError 로 알립니다.)
+ * 한 번에 한 작업에서만 사용해야 합니다.
+ */
+public final class RenameSession {
+
+    private final DirectoryConflictIndex conflicts = new DirectoryConflictIndex();
+    private int nextNumber;
+
+    /**
+     * @param startNumber 첫 파일에 배정할 번호
+     */
+    public RenameSession(int startNumber) {
+        this.nextNumber = startNumber;
+    }
+
+    /**
+     * 다음 파일에 배정할 번호를 반환합니다.
+     */
+    public int getNextNumber() {
+        return nextNumber;
+    }
+
+    DirectoryConflictIndex conflicts() {
+        return conflicts;
+    }
+
+    void advanceTo(int nextNumber) {
+        this.nextNumber = nextNumber;
+    }
+}
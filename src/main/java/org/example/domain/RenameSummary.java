@@ -0,0 +1,32 @@
+package org.example.domain;
+
+/**
+ * 이름 변경 작업 한 번의 측정 요약입니다. {@code RenamingCallback.onComplete(int, RenameSummary)} 로 전달됩니다.
+ *
+ * @param fileCount     요청된 파일 수
+ * @param renamed       변경된 파일 수
+ * @param exists        대상이 이미 있어 건너뛴 수
+ * @param errors        에러 수
+ * @param elapsedNanos  작업 전체 시간
+ * @param conflictCheck 충돌 확인 시간
+ * @param move          파일 이동 시간
+ * @param callback      콜백 처리 시간
+ */
+public record RenameSummary(int fileCount, long renamed, long exists, long errors, long elapsedNanos,
+                            LatencyStats conflictCheck, LatencyStats move, LatencyStats callback) {
+
+    /**
+     * 초당 처리한 파일 수 (변경, 건너뜀, 에러 포함)
+     */
+    public double filesPerSecond() {
+        long processed = renamed + exists + errors;
+        return elapsedNanos > 0 ? processed * 1_000_000_000.0 / elapsedNanos : 0;
+    }
+
+    public String toLogString() {
+        return String.format("측정 요약: %d개 중 변경 %d, 건너뜀 %d, 에러 %d, %.1f ms (%.0f 개/초)%n"
+                        + "  충돌 확인: %s%n  파일 이동: %s%n  콜백: %s",
+                fileCount, renamed, exists, errors, elapsedNanos / 1_000_000.0, filesPerSecond(),
+                conflictCheck.toShortString(), move.toShortString(), callback.toShortString());
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.intent;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * 폴더를 재귀 탐색하여 파일을 추가하는 인텐트입니다.
+ *
+ * @param roots       탐색할 폴더(또는 파일) 목록
+ * @param includeGlob 포함할 파일의 glob 패턴 (빈 문자열이면 모두 포함)
+ * @param excludeGlob 제외할 파일/폴더의 glob 패턴 (빈 문자열이면 제외 없음)
+ */
+public record AddDirectoryIntent(List<File> roots, String includeGlob, String excludeGlob) implements FileRenameIntent {
+
+    public AddDirectoryIntent(List<File> roots) {
+        this(roots, "", "");
+    }
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.ADD_DIRECTORY;
+    }
+}
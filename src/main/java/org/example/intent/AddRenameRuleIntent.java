@@ -0,0 +1,16 @@
+package org.example.intent;
+
+/**
+ * 정규식 찾아 바꾸기 규칙을 규칙 목록 끝에 추가하는 인텐트입니다.
+ * 규칙이 하나 이상 있으면 이름 변경은 번호 패턴 대신 규칙을 적용합니다.
+ *
+ * @param find        찾을 정규식 (예: "S01E(\\d+)")
+ * @param replacement 바꿀 문자열 (예: "Episode $1")
+ */
+public record AddRenameRuleIntent(String find, String replacement) implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.ADD_RULE;
+    }
+}
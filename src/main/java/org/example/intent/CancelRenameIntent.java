@@ -0,0 +1,9 @@
+package org.example.intent;
+
+public record CancelRenameIntent() implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.CANCEL_RENAME;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.intent;
+
+/**
+ * 정규식 규칙을 모두 지우고 번호 패턴으로 이름을 변경하도록 되돌리는 인텐트입니다.
+ */
+public record ClearRenameRulesIntent() implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.CLEAR_RULES;
+    }
+}
@@ -5,9 +5,19 @@ public interface FileRenameIntent {
 
     enum IntentType {
         ADD,
+        ADD_DIRECTORY,
         RENAME,
         PATTERN_CHANGED,
-        START_NUMBER_CHANGED
+        START_NUMBER_CHANGED,
+        CANCEL_RENAME,
+        SORT,
+        ADD_RULE,
+        CLEAR_RULES,
+        LIVE_SYNC,
+        SAVE_SESSION,
+        RESTORE_SESSION,
+        UNDO,
+        REDO
     }
 }
 
@@ -0,0 +1,15 @@
+package org.example.intent;
+
+/**
+ * 파일 목록에 있는 파일들의 폴더를 감시해 앱 밖에서 일어난 변경(이름 변경, 삭제, 추가)을
+ * 목록에 자동으로 반영할지 켜고 끄는 인텐트입니다.
+ *
+ * @param enabled 실시간 동기화 사용 여부
+ */
+public record LiveSyncIntent(boolean enabled) implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.LIVE_SYNC;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.intent;
+
+/**
+ * 가장 최근에 되돌린 이름 변경 작업을 다시 실행하는 인텐트입니다.
+ */
+public record RedoRenameIntent() implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.REDO;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.intent;
+
+import java.nio.file.Path;
+
+/**
+ * 세션 파일에서 파일 목록, 패턴, 시작 번호, 최근 로그를 복원하는 인텐트입니다. 현재 파일 목록은 세션의 목록으로 바뀝니다.
+ *
+ * @param path 읽을 세션 파일 경로
+ */
+public record RestoreSessionIntent(Path path) implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.RESTORE_SESSION;
+    }
+}
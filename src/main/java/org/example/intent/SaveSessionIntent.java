@@ -0,0 +1,16 @@
+package org.example.intent;
+
+import java.nio.file.Path;
+
+/**
+ * 현재 파일 목록, 패턴, 시작 번호, 최근 로그를 세션 파일로 저장하는 인텐트입니다.
+ *
+ * @param path 저장할 세션 파일 경로
+ */
+public record SaveSessionIntent(Path path) implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.SAVE_SESSION;
+    }
+}
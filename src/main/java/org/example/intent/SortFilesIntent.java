@@ -0,0 +1,21 @@
+package org.example.intent;
+
+import org.example.domain.FileSortKey;
+
+/**
+ * 파일 목록을 정렬하는 인텐트입니다. 정렬 후의 순서대로 번호가 매겨집니다.
+ *
+ * @param key        정렬 기준
+ * @param descending 내림차순 여부
+ */
+public record SortFilesIntent(FileSortKey key, boolean descending) implements FileRenameIntent {
+
+    public SortFilesIntent(FileSortKey key) {
+        this(key, false);
+    }
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.SORT;
+    }
+}
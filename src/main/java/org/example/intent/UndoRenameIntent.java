@@ -0,0 +1,12 @@
+package org.example.intent;
+
+/**
+ * 가장 최근의 이름 변경 작업을 되돌리는 인텐트입니다. 실제로 바뀐 파일만 이전 이름으로 돌아갑니다.
+ */
+public record UndoRenameIntent() implements FileRenameIntent {
+
+    @Override
+    public IntentType getIntentType() {
+        return IntentType.UNDO;
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.metrics;
+
+import org.example.domain.BatchRenamingCallback;
+import org.example.domain.FileRenameService;
+import org.example.domain.RenameBatch;
+import org.example.domain.RenameNamer;
+import org.example.domain.RenameProbe;
+import org.example.domain.RenameSummary;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * InstrumentedFileRenameService 는 다른 {@link FileRenameService} 를 감싸 작업마다 측정값을 기록하는 데코레이터입니다.
+ *
+ * - 변경/건너뜀/에러 수와 콜백 처리 시간을 기록합니다.
+ * - 콜백의 probe 로 엔진 내부의 충돌 확인과 파일 이동 시간을 받습니다.
+ * - 작업이 끝나면 요약을 onComplete(count, summary) 로 전달하고, JFR 이벤트를 남기고, 누적값에 합칩니다.
+ * 측정이 꺼져 있으면 원래 서비스를 그대로 호출하므로 추가 비용이 없습니다.
+ */
+public class InstrumentedFileRenameService implements FileRenameService {
+
+    private final FileRenameService delegate;
+    private final RenameMetrics metrics;
+
+    public InstrumentedFileRenameService(FileRenameService delegate, RenameMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public RenameMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void renameFiles(List<File> files, RenameNamer namer, int startNumber, RenamingCallback callback) {
+        if (!metrics.isEnabled()) {
+            delegate.renameFiles(files, namer, startNumber, callback);
+            return;
+        }
+        delegate.renameFiles(files, namer, startNumber, instrument(callback, files.size()));
+    }
+
+    @Override
+    public void moveFiles(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                          RenamingCallback callback) {
+        if (!metrics.isEnabled()) {
+            delegate.moveFiles(files, namer, startNumber, targetDirectory, callback);
+            return;
+        }
+        delegate.moveFiles(files, namer, startNumber, targetDirectory, instrument(callback, files.size()));
+    }
+
+    private InstrumentedCallback instrument(RenamingCallback callback, int fileCount) {
+        // 묶음을 받는 콜백은 묶음 그대로 전달되도록 같은 형태로 감쌈
+        InstrumentedCallback instrumented = callback instanceof BatchRenamingCallback
+                ? new InstrumentedBatchCallback(callback, fileCount)
+                : new InstrumentedCallback(callback, fileCount);
+        instrumented.event.begin();
+        return instrumented;
+    }
+
+    /**
+     * 원래 콜백을 감싸 호출 횟수와 시간을 기록합니다.
+     */
+    private class InstrumentedCallback implements RenamingCallback {
+        final RenamingCallback target;
+        final RenameRecorder recorder = metrics.startJob();
+        private final int fileCount;
+        private final RenameJobEvent event = new RenameJobEvent();
+        private final long startNanos = System.nanoTime();
+
+        InstrumentedCallback(RenamingCallback target, int fileCount) {
+            this.target = target;
+            this.fileCount = fileCount;
+        }
+
+        @Override
+        public void onRenamed(File oldFile, File newFile) {
+            recorder.renamed.increment();
+            long start = System.nanoTime();
+            target.onRenamed(oldFile, newFile);
+            recorder.callback.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onRenamed(int index, File oldFile, File newFile) {
+            recorder.renamed.increment();
+            long start = System.nanoTime();
+            target.onRenamed(index, oldFile, newFile);
+            recorder.callback.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onExists(File newFile) {
+            recorder.exists.increment();
+            long start = System.nanoTime();
+            target.onExists(newFile);
+            recorder.callback.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onError(File file, Exception e) {
+            recorder.errors.increment();
+            long start = System.nanoTime();
+            target.onError(file, e);
+            recorder.callback.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public void onTransferProgress(int index, File oldFile, long transferred, long total) {
+            target.onTransferProgress(index, oldFile, transferred, total);
+        }
+
+        @Override
+        public void onComplete(int count) {
+            onComplete(count, null);
+        }
+
+        @Override
+        public void onComplete(int count, RenameSummary ignored) {
+            RenameSummary summary = recorder.summarize(fileCount, System.nanoTime() - startNanos);
+            metrics.finishJob(recorder, summary);
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileCount = fileCount;
+                event.renamed = summary.renamed();
+                event.exists = summary.exists();
+                event.errors = summary.errors();
+                event.filesPerSecond = summary.filesPerSecond();
+                event.meanMoveNanos = summary.move().meanNanos();
+                event.meanConflictCheckNanos = summary.conflictCheck().meanNanos();
+                event.totalCallbackNanos = summary.callback().count() * summary.callback().meanNanos();
+                event.commit();
+            }
+            target.onComplete(count, summary);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return target.isCancelled();
+        }
+
+        @Override
+        public RenameProbe getProbe() {
+            return recorder;
+        }
+    }
+
+    /**
+     * 묶음 단위 콜백을 감쌀 때 사용합니다. 콜백 시간은 묶음 하나를 전달하는 시간으로 기록됩니다.
+     */
+    private class InstrumentedBatchCallback extends InstrumentedCallback implements BatchRenamingCallback {
+
+        InstrumentedBatchCallback(RenamingCallback target, int fileCount) {
+            super(target, fileCount);
+        }
+
+        @Override
+        public void onBatch(RenameBatch batch) {
+            recorder.renamed.add(batch.count(RenameBatch.RENAMED));
+            recorder.exists.add(batch.count(RenameBatch.EXISTS));
+            recorder.errors.add(batch.count(RenameBatch.ERROR));
+            long start = System.nanoTime();
+            ((BatchRenamingCallback) target).onBatch(batch);
+            recorder.callback.record(System.nanoTime() - start);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return ((BatchRenamingCallback) target).getBatchSize();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 이름 변경 작업 한 번을 나타내는 JFR 이벤트. 작업 시작부터 onComplete 까지가 이벤트 구간입니다.
+ */
+@Name("org.example.RenameJob")
+@Label("Rename Job")
+@Category({"File Rename"})
+@Description("파일 이름 일괄 변경 작업 한 번의 결과")
+class RenameJobEvent extends jdk.jfr.Event {
+
+    @Label("Files")
+    int fileCount;
+
+    @Label("Renamed")
+    long renamed;
+
+    @Label("Exists")
+    long exists;
+
+    @Label("Errors")
+    long errors;
+
+    @Label("Files Per Second")
+    double filesPerSecond;
+
+    @Label("Mean Move Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long meanMoveNanos;
+
+    @Label("Mean Conflict Check Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long meanConflictCheckNanos;
+
+    @Label("Callback Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long totalCallbackNanos;
+}
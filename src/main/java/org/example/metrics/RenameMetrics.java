@@ -0,0 +1,173 @@
+package org.example.metrics;
+
+import org.example.domain.LatencyStats;
+import org.example.domain.RenameSummary;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RenameMetrics 는 이름 변경 작업의 누적 측정값을 보관하고 JMX MXBean 으로 노출합니다.
+ *
+ * 작업마다 {@link #startJob()} 으로 받은 기록기에 측정하고, 끝나면 {@link #finishJob} 으로 누적값에 합칩니다.
+ * 리스너(화면 갱신) 시간은 ViewModel 이 {@link #recordListener(long)} 로 기록합니다.
+ * 꺼져 있으면({@link #isEnabled()} false) 서비스와 ViewModel 은 측정 없이 바로 실행됩니다.
+ */
+public class RenameMetrics implements RenameMetricsMXBean {
+
+    public static final String OBJECT_NAME = "org.example:type=RenameMetrics";
+
+    private volatile boolean enabled;
+
+    private final LongAdder jobs = new LongAdder();
+    private final LongAdder renamed = new LongAdder();
+    private final LongAdder exists = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram conflictCheck = new LatencyHistogram();
+    private final LatencyHistogram move = new LatencyHistogram();
+    private final LatencyHistogram callback = new LatencyHistogram();
+    private final LatencyHistogram listener = new LatencyHistogram();
+    private volatile RenameSummary lastSummary;
+
+    public RenameMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 플랫폼 MBean 서버에 {@link #OBJECT_NAME} 으로 등록합니다. 이미 등록되어 있으면 무시합니다.
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // 다른 인스턴스가 이미 등록됨
+        } catch (JMException e) {
+            throw new IllegalStateException("RenameMetrics MBean 등록 실패", e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    RenameRecorder startJob() {
+        return new RenameRecorder();
+    }
+
+    void finishJob(RenameRecorder recorder, RenameSummary summary) {
+        jobs.increment();
+        renamed.add(recorder.renamed.sum());
+        exists.add(recorder.exists.sum());
+        errors.add(recorder.errors.sum());
+        conflictCheck.merge(recorder.conflictCheck);
+        move.merge(recorder.move);
+        callback.merge(recorder.callback);
+        lastSummary = summary;
+    }
+
+    /**
+     * 리스너 호출 한 번의 시간을 기록합니다. 꺼져 있으면 무시합니다.
+     */
+    public void recordListener(long nanos) {
+        if (enabled) {
+            listener.record(nanos);
+        }
+    }
+
+    @Override
+    public long getJobCount() {
+        return jobs.sum();
+    }
+
+    @Override
+    public long getRenamedCount() {
+        return renamed.sum();
+    }
+
+    @Override
+    public long getExistsCount() {
+        return exists.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getLastFilesPerSecond() {
+        RenameSummary summary = lastSummary;
+        return summary == null ? 0 : summary.filesPerSecond();
+    }
+
+    @Override
+    public double getMoveMeanMicros() {
+        return move.snapshot().meanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getMoveP99Micros() {
+        return move.snapshot().p99Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getConflictCheckMeanMicros() {
+        return conflictCheck.snapshot().meanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getConflictCheckP99Micros() {
+        return conflictCheck.snapshot().p99Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getCallbackMeanMicros() {
+        return callback.snapshot().meanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getListenerMeanMicros() {
+        return listener.snapshot().meanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getListenerP99Micros() {
+        return listener.snapshot().p99Nanos() / 1_000.0;
+    }
+
+    public LatencyStats getListenerStats() {
+        return listener.snapshot();
+    }
+
+    @Override
+    public String getLastSummary() {
+        RenameSummary summary = lastSummary;
+        return summary == null ? "" : summary.toLogString();
+    }
+
+    public RenameSummary getLastRenameSummary() {
+        return lastSummary;
+    }
+
+    @Override
+    public void reset() {
+        jobs.reset();
+        renamed.reset();
+        exists.reset();
+        errors.reset();
+        conflictCheck.reset();
+        move.reset();
+        callback.reset();
+        listener.reset();
+        lastSummary = null;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.metrics;
+
+/**
+ * JMX 로 노출하는 이름 변경 측정값. 시간 값은 마이크로초입니다.
+ * 객체 이름은 {@link RenameMetrics#OBJECT_NAME} 입니다.
+ */
+public interface RenameMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getJobCount();
+
+    long getRenamedCount();
+
+    long getExistsCount();
+
+    long getErrorCount();
+
+    /** 마지막 작업의 초당 처리 파일 수 */
+    double getLastFilesPerSecond();
+
+    double getMoveMeanMicros();
+
+    double getMoveP99Micros();
+
+    double getConflictCheckMeanMicros();
+
+    double getConflictCheckP99Micros();
+
+    double getCallbackMeanMicros();
+
+    double getListenerMeanMicros();
+
+    double getListenerP99Micros();
+
+    /** 마지막 작업의 요약 문자열 */
+    String getLastSummary();
+
+    /** 누적값을 모두 0 으로 되돌립니다. */
+    void reset();
+}
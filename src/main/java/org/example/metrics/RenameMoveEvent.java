@@ -0,0 +1,30 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 파일 하나의 이동을 나타내는 JFR 이벤트. 파일 수만큼 발생하므로 기본적으로 꺼져 있으며,
+ * JFR 설정에서 org.example.RenameMove 를 켜면 기록됩니다.
+ */
+@Name("org.example.RenameMove")
+@Label("Rename Move")
+@Category({"File Rename"})
+@Description("Files.move 한 번의 소요 시간")
+@Enabled(false)
+class RenameMoveEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Target")
+    String target;
+
+    @Label("Move Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long moveNanos;
+}
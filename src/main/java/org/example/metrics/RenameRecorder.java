@@ -0,0 +1,48 @@
+package org.example.metrics;
+
+import org.example.domain.RenameProbe;
+import org.example.domain.RenameSummary;
+
+import java.io.File;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RenameRecorder 는 이름 변경 작업 한 번의 카운터와 지연 시간을 기록합니다.
+ * 작업이 끝나면 {@link RenameMetrics} 의 누적값에 합쳐집니다. 여러 스레드에서 동시에 기록할 수 있습니다.
+ */
+class RenameRecorder implements RenameProbe {
+
+    final LongAdder renamed = new LongAdder();
+    final LongAdder exists = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LatencyHistogram conflictCheck = new LatencyHistogram();
+    final LatencyHistogram move = new LatencyHistogram();
+    final LatencyHistogram callback = new LatencyHistogram();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void onConflictCheck(long nanos) {
+        conflictCheck.record(nanos);
+    }
+
+    @Override
+    public void onMove(File from, File to, long nanos) {
+        move.record(nanos);
+        RenameMoveEvent event = new RenameMoveEvent();
+        if (event.isEnabled()) {
+            event.source = from.getPath();
+            event.target = to.getPath();
+            event.moveNanos = nanos;
+            event.commit();
+        }
+    }
+
+    RenameSummary summarize(int fileCount, long elapsedNanos) {
+        return new RenameSummary(fileCount, renamed.sum(), exists.sum(), errors.sum(), elapsedNanos,
+                conflictCheck.snapshot(), move.snapshot(), callback.snapshot());
+    }
+}
@@ -1,10 +1,20 @@
 package org.example.presentation;
 
+import org.example.domain.FileSortKey;
+import org.example.intent.AddDirectoryIntent;
 import org.example.intent.AddFilesIntent;
+import org.example.intent.AddRenameRuleIntent;
+import org.example.intent.CancelRenameIntent;
+import org.example.intent.ClearRenameRulesIntent;
+import org.example.intent.LiveSyncIntent;
 import org.example.intent.PatternChangedIntent;
+import org.example.intent.RedoRenameIntent;
 import org.example.intent.RenameFilesIntent;
+import org.example.intent.SortFilesIntent;
 import org.example.intent.StartNumberChangedIntent;
+import org.example.intent.UndoRenameIntent;
 import org.example.state.FileRenameState;
+import org.example.viewmodel.CoalescingStateDispatcher;
 import org.example.viewmodel.FileRenameViewModel;
 
 import javax.swing.*;
@@ -27,31 +37,64 @@ import static java.awt.dnd.DnDConstants.ACTION_COPY;
  */
 public class FileRenameView extends JFrame implements FileRenameViewModel.StateListener {
 
+    // 정렬 콤보박스 항목에 대응하는 정렬 기준
+    private static final FileSortKey[] SORT_KEYS = {FileSortKey.NATURAL_NAME, FileSortKey.MODIFIED_TIME, FileSortKey.SIZE};
+
     // ViewModel: 상태 관리와 인텐트 처리를 담당하는 객체 (DI로 주입됨)
     private final FileRenameViewModel viewModel;
 
-    // 파일 목록을 관리하는 리스트 모델과 JList
-    private final DefaultListModel<File> fileListModel = new DefaultListModel<>();
-    private final JList<File> fileList = new JList<>(fileListModel);
+    // 파일 목록을 관리하는 리스트 모델과 JList (모델은 상태를 직접 읽으므로 ViewModel 주입 후 생성)
+    private final FileStateListModel fileListModel;
+    private final JList<File> fileList;
+    // 미리보기 모드에서 행마다 새 파일명을 그리는 렌더러와 표시 여부 체크박스
+    private final RenamePreviewRenderer previewRenderer;
+    private final JCheckBox previewCheckBox = new JCheckBox("미리보기");
+    // 정렬 기준 선택 (SORT_KEYS 와 같은 순서)
+    private final JComboBox<String> sortKeyComboBox = new JComboBox<>(new String[]{"이름순", "수정 시간순", "크기순"});
+    private final JCheckBox sortDescendingCheckBox = new JCheckBox("역순");
+    private final JCheckBox liveSyncCheckBox = new JCheckBox("실시간 동기화");
 
     // 새 파일명 패턴과 시작 번호를 입력받는 텍스트 필드
     private final JTextField newNamePatternField = new JTextField(30);
     private final JTextField startNumberField = new JTextField("1", 5);
 
+    // 정규식 찾아 바꾸기 규칙 입력 필드와 현재 규칙 표시
+    private final JTextField ruleFindField = new JTextField(12);
+    private final JTextField ruleReplaceField = new JTextField(12);
+    private final JLabel ruleSummaryLabel = new JLabel("규칙 없음 (번호 패턴 사용)");
+
+    // 폴더 탐색 시 사용할 포함/제외 glob 필터 (예: *.smi, **/backup/**)
+    private final JTextField includeGlobField = new JTextField(8);
+    private final JTextField excludeGlobField = new JTextField(8);
+
+    // 이름 변경 실행/취소 버튼과 진행 표시줄
+    private final JButton renameButton = new JButton("이름 변경 실행");
+    private final JButton cancelButton = new JButton("취소");
+    private final JProgressBar progressBar = new JProgressBar();
+
     // 로그 메시지를 출력할 텍스트 영역
     private final JTextArea logTextArea = new JTextArea(10, 40);
+    // 텍스트 영역에 이미 출력한 로그 줄 수 (FileRenameState.getLogSequence 기준)
+    private long shownLogSequence;
 
 
     /**
      * 생성자: FileRenameView 객체를 생성하고, ViewModel을 DI하여 연결합니다.
-     * 또한, ViewModel에 자신(StateListener)를 등록하고 UI 초기화(initComponents)를 수행합니다.
+     * 또한, ViewModel에 자신(StateListener)을 CoalescingStateDispatcher 로 감싸 등록하고 UI 초기화(initComponents)를 수행합니다.
      *
      * @param viewModel 파일 이름 변경 관련 비즈니스 로직과 상태 관리하는 ViewModel 객체
      */
     public FileRenameView(FileRenameViewModel viewModel) {
         super("파일 이름 일괄 변경 프로그램 (MVI)");
         this.viewModel = viewModel;
-        viewModel.setListener(this);
+        this.fileListModel = new FileStateListModel(viewModel.getState());
+        this.fileList = new JList<>(fileListModel);
+        RenamePreviewCache previewCache = new RenamePreviewCache(viewModel.getState());
+        // 해시 토큰 미리보기는 백그라운드에서 계산이 끝나면 다시 그림
+        previewCache.setRefreshAction(() -> SwingUtilities.invokeLater(fileList::repaint));
+        this.previewRenderer = new RenamePreviewRenderer(previewCache);
+        // 상태 알림은 모아서 화면 갱신 주기(16ms)마다 한 번씩만 반영
+        viewModel.setListener(new CoalescingStateDispatcher(this, SwingUtilities::invokeLater));
         initComponents();
     }
 
@@ -62,13 +105,16 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
     private void initComponents() {
         // JFrame 기본 속성 설정
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(600, 550);
+        setSize(600, 650);
         setLocationRelativeTo(null);
 
         // 1. 파일 목록 패널 생성
         JPanel filePanel = new JPanel(new BorderLayout());
-        filePanel.setBorder(javax.swing.BorderFactory.createTitledBorder("파일 목록 (드래그 앤 드롭 또는 파일 추가)"));
+        filePanel.setBorder(javax.swing.BorderFactory.createTitledBorder("파일 목록 (파일/폴더 드래그 앤 드롭 또는 파일 추가)"));
         fileList.setSelectionMode(javax.swing.ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        fileList.setCellRenderer(previewRenderer);
+        // 행 크기를 prototype 하나로 고정해, 목록이 커져도 JList 가 모든 행을 렌더링해 크기를 재지 않도록 함
+        fileList.setPrototypeCellValue(new File("prototype-directory/prototype-file-name.ext  →  prototype-new-name.ext"));
         filePanel.add(new JScrollPane(fileList), BorderLayout.CENTER);
 
         // 파일 추가 버튼 생성 및 액션 리스너 등록
@@ -77,15 +123,43 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
             // JFileChooser를 통해 파일을 선택함
             JFileChooser fc = new JFileChooser();
             fc.setMultiSelectionEnabled(true);
+            fc.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
             if (fc.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
                 File[] selectedFiles = fc.getSelectedFiles();
                 List<File> files = new ArrayList<>();
                 Collections.addAll(files, selectedFiles);
-                // 파일 추가 인텐트를 ViewModel에 전달
-                viewModel.processIntent(new AddFilesIntent(files));
+                // 파일/폴더 추가 인텐트를 ViewModel에 전달
+                addFilesOrDirectories(files);
             }
         });
-        filePanel.add(addFileButton, BorderLayout.SOUTH);
+
+        // 폴더 탐색 시 사용할 포함/제외 glob 필터와 파일 추가 버튼
+        JPanel addPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        addPanel.add(new JLabel("포함:"));
+        addPanel.add(includeGlobField);
+        addPanel.add(new JLabel("제외:"));
+        addPanel.add(excludeGlobField);
+        addPanel.add(addFileButton);
+        previewCheckBox.addActionListener(e -> {
+            previewRenderer.setPreviewEnabled(previewCheckBox.isSelected());
+            fileList.repaint();
+        });
+        addPanel.add(previewCheckBox);
+
+        // 정렬 기준과 정렬 버튼 (정렬된 순서대로 번호가 매겨짐)
+        JPanel sortPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton sortButton = new JButton("정렬");
+        sortButton.addActionListener(e -> viewModel.processIntent(new SortFilesIntent(
+                SORT_KEYS[sortKeyComboBox.getSelectedIndex()], sortDescendingCheckBox.isSelected())));
+        sortPanel.add(new JLabel("정렬:"));
+        sortPanel.add(sortKeyComboBox);
+        sortPanel.add(sortDescendingCheckBox);
+        sortPanel.add(sortButton);
+        // 목록에 있는 파일의 폴더를 감시해 밖에서 바뀐 내용을 목록에 자동으로 반영
+        liveSyncCheckBox.addActionListener(e -> viewModel.processIntent(new LiveSyncIntent(liveSyncCheckBox.isSelected())));
+        sortPanel.add(liveSyncCheckBox);
+        filePanel.add(sortPanel, BorderLayout.NORTH);
+        filePanel.add(addPanel, BorderLayout.SOUTH);
 
         // 드래그 앤 드롭을 위한 DropTarget 리스너 등록
         new DropTarget(fileList, new FileDropTargetListener());
@@ -93,16 +167,35 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
         // 2. 패턴 및 시작 번호 입력 패널 생성 (GridLayout 사용)
         JPanel patternPanel = new JPanel(new java.awt.GridLayout(2, 2, 5, 5));
         patternPanel.setBorder(javax.swing.BorderFactory.createTitledBorder("새 파일명 및 시작 번호 입력"));
-        patternPanel.add(new JLabel("새 파일명 패턴 (예: A0[0-9].smi):"));
+        JLabel patternLabel = new JLabel("새 파일명 패턴 (예: A0[0-9].smi):");
+        patternLabel.setToolTipText("토큰: [n] [n:너비] [name] [ext] [parent] [date] [date:형식] [size] [hash] [hash8]");
+        patternPanel.add(patternLabel);
         patternPanel.add(newNamePatternField);
         patternPanel.add(new JLabel("시작 번호:"));
         patternPanel.add(startNumberField);
 
         addTextFieldListener();
 
+        // 정규식 규칙 패널: 규칙이 하나 이상 있으면 번호 패턴 대신 규칙을 순서대로 적용
+        JPanel rulePanel = new JPanel(new BorderLayout(5, 5));
+        rulePanel.setBorder(javax.swing.BorderFactory.createTitledBorder("정규식 찾아 바꾸기 (예: S01E(\\d+) → Episode $1)"));
+        JPanel ruleInputPanel = new JPanel();
+        ruleInputPanel.add(new JLabel("찾기:"));
+        ruleInputPanel.add(ruleFindField);
+        ruleInputPanel.add(new JLabel("바꾸기:"));
+        ruleInputPanel.add(ruleReplaceField);
+        JButton addRuleButton = new JButton("규칙 추가");
+        addRuleButton.addActionListener(e ->
+                viewModel.processIntent(new AddRenameRuleIntent(ruleFindField.getText(), ruleReplaceField.getText())));
+        ruleInputPanel.add(addRuleButton);
+        JButton clearRulesButton = new JButton("규칙 초기화");
+        clearRulesButton.addActionListener(e -> viewModel.processIntent(new ClearRenameRulesIntent()));
+        ruleInputPanel.add(clearRulesButton);
+        rulePanel.add(ruleInputPanel, BorderLayout.CENTER);
+        rulePanel.add(ruleSummaryLabel, BorderLayout.SOUTH);
+
         // 3. 이름 변경 실행 패널 생성
         JPanel renamePanel = new JPanel();
-        JButton renameButton = new JButton("이름 변경 실행");
         renameButton.addActionListener(e -> {
             // 입력 필드에서 새 파일명 패턴과 시작 번호를 읽어옴
             String pattern = newNamePatternField.getText().trim();
@@ -118,6 +211,21 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
         });
         renamePanel.add(renameButton);
 
+        // 진행 중인 작업 취소 버튼과 진행 표시줄
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> viewModel.processIntent(new CancelRenameIntent()));
+        renamePanel.add(cancelButton);
+        // 최근 이름 변경 작업 되돌리기/다시 실행
+        JButton undoButton = new JButton("되돌리기");
+        undoButton.addActionListener(e -> viewModel.processIntent(new UndoRenameIntent()));
+        renamePanel.add(undoButton);
+        JButton redoButton = new JButton("다시 실행");
+        redoButton.addActionListener(e -> viewModel.processIntent(new RedoRenameIntent()));
+        renamePanel.add(redoButton);
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        renamePanel.add(progressBar);
+
         // 4. 로그 출력 패널 생성
         JPanel logPanel = new JPanel(new BorderLayout());
         logPanel.setBorder(javax.swing.BorderFactory.createTitledBorder("작업 로그"));
@@ -129,11 +237,35 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
         mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.Y_AXIS));
         mainPanel.add(filePanel);
         mainPanel.add(patternPanel);
+        mainPanel.add(rulePanel);
         mainPanel.add(renamePanel);
         mainPanel.add(logPanel);
         setContentPane(mainPanel);
     }
 
+    /**
+     * 선택되거나 드롭된 항목 중 파일은 AddFilesIntent 로, 폴더는 포함/제외 필터와 함께
+     * AddDirectoryIntent 로 ViewModel 에 전달합니다. 폴더는 백그라운드에서 재귀 탐색됩니다.
+     */
+    private void addFilesOrDirectories(List<File> items) {
+        List<File> files = new ArrayList<>();
+        List<File> directories = new ArrayList<>();
+        for (File item : items) {
+            if (item.isDirectory()) {
+                directories.add(item);
+            } else {
+                files.add(item);
+            }
+        }
+        if (!files.isEmpty()) {
+            viewModel.processIntent(new AddFilesIntent(files));
+        }
+        if (!directories.isEmpty()) {
+            viewModel.processIntent(new AddDirectoryIntent(directories,
+                    includeGlobField.getText().trim(), excludeGlobField.getText().trim()));
+        }
+    }
+
     /**
      * onStateChanged() 메서드는 ViewModel에서 상태가 변경되었을 때 호출됩니다.
      * 전달받은 FileRenameState 객체의 데이터(파일 목록 및 로그 메시지)에 따라
@@ -144,50 +276,110 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
     @Override
     public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
         switch (type) {
-            case LIST_RELOAD -> {
-                // 파일 목록 비교 후 다를 경우만 갱신
-                List<File> newFileList = state.getFileList();
-                if (!fileListEquals(newFileList)) {
-                    fileListModel.clear();
-                    for (File file : newFileList) {
-                        fileListModel.addElement(file);
-                    }
+            case LIST_RELOAD -> fileListModel.reload();
+
+            case LOG_MESSAGE -> appendNewLogs(state);
+
+            case PREVIEW_CHANGED -> {
+                updateRuleSummary(state);
+                // 캐시는 렌더러가 패턴/시작 번호/규칙 변경을 감지해 비우므로 보이는 행만 다시 그리면 됨
+                if (previewRenderer.isPreviewEnabled()) {
+                    fileList.repaint();
                 }
             }
 
-            case LOG_MESSAGE -> {
-                // 로그 텍스트 비교 후 다를 경우만 갱신
-                List<String> newLogs = state.getLogMessages();
-                String newLogText = String.join("\n", newLogs) + "\n";
-                if (!logTextArea.getText().equals(newLogText)) {
-                    logTextArea.setText(newLogText);
-                }
+            case SESSION_RESTORED -> {
+                // 필드를 바꾸면 입력 인텐트가 다시 발생하지만 상태와 같은 값이라 무시됨
+                newNamePatternField.setText(state.getCurrentPattern());
+                startNumberField.setText(String.valueOf(state.getCurrentStartNumber()));
             }
         }
     }
 
-    private boolean fileListEquals(List<File> newFiles) {
-        if (fileListModel.size() != newFiles.size()) return false;
-        for (int i = 0; i < fileListModel.size(); i++) {
-            File existing = fileListModel.get(i);
-            File incoming = newFiles.get(i);
-            if (!existing.equals(incoming)) return false;
+    private void updateRuleSummary(FileRenameState state) {
+        if (state.getRenameRules().isEmpty()) {
+            ruleSummaryLabel.setText("규칙 없음 (번호 패턴 사용)");
+        } else {
+            ruleSummaryLabel.setText("규칙 " + state.getRenameRules().size() + "개: " + state.getRenameRules());
         }
-        return true;
+    }
+
+    /**
+     * 아직 출력하지 않은 로그 줄만 텍스트 영역 끝에 덧붙이고,
+     * 상태가 보관하는 줄 수를 넘는 오래된 줄은 문서 앞에서 잘라냅니다.
+     */
+    private void appendNewLogs(FileRenameState state) {
+        List<String> newLogs = state.getLogMessagesSince(shownLogSequence);
+        shownLogSequence = state.getLogSequence();
+        if (newLogs.isEmpty()) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        for (String line : newLogs) {
+            text.append(line).append('\n');
+        }
+        logTextArea.append(text.toString());
+
+        // 마지막 줄바꿈 뒤의 빈 줄은 제외
+        int excessLines = (logTextArea.getLineCount() - 1) - state.getLogCapacity();
+        if (excessLines > 0) {
+            try {
+                logTextArea.replaceRange(null, 0, logTextArea.getLineEndOffset(excessLines - 1));
+            } catch (javax.swing.text.BadLocationException ex) {
+                // getLineEndOffset 로 얻은 위치이므로 일어날 수 없음
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    /**
+     * 아래 메서드들은 파일 목록의 일부 구간만 바뀌었을 때 호출되며, 바뀐 행만 갱신합니다.
+     */
+    @Override
+    public void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+        fileListModel.filesInserted(fromIndex, toIndex);
+    }
+
+    @Override
+    public void onFileReplaced(int index, FileRenameState state) {
+        fileListModel.filesReplaced(index, index);
+    }
+
+    @Override
+    public void onFilesReplaced(int fromIndex, int toIndex, FileRenameState state) {
+        fileListModel.filesReplaced(fromIndex, toIndex);
+    }
+
+    @Override
+    public void onFilesRemoved(int fromIndex, int toIndex, FileRenameState state) {
+        fileListModel.filesRemoved(fromIndex, toIndex);
+    }
+
+    /**
+     * onProgress() 메서드는 이름 변경 작업의 진행 상황이 바뀌었을 때 호출되며,
+     * 진행 표시줄과 실행/취소 버튼 상태를 갱신합니다. 취소 버튼은 폴더 탐색 중에도 켜집니다.
+     */
+    @Override
+    public void onProgress(FileRenameState state) {
+        boolean running = state.isRenameRunning();
+        renameButton.setEnabled(!running);
+        cancelButton.setEnabled(running || state.isScanRunning());
+        progressBar.setMaximum(Math.max(1, state.getProgressTotal()));
+        progressBar.setValue(state.getProgressDone());
+        progressBar.setString(String.format("%d / %d (%.0f 개/초)",
+                state.getProgressDone(), state.getProgressTotal(), state.getFilesPerSecond()));
     }
 
     private void addTextFieldListener() {
+        // 이벤트가 올 때마다 필드의 현재 값을 읽어 전달 (미리보기가 입력 중인 값을 따라가도록)
         newNamePatternField.getDocument().addDocumentListener(new DocumentListener() {
-            final String text = newNamePatternField.getText().trim();
             @Override
             public void insertUpdate(DocumentEvent e) {
-                // 이전 값과 다를 경우에만 처리하도록 할 수도 있음
-                viewModel.processIntent(new PatternChangedIntent(text));
+                viewModel.processIntent(new PatternChangedIntent(newNamePatternField.getText().trim()));
             }
             @Override
             public void removeUpdate(DocumentEvent e) {
-                // 이전 값과 다를 경우에만 처리하도록 할 수도 있음
-                viewModel.processIntent(new PatternChangedIntent(text));
+                viewModel.processIntent(new PatternChangedIntent(newNamePatternField.getText().trim()));
             }
 
             @Override
@@ -198,16 +390,23 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
             }
         });
 
-        // 비슷하게 시작번호 입력에 대해서도 디바운싱 적용 (단, 숫자 파싱 에러 처리 필요)
+        // 시작 번호는 숫자로 읽을 수 있을 때만 전달 (입력 도중의 빈 값 등은 무시)
         startNumberField.getDocument().addDocumentListener(new DocumentListener() {
-            final int startNumber = Integer.parseInt(startNumberField.getText().trim());
             @Override public void insertUpdate(DocumentEvent e) {
-                viewModel.processIntent(new StartNumberChangedIntent(startNumber));
+                processStartNumber();
             }
             @Override public void removeUpdate(DocumentEvent e) {
-                viewModel.processIntent(new StartNumberChangedIntent(startNumber));
+                processStartNumber();
             }
             @Override public void changedUpdate(DocumentEvent e) { }
+
+            private void processStartNumber() {
+                try {
+                    viewModel.processIntent(new StartNumberChangedIntent(Integer.parseInt(startNumberField.getText().trim())));
+                } catch (NumberFormatException ignored) {
+                    // 유효한 숫자가 입력될 때까지 이전 시작 번호 유지
+                }
+            }
         });
     }
 
@@ -243,8 +442,8 @@ public class FileRenameView extends JFrame implements FileRenameViewModel.StateL
                     }
                 }
                 if (!files.isEmpty()) {
-                    // 파일 추가 인텐트를 생성하여 ViewModel에 전달
-                    viewModel.processIntent(new AddFilesIntent(files));
+                    // 파일/폴더 추가 인텐트를 생성하여 ViewModel에 전달
+                    addFilesOrDirectories(files);
                 }
             } catch (Exception ex) {
                 ex.printStackTrace();
@@ -0,0 +1,67 @@
+package org.example.presentation;
+
+import org.example.state.FileRenameState;
+
+import javax.swing.*;
+import java.io.File;
+
+/**
+ * FileStateListModel 은 FileRenameState 의 파일 목록을 복사하지 않고 직접 읽는 JList 용 모델입니다.
+ *
+ * 상태가 바뀌면 ViewModel 이 보내는 구간 이벤트(추가/교체/제거)를 그대로 ListDataEvent 로 전달하므로,
+ * 바뀐 행만 다시 그려집니다. 모델이 알고 있는 크기는 이벤트를 받을 때만 갱신됩니다.
+ */
+@SuppressWarnings("serial") // 직렬화하지 않는 화면 전용 모델
+class FileStateListModel extends AbstractListModel<File> {
+
+    private final FileRenameState state;
+    // JList 에 마지막으로 알린 목록 크기
+    private int size;
+
+    FileStateListModel(FileRenameState state) {
+        this.state = state;
+        this.size = state.getFileCount();
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public File getElementAt(int index) {
+        // 아직 알리지 않은 제거가 있으면 상태가 모델보다 짧을 수 있음
+        return index < state.getFileCount() ? state.getFileAt(index) : null;
+    }
+
+    void filesInserted(int fromIndex, int toIndex) {
+        size += toIndex - fromIndex + 1;
+        fireIntervalAdded(this, fromIndex, toIndex);
+    }
+
+    void filesReplaced(int fromIndex, int toIndex) {
+        fireContentsChanged(this, fromIndex, toIndex);
+    }
+
+    void filesRemoved(int fromIndex, int toIndex) {
+        size -= toIndex - fromIndex + 1;
+        fireIntervalRemoved(this, fromIndex, toIndex);
+    }
+
+    /**
+     * 구간 정보 없이 목록 전체가 바뀌었을 때 크기를 다시 맞추고 모든 행을 갱신합니다.
+     */
+    void reload() {
+        int oldSize = size;
+        int newSize = state.getFileCount();
+        size = newSize;
+        if (oldSize > newSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        } else if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        }
+        if (newSize > 0) {
+            fireContentsChanged(this, 0, newSize - 1);
+        }
+    }
+}
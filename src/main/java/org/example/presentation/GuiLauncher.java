@@ -0,0 +1,68 @@
+package org.example.presentation;
+
+import org.example.domain.FileRenameService;
+import org.example.domain.FileRenameServiceImpl;
+import org.example.intent.RestoreSessionIntent;
+import org.example.metrics.InstrumentedFileRenameService;
+import org.example.metrics.RenameMetrics;
+import org.example.viewmodel.FileRenameViewModel;
+
+import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GuiLauncher 는 Swing 화면을 구성하고 띄웁니다.
+ *
+ * AWT/Swing 클래스는 이 클래스에서만 참조하므로, 명령줄 모드는 이 클래스를 거치지 않아 헤드리스 환경에서도 실행됩니다.
+ */
+public final class GuiLauncher {
+
+    private GuiLauncher() {
+    }
+
+    /**
+     * EDT 에서 ViewModel 과 화면을 만들고 지난 세션을 복원한 뒤 창을 보여 줍니다.
+     */
+    public static void launch() {
+        SwingUtilities.invokeLater(() -> {
+            // 측정은 -Dfilerename.metrics=true 또는 JMX(org.example:type=RenameMetrics)의 Enabled 속성으로 켭니다
+            RenameMetrics metrics = new RenameMetrics(Boolean.getBoolean("filerename.metrics"));
+            metrics.register();
+            FileRenameService renameService = new InstrumentedFileRenameService(new FileRenameServiceImpl(), metrics);
+            // 이름 변경은 백그라운드 스레드에서 실행하고, 결과는 EDT 에서 상태에 반영
+            ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rename-job");
+                thread.setDaemon(true);
+                return thread;
+            });
+            FileRenameViewModel viewModel = new FileRenameViewModel(renameService, jobExecutor, SwingUtilities::invokeLater);
+            viewModel.setMetrics(metrics);
+            FileRenameView view = new FileRenameView(viewModel);
+            // 지난 세션(파일 목록, 패턴, 시작 번호, 최근 로그)을 복원하고 창을 닫을 때 저장.
+            // 경로는 -Dfilerename.session=경로 로 바꿀 수 있습니다
+            Path sessionPath = Paths.get(System.getProperty("filerename.session",
+                    Paths.get(System.getProperty("user.home"), ".filerename", "session.bin").toString()));
+            view.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    try {
+                        viewModel.saveSession(sessionPath);
+                    } catch (IOException | RuntimeException ex) {
+                        System.err.println("세션을 저장하지 못했습니다: " + ex.getMessage());
+                    }
+                }
+            });
+            if (Files.isRegularFile(sessionPath)) {
+                viewModel.processIntent(new RestoreSessionIntent(sessionPath));
+            }
+            view.setVisible(true);
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.presentation;
+
+import org.example.domain.ContentDigestCache;
+import org.example.domain.NameTemplate;
+import org.example.domain.RenameNamer;
+import org.example.state.FileRenameState;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RenamePreviewCache 는 파일 목록의 각 행에 대해 "이름 변경 후 파일명" 을 필요할 때만 계산하고,
+ * 최근에 계산한 결과를 크기가 제한된 LRU 로 보관합니다.
+ *
+ * 미리보기는 화면에 그려지는 행에 대해서만 요청되므로 목록 크기와 관계없이 비용이 일정합니다.
+ * 번호는 시작 번호 + 행 위치로 계산하며, 실제 실행에서 충돌로 건너뛴 파일이 있으면 그 뒤 번호는 달라질 수 있습니다.
+ * 패턴(또는 정규식 규칙)이나 시작 번호가 바뀌면 캐시 전체를 새 맵으로 바꿔 O(1) 에 무효화합니다.
+ * 캐시된 값은 계산 당시의 파일과 함께 저장되므로, 행의 파일이 바뀌면(이름 변경, 제거 등) 자동으로 다시 계산됩니다.
+ * 이름은 {@link RenameNamer.Session} 하나로 만들며(Matcher, 파일 속성 캐시 재사용),
+ * 세션이 캐시 크기만큼 이름을 만들었거나 무효화될 때 새 세션을 열어 세션이 쌓아 두는 상태도 제한합니다.
+ * 패턴에 해시 토큰이 있으면 UI 스레드에서 파일을 읽지 않도록(속성 조회 포함) 처음 그리는 행은 {@link #HASHING} 을 보여 주고
+ * {@link ContentDigestCache} 의 풀에서 계산이 끝나면 refresh 동작으로 다시 그리게 합니다.
+ * 계산 중인 파일은 기억해 두어 여러 번 그려져도 계산과 refresh 등록은 한 번만 하며,
+ * 읽을 수 없는 파일은 {@link #UNREADABLE} 로 캐시하여 다시 계산하지 않습니다.
+ *
+ * UI 스레드에서만 사용해야 합니다.
+ */
+class RenamePreviewCache {
+
+    /** 기본 캐시 크기 (보통 화면에 보이는 행 수보다 충분히 큼) */
+    static final int DEFAULT_CAPACITY = 2_048;
+
+    /** 파일 속성을 읽을 수 없어 이름을 만들지 못한 행의 미리보기 */
+    static final String UNREADABLE = "(파일 정보를 읽을 수 없음)";
+
+    /** 규칙을 적용한 결과가 올바른 파일명이 아닌 행의 미리보기 */
+    static final String INVALID = "(올바른 파일명이 아님)";
+
+    /** 내용 해시를 계산하는 중인 행의 미리보기 */
+    static final String HASHING = "(해시 계산 중)";
+
+    private final FileRenameState state;
+    private final int capacity;
+
+    private Map<Integer, Entry> entries;
+    // 해시를 계산 중이거나 계산이 끝났지만 아직 미리보기에 반영하지 않은 파일
+    private Map<File, CompletableFuture<byte[]>> digests;
+    // 캐시를 만들 때 사용한 방식과 시작 번호
+    private RenameNamer namer;
+    private int startNumber;
+    private RenameNamer.Session session;
+    private int sessionUses;
+    private int computeCount;
+    private Runnable refresh = () -> {
+    };
+
+    RenamePreviewCache(FileRenameState state) {
+        this(state, DEFAULT_CAPACITY);
+    }
+
+    RenamePreviewCache(FileRenameState state, int capacity) {
+        this.state = state;
+        this.capacity = capacity;
+        this.entries = newMap();
+        this.digests = newMap();
+    }
+
+    /**
+     * index 행에 있는 file 의 새 파일명을 반환합니다.
+     */
+    String previewName(int index, File file) {
+        RenameNamer currentNamer = state.getRenameNamer();
+        int currentStart = state.getCurrentStartNumber();
+        if (currentNamer != namer || currentStart != startNumber) {
+            invalidate();
+            namer = currentNamer;
+            startNumber = currentStart;
+        }
+        Entry entry = entries.get(index);
+        if (entry == null || !entry.file().equals(file)) {
+            DigestState digest = digestState(file);
+            if (digest == DigestState.PENDING) {
+                return HASHING;
+            }
+            entry = new Entry(file, digest == DigestState.FAILED ? UNREADABLE : compute(index, file));
+            entries.put(index, entry);
+            computeCount++;
+        }
+        return entry.newName();
+    }
+
+    private String compute(int index, File file) {
+        if (session == null || sessionUses >= capacity) {
+            session = namer.open();
+            sessionUses = 0;
+        }
+        sessionUses++;
+        try {
+            return session.name(index, file, startNumber + index);
+        } catch (UncheckedIOException e) {
+            return UNREADABLE;
+        } catch (IllegalArgumentException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * 이름을 만들기 전에 file 의 내용 해시가 준비되었는지 확인합니다.
+     * 해시 토큰이 있는데 처음 보는 파일이면 백그라운드에서 계산을 시작하고, 끝나면 refresh 동작을 한 번 호출합니다.
+     */
+    private DigestState digestState(File file) {
+        if (!(namer instanceof NameTemplate template) || !template.needsContent()) {
+            return DigestState.READY;
+        }
+        CompletableFuture<byte[]> digest = digests.get(file);
+        if (digest == null) {
+            // 캐시된 해시가 있어도 속성 조회가 필요하므로 풀에서 확인
+            digest = ContentDigestCache.SHARED.digestAsync(file);
+            digests.put(file, digest);
+            digest.thenRun(refresh);
+            return DigestState.PENDING;
+        }
+        if (!digest.isDone()) {
+            return DigestState.PENDING;
+        }
+        // 결과는 미리보기 캐시에 남으므로 더 기억할 필요 없음
+        digests.remove(file);
+        return digest.getNow(null) == null ? DigestState.FAILED : DigestState.READY;
+    }
+
+    /**
+     * 백그라운드에서 해시 계산이 끝났을 때 실행할 동작(보통 목록 다시 그리기)을 지정합니다.
+     * 해시 계산 스레드에서 호출되므로 UI 를 바꾸려면 UI 스레드로 넘겨야 합니다.
+     */
+    void setRefreshAction(Runnable refresh) {
+        this.refresh = refresh;
+    }
+
+    /**
+     * 캐시된 미리보기를 모두 버립니다.
+     */
+    void invalidate() {
+        entries = newMap();
+        digests = newMap();
+        session = null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 지금까지 새 파일명을 실제로 계산한 횟수를 반환합니다.
+     */
+    int getComputeCount() {
+        return computeCount;
+    }
+
+    private <K, V> Map<K, V> newMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private record Entry(File file, String newName) {
+    }
+
+    private enum DigestState {
+        READY, PENDING, FAILED
+    }
+}
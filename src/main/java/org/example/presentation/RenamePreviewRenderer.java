@@ -0,0 +1,39 @@
+package org.example.presentation;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+
+/**
+ * RenamePreviewRenderer 는 미리보기 모드에서 파일 목록 행을 "기존 경로 → 새 파일명" 으로 그립니다.
+ * 새 파일명은 {@link RenamePreviewCache} 에서 그려지는 행에 대해서만 계산됩니다.
+ */
+@SuppressWarnings("serial") // 직렬화하지 않는 화면 전용 렌더러
+class RenamePreviewRenderer extends DefaultListCellRenderer {
+
+    private final RenamePreviewCache previewCache;
+    private boolean previewEnabled;
+
+    RenamePreviewRenderer(RenamePreviewCache previewCache) {
+        this.previewCache = previewCache;
+    }
+
+    void setPreviewEnabled(boolean previewEnabled) {
+        this.previewEnabled = previewEnabled;
+    }
+
+    boolean isPreviewEnabled() {
+        return previewEnabled;
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+        // index 가 -1 이면 prototype 값으로 행 크기를 잴 때이므로 미리보기를 계산하지 않음
+        if (previewEnabled && index >= 0 && value instanceof File file) {
+            setText(file.getPath() + "  →  " + previewCache.previewName(index, file));
+        }
+        return this;
+    }
+}
@@ -1,19 +1,59 @@
 package org.example.state;
 
+import org.example.domain.NameTemplate;
+import org.example.domain.RenameNamer;
+import org.example.domain.RenameRule;
+import org.example.domain.RenameRuleChain;
+
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class FileRenameState {
-    // 파일 목록과 로그 메시지는 내부에서 변경 가능한 리스트로 관리하지만, 외부에는 불변 리스트로 노출
+    // 로그 링 버퍼의 기본 크기 (보관하는 최근 로그 줄 수)
+    public static final int DEFAULT_LOG_CAPACITY = 5_000;
+
+    // 파일 목록과 로그 메시지는 내부에서 변경 가능한 구조로 관리하지만, 외부에는 불변 리스트로 노출
     // ViewModel 에서 FileList를 관리하기 위해 사용. ViewModel 은 UI 프레임워크를 몰라야하며 종속되면 안된다.
-    private final List<File> fileList = new ArrayList<>();
-    private final List<String> logMessages = new ArrayList<>();
+    // 파일 목록은 부모 경로를 공유하는 압축 저장소로 보관하며 같은 파일은 한 번만 들어갑니다.
+    private final FileStore fileList = new FileStore();
+    // 파일 목록이 바뀔 때마다 증가. 백그라운드 작업이 계산하는 동안 목록이 바뀌었는지 확인할 때 사용
+    private long fileListVersion;
+
+    // 로그는 최근 logRing.length 줄만 보관하는 링 버퍼로 관리합니다.
+    // logSequence 는 지금까지 추가된 전체 줄 수이며, View 는 이 값으로 아직 보여주지 않은 줄만 가져갑니다.
+    private final String[] logRing;
+    private long logSequence;
 
     // 입력 관련 상태: 새 파일명 패턴과 시작 번호
     private String currentPattern = "";
     private int currentStartNumber = 1;
+    // 이름 변경 작업 진행 상태
+    private boolean renameRunning;
+    private int progressDone;
+    private int progressTotal;
+    private double filesPerSecond;
+    // 진행 중인 폴더 탐색 수
+    private int scanCount;
+
+    // currentPattern 을 컴파일한 결과. 서비스와 미리보기가 공유하며 패턴이 바뀔 때만 다시 만듭니다.
+    private NameTemplate nameTemplate;
+    // 정규식 찾아 바꾸기 규칙. 하나 이상 있으면 번호 패턴 대신 규칙으로 이름을 변경합니다.
+    private List<RenameRule> renameRules = List.of();
+    private RenameRuleChain ruleChain;
+
 
+    public FileRenameState() {
+        this(DEFAULT_LOG_CAPACITY);
+    }
+
+    public FileRenameState(int logCapacity) {
+        if (logCapacity <= 0) {
+            throw new IllegalArgumentException("logCapacity must be positive: " + logCapacity);
+        }
+        this.logRing = new String[logCapacity];
+    }
 
     // 입력 상태 관련 getter / setter
     public String getCurrentPattern() {
@@ -25,6 +65,36 @@ public class FileRenameState {
             throw new IllegalArgumentException("currentPattern cannot be null");
         }
         this.currentPattern = currentPattern;
+        this.nameTemplate = null;
+    }
+
+    public NameTemplate getNameTemplate() {
+        if (nameTemplate == null) {
+            nameTemplate = NameTemplate.compile(currentPattern);
+        }
+        return nameTemplate;
+    }
+
+    public List<RenameRule> getRenameRules() {
+        return renameRules;
+    }
+
+    /**
+     * 정규식 규칙 목록을 바꿉니다. 규칙 체인은 바로 컴파일하므로 잘못된 정규식이면 상태를 바꾸지 않습니다.
+     *
+     * @throws IllegalArgumentException 정규식이 잘못된 경우
+     */
+    public void setRenameRules(List<RenameRule> rules) {
+        List<RenameRule> copy = List.copyOf(rules);
+        this.ruleChain = copy.isEmpty() ? null : RenameRuleChain.compile(copy);
+        this.renameRules = copy;
+    }
+
+    /**
+     * 이름 변경과 미리보기에 사용할 방식을 반환합니다. 규칙이 있으면 규칙 체인, 없으면 현재 패턴입니다.
+     */
+    public RenameNamer getRenameNamer() {
+        return ruleChain != null ? ruleChain : getNameTemplate();
     }
 
     public int getCurrentStartNumber() {
@@ -35,16 +105,95 @@ public class FileRenameState {
         this.currentStartNumber = currentStartNumber;
     }
 
+    // 작업 진행 상태 관련 메서드
+    public boolean isRenameRunning() {
+        return renameRunning;
+    }
+
+    public int getProgressDone() {
+        return progressDone;
+    }
+
+    public int getProgressTotal() {
+        return progressTotal;
+    }
+
+    public double getFilesPerSecond() {
+        return filesPerSecond;
+    }
+
+    public void startProgress(int total) {
+        renameRunning = true;
+        progressTotal = total;
+        progressDone = 0;
+        filesPerSecond = 0;
+    }
+
+    public void updateProgress(int done, double filesPerSecond) {
+        this.progressDone = done;
+        this.filesPerSecond = filesPerSecond;
+    }
+
+    public void finishProgress() {
+        renameRunning = false;
+    }
+
+    // 폴더 탐색 진행 상태 관련 메서드
+    public boolean isScanRunning() {
+        return scanCount > 0;
+    }
+
+    public void startScan() {
+        scanCount++;
+    }
+
+    public void finishScan() {
+        scanCount--;
+    }
+
     // 파일 목록 관련 메서드
     public List<File> getFileList() {
-        // 외부에서는 내부 리스트의 복사본을 불변 리스트로 반환하여 직접 수정할 수 없도록 함
-        return List.copyOf(fileList);
+        // 외부에서는 내부 저장소의 스냅샷을 불변 리스트로 반환하여 직접 수정할 수 없도록 함
+        return fileList.snapshot();
+    }
+
+    public File getFileAt(int index) {
+        return fileList.get(index);
+    }
+
+    public int getFileCount() {
+        return fileList.size();
+    }
+
+    /**
+     * 파일의 목록 내 위치를 반환합니다. 없으면 -1 을 반환합니다.
+     */
+    public int indexOfFile(File file) {
+        return file == null ? -1 : fileList.indexOf(file);
+    }
+
+    public boolean containsFile(File file) {
+        return indexOfFile(file) >= 0;
+    }
+
+    /**
+     * 파일 목록에 들어온 적이 있는 부모 폴더를 한 번씩 반환합니다.
+     */
+    public List<File> getDirectories() {
+        return fileList.getDirectories();
     }
 
-    public void addFile(File file) {
-        if (file != null) {
-            fileList.add(file);
+    /**
+     * 파일을 목록 끝에 추가합니다. 이미 목록에 있는 파일은 다시 추가하지 않습니다.
+     *
+     * @return 추가되었으면 true, null 이거나 중복이면 false
+     */
+    public boolean addFile(File file) {
+        if (file != null && fileList.add(file)) {
+            fileListVersion++;
+            return true;
         }
+        return false;
     }
 
     public void setFileAt(int index, File file) {
@@ -52,17 +201,106 @@ public class FileRenameState {
             throw new IndexOutOfBoundsException("Invalid index: " + index);
         }
         fileList.set(index, file);
+        fileListVersion++;
+    }
+
+    /**
+     * fromIndex ~ toIndex(양 끝 포함) 위치의 파일을 제거합니다.
+     */
+    public void removeFiles(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex >= fileList.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid range: " + fromIndex + " ~ " + toIndex);
+        }
+        fileList.removeRange(fromIndex, toIndex);
+        fileListVersion++;
+    }
+
+    /**
+     * 여러 위치의 파일을 한 번에 제거합니다.
+     *
+     * @param sortedIndices 제거할 위치 (오름차순, 중복 없음)
+     */
+    public void removeFiles(int[] sortedIndices) {
+        fileList.removeAll(sortedIndices);
+        fileListVersion++;
+    }
+
+    /**
+     * 파일 목록의 순서를 바꿉니다.
+     *
+     * @param order order[i] = 새 목록의 i 번째에 올 파일의 현재 위치
+     */
+    public void reorderFiles(int[] order) {
+        fileList.reorder(order);
+        fileListVersion++;
+    }
+
+    /**
+     * 세션 저장용으로 파일 목록 저장소를 복사합니다. 복사본은 다른 스레드에서 읽어도 됩니다.
+     */
+    FileStore copyFiles() {
+        return fileList.copy();
+    }
+
+    /**
+     * 세션 복원 시 파일 목록 저장소를 통째로 바꿉니다. files 는 이후 사용하지 않아야 합니다.
+     */
+    void replaceFiles(FileStore files) {
+        fileList.replaceWith(files);
+        fileListVersion++;
+    }
+
+    /**
+     * 파일 목록이 바뀔 때마다(추가, 교체, 제거, 정렬, 세션 복원) 증가하는 값을 반환합니다.
+     */
+    public long getFileListVersion() {
+        return fileListVersion;
     }
 
     // 로그 메시지 관련 메서드
     public List<String> getLogMessages() {
-        // 로그 리스트도 복사본을 반환하여 불변으로 처리
-        return List.copyOf(logMessages);
+        // 보관 중인 로그를 오래된 순서로 복사하여 불변으로 반환
+        return getLogMessagesSince(0);
+    }
+
+    /**
+     * sequence 이후에 추가된 로그 중 아직 보관 중인 줄을 오래된 순서로 반환합니다.
+     * 반환 후 {@link #getLogSequence()} 값을 기억해 두었다가 다음 호출에 넘기면 새 줄만 받을 수 있습니다.
+     *
+     * @param sequence 이전에 받은 {@link #getLogSequence()} 값
+     * @return 새로 추가된 로그 (불변)
+     */
+    public List<String> getLogMessagesSince(long sequence) {
+        long from = Math.max(sequence, getOldestLogSequence());
+        if (from >= logSequence) {
+            return List.of();
+        }
+        List<String> lines = new ArrayList<>((int) (logSequence - from));
+        for (long seq = from; seq < logSequence; seq++) {
+            lines.add(logRing[(int) (seq % logRing.length)]);
+        }
+        return Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * 지금까지 추가된 로그의 전체 줄 수를 반환합니다. 링 버퍼에서 밀려난 줄도 포함합니다.
+     */
+    public long getLogSequence() {
+        return logSequence;
+    }
+
+    public int getLogCapacity() {
+        return logRing.length;
+    }
+
+    private long getOldestLogSequence() {
+        return Math.max(0, logSequence - logRing.length);
     }
 
     public void addLog(String message) {
         if (message != null) {
-            logMessages.add(message);
+            logRing[(int) (logSequence % logRing.length)] = message;
+            logSequence++;
         }
     }
 }
@@ -0,0 +1,536 @@
+package org.example.state;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * FileStore 는 파일 목록을 File 객체 대신 압축된 배열로 보관하는 저장소입니다.
+ *
+ * - 부모 디렉토리 경로는 한 번만 저장(intern)하고 항목마다 정수 id 로 참조합니다.
+ * - 파일 이름은 하나의 공용 바이트 배열(arena)에 UTF-8 로 이어 붙이고 항목마다 위치와 길이만 저장합니다.
+ * - (부모 id, 이름) 으로 찾는 개방 주소법 해시 색인을 두어 중복 확인과 위치 조회가 O(1) 입니다.
+ * - 위치 접근과 교체는 O(1) 이며, File 객체는 접근할 때만 만들어집니다.
+ * 구간 제거와 여러 위치 일괄 제거는 뒤쪽 항목을 당기고 색인을 다시 만들므로 O(n) 입니다.
+ * 세션 파일에서 복원한 저장소는 해시 색인을 처음 조회하거나 변경할 때 만듭니다.
+ *
+ * 경로는 추가된 형태 그대로(상대/절대) 비교하며, 대소문자를 구분하지 않는 파일 시스템에서는
+ * File.equals 와 같이 이름을 대소문자 구분 없이 비교합니다. 한 스레드에서만 사용해야 합니다.
+ */
+public class FileStore {
+
+    private static final boolean CASE_INSENSITIVE = new File("a").equals(new File("A"));
+    private static final int NO_PARENT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // 부모 디렉토리 intern 테이블
+    private final List<String> parentPaths = new ArrayList<>();
+    private final Map<String, Integer> parentIds = new HashMap<>();
+
+    // 항목별 배열
+    private int size;
+    private int[] parentIndex = new int[INITIAL_CAPACITY];
+    private int[] nameOffset = new int[INITIAL_CAPACITY];
+    private int[] nameLength = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    // 이름 arena 와 교체/제거로 버려진 바이트 수
+    private byte[] arena = new byte[INITIAL_CAPACITY * 16];
+    private int arenaUsed;
+    private int arenaWasted;
+
+    // (부모 id, 이름) → 항목 위치+1 을 저장하는 선형 탐사 해시 테이블. 0 은 빈 칸
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    // false 이면 hashes 와 table 을 아직 만들지 않은 상태 (세션 복원 직후)
+    private boolean indexed = true;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * index 위치의 파일을 반환합니다. 호출할 때마다 새 File 객체를 만듭니다.
+     */
+    public File get(int index) {
+        checkIndex(index);
+        int parent = parentIndex[index];
+        String name = new String(arena, nameOffset[index], nameLength[index], StandardCharsets.UTF_8);
+        return parent == NO_PARENT ? new File(name) : new File(parentPaths.get(parent), name);
+    }
+
+    /**
+     * 파일을 목록 끝에 추가합니다. 이미 있는 파일이면 추가하지 않습니다.
+     *
+     * @return 추가되었으면 true, 중복이면 false
+     */
+    public boolean add(File file) {
+        ensureIndexed();
+        int parent = parentIdOf(file);
+        byte[] name = file.getName().getBytes(StandardCharsets.UTF_8);
+        int hash = hash(parent, file.getName());
+        if (find(parent, name, hash) >= 0) {
+            return false;
+        }
+        ensureCapacity(size + 1);
+        int index = size++;
+        store(index, parent, name, hash);
+        insertIntoTable(index);
+        return true;
+    }
+
+    /**
+     * index 위치의 파일을 교체합니다.
+     */
+    public void set(int index, File file) {
+        checkIndex(index);
+        ensureIndexed();
+        removeFromTable(index);
+        arenaWasted += nameLength[index];
+        int parent = parentIdOf(file);
+        store(index, parent, file.getName().getBytes(StandardCharsets.UTF_8), hash(parent, file.getName()));
+        insertIntoTable(index);
+        if (arenaWasted > arenaUsed / 2 && arenaWasted > 4096) {
+            compactArena();
+        }
+    }
+
+    /**
+     * 파일의 위치를 반환합니다. 없으면 -1 을 반환합니다.
+     */
+    public int indexOf(File file) {
+        ensureIndexed();
+        String parentPath = file.getParent();
+        Integer parent = parentPath == null ? Integer.valueOf(NO_PARENT) : parentIds.get(parentKey(parentPath));
+        if (parent == null) {
+            return -1;
+        }
+        return find(parent, file.getName().getBytes(StandardCharsets.UTF_8), hash(parent, file.getName()));
+    }
+
+    public boolean contains(File file) {
+        return indexOf(file) >= 0;
+    }
+
+    /**
+     * fromIndex ~ toIndex(양 끝 포함) 위치의 파일을 제거합니다.
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex >= size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid range: " + fromIndex + " ~ " + toIndex);
+        }
+        ensureIndexed();
+        int removed = toIndex - fromIndex + 1;
+        for (int i = fromIndex; i <= toIndex; i++) {
+            arenaWasted += nameLength[i];
+        }
+        int tail = size - toIndex - 1;
+        System.arraycopy(parentIndex, toIndex + 1, parentIndex, fromIndex, tail);
+        System.arraycopy(nameOffset, toIndex + 1, nameOffset, fromIndex, tail);
+        System.arraycopy(nameLength, toIndex + 1, nameLength, fromIndex, tail);
+        System.arraycopy(hashes, toIndex + 1, hashes, fromIndex, tail);
+        size -= removed;
+        rebuildTable(table.length);
+        if (arenaWasted > arenaUsed / 2 && arenaWasted > 4096) {
+            compactArena();
+        }
+    }
+
+    /**
+     * 여러 위치의 파일을 한 번에 제거합니다. 남는 항목을 한 번만 당기고 색인도 한 번만 다시 만드므로
+     * 흩어진 위치를 구간마다 {@link #removeRange} 로 지우는 것과 달리 제거할 위치 수와 관계없이 O(n) 입니다.
+     *
+     * @param sortedIndices 제거할 위치 (오름차순, 중복 없음)
+     */
+    public void removeAll(int[] sortedIndices) {
+        for (int i = 0; i < sortedIndices.length; i++) {
+            int index = sortedIndices[i];
+            if (index < 0 || index >= size || (i > 0 && index <= sortedIndices[i - 1])) {
+                throw new IllegalArgumentException("indices must be sorted, distinct and within 0 ~ " + (size - 1));
+            }
+        }
+        if (sortedIndices.length == 0) {
+            return;
+        }
+        ensureIndexed();
+        int write = sortedIndices[0];
+        int next = 0;
+        for (int read = sortedIndices[0]; read < size; read++) {
+            if (next < sortedIndices.length && sortedIndices[next] == read) {
+                arenaWasted += nameLength[read];
+                next++;
+                continue;
+            }
+            parentIndex[write] = parentIndex[read];
+            nameOffset[write] = nameOffset[read];
+            nameLength[write] = nameLength[read];
+            hashes[write] = hashes[read];
+            write++;
+        }
+        size = write;
+        rebuildTable(table.length);
+        if (arenaWasted > arenaUsed / 2 && arenaWasted > 4096) {
+            compactArena();
+        }
+    }
+
+    /**
+     * 목록 순서를 바꿉니다.
+     *
+     * @param order order[i] = 새 목록의 i 번째에 올 항목의 현재 위치 (0 ~ size-1 의 순열)
+     */
+    public void reorder(int[] order) {
+        if (order.length != size) {
+            throw new IllegalArgumentException("order length " + order.length + " != size " + size);
+        }
+        boolean[] seen = new boolean[size];
+        for (int from : order) {
+            if (from < 0 || from >= size || seen[from]) {
+                throw new IllegalArgumentException("order is not a permutation");
+            }
+            seen[from] = true;
+        }
+        ensureIndexed();
+        int[] newParentIndex = new int[parentIndex.length];
+        int[] newNameOffset = new int[nameOffset.length];
+        int[] newNameLength = new int[nameLength.length];
+        int[] newHashes = new int[hashes.length];
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            newParentIndex[i] = parentIndex[from];
+            newNameOffset[i] = nameOffset[from];
+            newNameLength[i] = nameLength[from];
+            newHashes[i] = hashes[from];
+        }
+        parentIndex = newParentIndex;
+        nameOffset = newNameOffset;
+        nameLength = newNameLength;
+        hashes = newHashes;
+        rebuildTable(table.length);
+    }
+
+    public void clear() {
+        size = 0;
+        arenaUsed = 0;
+        arenaWasted = 0;
+        parentPaths.clear();
+        parentIds.clear();
+        Arrays.fill(table, 0);
+        indexed = true;
+    }
+
+    /**
+     * 현재 목록의 불변 스냅샷을 반환합니다. File 객체는 스냅샷을 읽을 때 만들어집니다.
+     */
+    public List<File> snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * 서로 다른 부모 디렉토리 수를 반환합니다.
+     */
+    public int getDirectoryCount() {
+        return parentPaths.size();
+    }
+
+    /**
+     * 지금까지 저장한 파일의 부모 폴더를 한 번씩 반환합니다. 파일이 모두 제거된 폴더도 포함될 수 있습니다.
+     */
+    public List<File> getDirectories() {
+        List<File> directories = new ArrayList<>(parentPaths.size());
+        for (String parentPath : parentPaths) {
+            directories.add(new File(parentPath));
+        }
+        return directories;
+    }
+
+    /**
+     * 항목을 모두 복사한 독립된 저장소를 만듭니다. 이름 arena 는 사용 중인 바이트만 복사하며 해시 색인은 나중에 만듭니다.
+     */
+    FileStore copy() {
+        byte[] names = new byte[arenaUsed - arenaWasted];
+        int[] offsets = new int[size];
+        int used = 0;
+        for (int index = 0; index < size; index++) {
+            System.arraycopy(arena, nameOffset[index], names, used, nameLength[index]);
+            offsets[index] = used;
+            used += nameLength[index];
+        }
+        return load(parentPaths, size, Arrays.copyOf(parentIndex, size), offsets,
+                Arrays.copyOf(nameLength, size), names, used);
+    }
+
+    /**
+     * 이미 만들어진 배열로 저장소를 만듭니다. 배열은 복사하지 않고 그대로 사용하며, 해시 색인은 처음 필요할 때 만듭니다.
+     *
+     * @param parents     부모 디렉토리 경로 (부모 id 순서)
+     * @param size        항목 수
+     * @param parentIndex 항목별 부모 id (부모가 없으면 -1)
+     * @param nameOffset  항목별 이름 시작 위치
+     * @param nameLength  항목별 이름 바이트 수
+     * @param arena       UTF-8 이름 바이트
+     * @param arenaUsed   arena 에서 사용 중인 바이트 수
+     */
+    static FileStore load(List<String> parents, int size, int[] parentIndex, int[] nameOffset, int[] nameLength,
+                          byte[] arena, int arenaUsed) {
+        FileStore store = new FileStore();
+        for (String parentPath : parents) {
+            store.parentIds.put(parentKey(parentPath), store.parentPaths.size());
+            store.parentPaths.add(parentPath);
+        }
+        store.size = size;
+        store.parentIndex = parentIndex;
+        store.nameOffset = nameOffset;
+        store.nameLength = nameLength;
+        store.hashes = new int[0];
+        store.arena = arena;
+        store.arenaUsed = arenaUsed;
+        store.indexed = false;
+        return store;
+    }
+
+    /**
+     * other 의 내용을 그대로 넘겨받습니다. 이후 other 는 사용하지 않아야 합니다.
+     */
+    void replaceWith(FileStore other) {
+        parentPaths.clear();
+        parentPaths.addAll(other.parentPaths);
+        parentIds.clear();
+        parentIds.putAll(other.parentIds);
+        size = other.size;
+        parentIndex = other.parentIndex;
+        nameOffset = other.nameOffset;
+        nameLength = other.nameLength;
+        hashes = other.hashes;
+        arena = other.arena;
+        arenaUsed = other.arenaUsed;
+        arenaWasted = other.arenaWasted;
+        table = other.table;
+        indexed = other.indexed;
+    }
+
+    // 세션 저장에 쓰는 내부 배열 접근자
+
+    String directoryAt(int id) {
+        return parentPaths.get(id);
+    }
+
+    int parentIdAt(int index) {
+        return parentIndex[index];
+    }
+
+    int nameOffsetAt(int index) {
+        return nameOffset[index];
+    }
+
+    int nameLengthAt(int index) {
+        return nameLength[index];
+    }
+
+    byte[] nameArena() {
+        return arena;
+    }
+
+    /**
+     * 복원 직후라 해시 색인이 없으면 이름마다 해시를 계산해 색인을 만듭니다.
+     */
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        if (hashes.length < parentIndex.length) {
+            hashes = new int[parentIndex.length];
+        }
+        for (int index = 0; index < size; index++) {
+            String name = new String(arena, nameOffset[index], nameLength[index], StandardCharsets.UTF_8);
+            hashes[index] = hash(parentIndex[index], name);
+        }
+        indexed = true;
+        rebuildTable(INITIAL_CAPACITY * 2);
+    }
+
+    private void store(int index, int parent, byte[] name, int hash) {
+        ensureArena(name.length);
+        System.arraycopy(name, 0, arena, arenaUsed, name.length);
+        parentIndex[index] = parent;
+        nameOffset[index] = arenaUsed;
+        nameLength[index] = name.length;
+        hashes[index] = hash;
+        arenaUsed += name.length;
+    }
+
+    private int parentIdOf(File file) {
+        String parentPath = file.getParent();
+        if (parentPath == null) {
+            return NO_PARENT;
+        }
+        String key = parentKey(parentPath);
+        Integer id = parentIds.get(key);
+        if (id == null) {
+            id = parentPaths.size();
+            parentPaths.add(parentPath);
+            parentIds.put(key, id);
+        }
+        return id;
+    }
+
+    private static String parentKey(String parentPath) {
+        return CASE_INSENSITIVE ? parentPath.toLowerCase(Locale.ROOT) : parentPath;
+    }
+
+    private static int hash(int parent, String name) {
+        int nameHash = CASE_INSENSITIVE ? name.toLowerCase(Locale.ROOT).hashCode() : name.hashCode();
+        int h = parent * 0x9E3779B9 + nameHash;
+        return h ^ (h >>> 16);
+    }
+
+    private int find(int parent, byte[] name, int hash) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int index = table[slot] - 1;
+            if (hashes[index] == hash && parentIndex[index] == parent && nameEquals(index, name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nameEquals(int index, byte[] name) {
+        int offset = nameOffset[index];
+        int length = nameLength[index];
+        if (!CASE_INSENSITIVE) {
+            return Arrays.equals(arena, offset, offset + length, name, 0, name.length);
+        }
+        String stored = new String(arena, offset, length, StandardCharsets.UTF_8);
+        return stored.equalsIgnoreCase(new String(name, StandardCharsets.UTF_8));
+    }
+
+    private void insertIntoTable(int index) {
+        if ((size + 1) * 2 > table.length) {
+            rebuildTable(table.length * 2);
+            return;
+        }
+        int mask = table.length - 1;
+        int slot = hashes[index] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    /**
+     * 선형 탐사 테이블에서 항목을 지우고, 뒤따르는 항목을 당겨 탐사 사슬이 끊기지 않게 합니다.
+     */
+    private void removeFromTable(int index) {
+        int mask = table.length - 1;
+        int slot = hashes[index] & mask;
+        while (table[slot] != index + 1) {
+            if (table[slot] == 0) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = hashes[table[next] - 1] & mask;
+            // next 의 원래 자리(home)가 (hole, next] 구간 밖이면 hole 로 당길 수 있음
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void rebuildTable(int capacity) {
+        while (size * 2 > capacity) {
+            capacity *= 2;
+        }
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > parentIndex.length) {
+            int newCapacity = Math.max(capacity, parentIndex.length + (parentIndex.length >> 1));
+            parentIndex = Arrays.copyOf(parentIndex, newCapacity);
+            nameOffset = Arrays.copyOf(nameOffset, newCapacity);
+            nameLength = Arrays.copyOf(nameLength, newCapacity);
+            hashes = Arrays.copyOf(hashes, newCapacity);
+        }
+    }
+
+    private void ensureArena(int extra) {
+        if (arenaUsed + extra > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaUsed + extra, arena.length + (arena.length >> 1)));
+        }
+    }
+
+    private void compactArena() {
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY, arenaUsed - arenaWasted)];
+        int used = 0;
+        for (int index = 0; index < size; index++) {
+            System.arraycopy(arena, nameOffset[index], compacted, used, nameLength[index]);
+            nameOffset[index] = used;
+            used += nameLength[index];
+        }
+        arena = compacted;
+        arenaUsed = used;
+        arenaWasted = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        }
+    }
+
+    /**
+     * 만들 당시의 항목을 복사해 둔 불변 목록. 원본 저장소가 바뀌어도 영향을 받지 않습니다.
+     */
+    private static final class Snapshot extends AbstractList<File> implements RandomAccess {
+        private final List<String> parentPaths;
+        private final int[] parentIndex;
+        private final int[] nameOffset;
+        private final int[] nameLength;
+        private final byte[] arena;
+
+        Snapshot(FileStore store) {
+            this.parentPaths = List.copyOf(store.parentPaths);
+            this.parentIndex = Arrays.copyOf(store.parentIndex, store.size);
+            this.nameOffset = Arrays.copyOf(store.nameOffset, store.size);
+            this.nameLength = Arrays.copyOf(store.nameLength, store.size);
+            this.arena = Arrays.copyOf(store.arena, store.arenaUsed);
+        }
+
+        @Override
+        public File get(int index) {
+            String name = new String(arena, nameOffset[index], nameLength[index], StandardCharsets.UTF_8);
+            int parent = parentIndex[index];
+            return parent == NO_PARENT ? new File(name) : new File(parentPaths.get(parent), name);
+        }
+
+        @Override
+        public int size() {
+            return parentIndex.length;
+        }
+    }
+}
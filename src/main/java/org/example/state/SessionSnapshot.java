@@ -0,0 +1,368 @@
+package org.example.state;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SessionSnapshot 은 {@link FileRenameState} 의 파일 목록, 패턴, 시작 번호, 최근 로그를 세션 파일로 저장하고 복원합니다.
+ *
+ * 세션 파일은 가변 길이 정수(varint)를 쓰는 압축된 바이너리 형식입니다.
+ * - 부모 폴더 경로와 파일 이름은 바로 앞 항목과 겹치는 앞부분 바이트 수와 나머지 바이트만 저장합니다(prefix 압축).
+ * - 파일 항목은 부모 폴더 id 와 이름만 저장하며, 경로 문자열은 한 번도 다시 만들지 않습니다.
+ *
+ * 복원은 파일을 메모리 매핑(mmap)해 이름 바이트를 곧바로 {@link FileStore} 의 arena 로 풀어 넣습니다.
+ * File 객체나 이름 문자열은 만들지 않으며, 목록의 File 은 접근할 때 만들어지고 중복 확인용 해시 색인도 처음 필요할 때 만듭니다.
+ * 따라서 100만 개 항목도 디스크에서 읽는 시간 외에는 배열 복사 수준의 시간만 걸립니다.
+ *
+ * 저장은 UI 스레드에서 {@link #capture(FileRenameState)} 로 상태를 복사한 뒤 백그라운드 스레드에서 {@link #write(Path)} 하고,
+ * 복원은 백그라운드 스레드에서 {@link #read(Path)} 한 뒤 UI 스레드에서 {@link #applyTo(FileRenameState)} 하는 방식으로 사용합니다.
+ */
+public final class SessionSnapshot {
+
+    /** 세션에 함께 저장하는 최근 로그 줄 수 */
+    public static final int LOG_TAIL_LINES = 500;
+
+    // "FRSS" (File Rename Session Snapshot)
+    static final int MAGIC = 0x46525353;
+    static final int VERSION = 1;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private FileStore files;
+    private final int fileCount;
+    private final String pattern;
+    private final int startNumber;
+    private final List<String> logTail;
+
+    private SessionSnapshot(FileStore files, String pattern, int startNumber, List<String> logTail) {
+        this.files = files;
+        this.fileCount = files.size();
+        this.pattern = pattern;
+        this.startNumber = startNumber;
+        this.logTail = List.copyOf(logTail);
+    }
+
+    /**
+     * 현재 상태를 복사해 스냅샷을 만듭니다. 상태를 읽으므로 UI 스레드에서 호출해야 합니다.
+     */
+    public static SessionSnapshot capture(FileRenameState state) {
+        long fromSequence = Math.max(0, state.getLogSequence() - LOG_TAIL_LINES);
+        return new SessionSnapshot(state.copyFiles(), state.getCurrentPattern(), state.getCurrentStartNumber(),
+                state.getLogMessagesSince(fromSequence));
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getStartNumber() {
+        return startNumber;
+    }
+
+    public List<String> getLogTail() {
+        return logTail;
+    }
+
+    /**
+     * 스냅샷을 상태에 적용합니다. 파일 목록은 통째로 바뀌고, 저장된 로그는 기존 로그 뒤에 이어 붙습니다.
+     * 파일 목록 저장소를 그대로 넘겨주므로 한 번만 적용할 수 있습니다. UI 스레드에서 호출해야 합니다.
+     *
+     * @throws IllegalStateException 이미 적용한 스냅샷인 경우
+     */
+    public void applyTo(FileRenameState state) {
+        if (files == null) {
+            throw new IllegalStateException("snapshot already applied");
+        }
+        state.replaceFiles(files);
+        files = null;
+        state.setCurrentPattern(pattern);
+        state.setCurrentStartNumber(startNumber);
+        for (String line : logTail) {
+            state.addLog(line);
+        }
+    }
+
+    /**
+     * 세션 파일로 저장합니다. 임시 파일에 다 쓴 뒤 바꿔치기하므로 저장 중 실패해도 기존 세션 파일은 그대로 남습니다.
+     *
+     * @throws IOException 쓰기에 실패한 경우
+     */
+    public void write(Path path) throws IOException {
+        if (files == null) {
+            throw new IllegalStateException("snapshot already applied");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Encoder out = new Encoder(channel);
+            out.writeInt(MAGIC);
+            out.writeVarint(VERSION);
+            out.writeVarint(zigZag(startNumber));
+            out.writeString(pattern);
+            out.writeVarint(logTail.size());
+            for (String line : logTail) {
+                out.writeString(line);
+            }
+            writeDirectories(out);
+            writeEntries(out);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeDirectories(Encoder out) throws IOException {
+        int count = files.getDirectoryCount();
+        out.writeVarint(count);
+        byte[] previous = new byte[0];
+        for (int id = 0; id < count; id++) {
+            byte[] path = files.directoryAt(id).getBytes(StandardCharsets.UTF_8);
+            int shared = Arrays.mismatch(previous, path);
+            if (shared < 0) {
+                shared = path.length;
+            }
+            out.writeVarint(shared);
+            out.writeVarint(path.length - shared);
+            out.writeBytes(path, shared, path.length - shared);
+            previous = path;
+        }
+    }
+
+    private void writeEntries(Encoder out) throws IOException {
+        byte[] arena = files.nameArena();
+        int totalBytes = 0;
+        for (int index = 0; index < fileCount; index++) {
+            totalBytes += files.nameLengthAt(index);
+        }
+        out.writeVarint(fileCount);
+        out.writeVarint(totalBytes);
+        int previousOffset = 0;
+        int previousLength = 0;
+        for (int index = 0; index < fileCount; index++) {
+            int offset = files.nameOffsetAt(index);
+            int length = files.nameLengthAt(index);
+            int shared = Arrays.mismatch(arena, previousOffset, previousOffset + previousLength,
+                    arena, offset, offset + length);
+            if (shared < 0) {
+                shared = length;
+            }
+            // 부모가 없는 항목(-1)은 0, 나머지는 id + 1
+            out.writeVarint(files.parentIdAt(index) + 1);
+            out.writeVarint(shared);
+            out.writeVarint(length - shared);
+            out.writeBytes(arena, offset + shared, length - shared);
+            previousOffset = offset;
+            previousLength = length;
+        }
+    }
+
+    /**
+     * 세션 파일을 읽습니다. 백그라운드 스레드에서 호출해도 됩니다.
+     *
+     * @throws IOException 읽을 수 없거나 세션 파일 형식이 아닌 경우
+     */
+    public static SessionSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("손상된 세션 파일입니다: 파일이 중간에 끝났습니다.", e);
+        }
+    }
+
+    private static SessionSnapshot decode(ByteBuffer in) throws IOException {
+        if (in.remaining() < Integer.BYTES || in.getInt() != MAGIC) {
+            throw new IOException("세션 파일이 아닙니다.");
+        }
+        int version = readVarint(in);
+        if (version != VERSION) {
+            throw new IOException("지원하지 않는 세션 파일 버전입니다: " + version);
+        }
+        int startNumber = unZigZag(readVarint(in));
+        String pattern = readString(in);
+        int logCount = readCount(in, 1, "로그");
+        List<String> logTail = new ArrayList<>(Math.min(logCount, LOG_TAIL_LINES));
+        for (int i = 0; i < logCount; i++) {
+            logTail.add(readString(in));
+        }
+
+        int directoryCount = readCount(in, 2, "폴더 경로");
+        List<String> directories = new ArrayList<>(directoryCount);
+        byte[] path = new byte[0];
+        int pathLength = 0;
+        for (int id = 0; id < directoryCount; id++) {
+            int shared = readVarint(in);
+            int suffix = readCount(in, 1, "폴더 경로");
+            if (shared < 0 || shared > pathLength) {
+                throw corrupted("폴더 경로");
+            }
+            if (shared + suffix > path.length) {
+                path = Arrays.copyOf(path, Math.max(shared + suffix, path.length * 2));
+            }
+            in.get(path, shared, suffix);
+            pathLength = shared + suffix;
+            directories.add(new String(path, 0, pathLength, StandardCharsets.UTF_8));
+        }
+
+        int size = readCount(in, 3, "파일 항목");
+        int totalBytes = readVarint(in);
+        if (totalBytes < 0) {
+            throw corrupted("파일 길이");
+        }
+        int[] parentIndex = new int[size];
+        int[] nameOffset = new int[size];
+        int[] nameLength = new int[size];
+        byte[] arena = new byte[totalBytes];
+        int used = 0;
+        int previousOffset = 0;
+        int previousLength = 0;
+        for (int index = 0; index < size; index++) {
+            int parent = readVarint(in) - 1;
+            int shared = readVarint(in);
+            int suffix = readVarint(in);
+            if (parent < -1 || parent >= directoryCount || shared < 0 || shared > previousLength
+                    || suffix < 0 || suffix > totalBytes - used - shared) {
+                throw corrupted("파일 항목");
+            }
+            System.arraycopy(arena, previousOffset, arena, used, shared);
+            in.get(arena, used + shared, suffix);
+            parentIndex[index] = parent;
+            nameOffset[index] = used;
+            nameLength[index] = shared + suffix;
+            previousOffset = used;
+            previousLength = shared + suffix;
+            used += previousLength;
+        }
+        if (used != totalBytes || in.hasRemaining()) {
+            throw corrupted("파일 길이");
+        }
+        FileStore files = FileStore.load(directories, size, parentIndex, nameOffset, nameLength, arena, used);
+        return new SessionSnapshot(files, pattern, startNumber, logTail);
+    }
+
+    private static IOException corrupted(String part) {
+        return new IOException("손상된 세션 파일입니다: " + part + " 정보가 맞지 않습니다.");
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw corrupted("정수");
+    }
+
+    /**
+     * 개수나 길이를 읽습니다. 남은 바이트로 담을 수 없는 값이면 큰 배열을 만들기 전에 손상으로 처리합니다.
+     *
+     * @param bytesPerItem 항목 하나가 차지하는 최소 바이트 수
+     */
+    private static int readCount(ByteBuffer in, int bytesPerItem, String part) throws IOException {
+        int count = readVarint(in);
+        if (count < 0 || (long) count * bytesPerItem > in.remaining()) {
+            throw corrupted(part);
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = readCount(in, 1, "문자열");
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 고정 크기 버퍼에 모았다가 채널로 내보내는 쓰기 도우미.
+     */
+    private static final class Encoder {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+
+        Encoder(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void writeVarint(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                ensure(1);
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.viewmodel;
+
+import org.example.state.FileRenameState;
+
+import java.util.EnumSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CoalescingStateDispatcher 는 ViewModel 과 실제 StateListener(View) 사이에서 상태 알림을 모았다가
+ * 정해진 간격(기본 16ms, 약 60fps)마다 한 번씩만 전달하는 리스너입니다.
+ *
+ * 알림은 종류별 더티 플래그와 구간으로 합쳐집니다.
+ * - 연속된 추가 구간은 하나의 구간으로, 교체된 위치들은 최소~최대 구간 하나로 합칩니다.
+ * - 이어지지 않는 추가나 제거가 섞이면 LIST_RELOAD 하나로 대체합니다.
+ * 마지막 알림 이후에도 반드시 한 번 더 전달되므로 View 는 항상 최종 상태를 보게 됩니다.
+ *
+ * ViewModel 의 알림은 uiExecutor 스레드에서 들어온다고 가정하며, 전달도 같은 스레드에서 이루어집니다.
+ */
+public class CoalescingStateDispatcher implements FileRenameViewModel.StateListener {
+
+    /** 기본 전달 간격 (밀리초) */
+    public static final long DEFAULT_INTERVAL_MILLIS = 16;
+
+    private static final ScheduledExecutorService SHARED_TIMER = createTimer();
+
+    private final FileRenameViewModel.StateListener target;
+    private final Executor uiExecutor;
+    private final ScheduledExecutorService timer;
+    private final long intervalNanos;
+
+    // 아래 필드는 uiExecutor 스레드에서만 사용
+    private final EnumSet<FileRenameViewModel.ResultType> dirtyTypes = EnumSet.noneOf(FileRenameViewModel.ResultType.class);
+    private FileRenameState lastState;
+    private int insertedFrom = -1;
+    private int insertedTo = -1;
+    private int replacedFrom = -1;
+    private int replacedTo = -1;
+    private boolean progressDirty;
+    private boolean flushScheduled;
+    private long lastFlushNanos;
+
+    /**
+     * 기본 간격(16ms)으로 전달하는 디스패처를 생성합니다.
+     */
+    public CoalescingStateDispatcher(FileRenameViewModel.StateListener target, Executor uiExecutor) {
+        this(target, uiExecutor, SHARED_TIMER, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param target         실제로 알림을 받을 리스너
+     * @param uiExecutor     알림을 전달할 스레드의 executor (Swing 에서는 SwingUtilities::invokeLater)
+     * @param timer          전달 시점을 예약할 타이머
+     * @param intervalMillis 최소 전달 간격 (밀리초)
+     */
+    public CoalescingStateDispatcher(FileRenameViewModel.StateListener target, Executor uiExecutor,
+                                     ScheduledExecutorService timer, long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("intervalMillis must not be negative: " + intervalMillis);
+        }
+        this.target = target;
+        this.uiExecutor = uiExecutor;
+        this.timer = timer;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.lastFlushNanos = System.nanoTime() - intervalNanos;
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "state-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    @Override
+    public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+        dirtyTypes.add(type);
+        markDirty(state);
+    }
+
+    @Override
+    public void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+        if (insertedFrom < 0) {
+            insertedFrom = fromIndex;
+            insertedTo = toIndex;
+        } else if (fromIndex == insertedTo + 1) {
+            insertedTo = toIndex;
+        } else {
+            dirtyTypes.add(FileRenameViewModel.ResultType.LIST_RELOAD);
+        }
+        markDirty(state);
+    }
+
+    @Override
+    public void onFileReplaced(int index, FileRenameState state) {
+        onFilesReplaced(index, index, state);
+    }
+
+    @Override
+    public void onFilesReplaced(int fromIndex, int toIndex, FileRenameState state) {
+        if (replacedFrom < 0) {
+            replacedFrom = fromIndex;
+            replacedTo = toIndex;
+        } else {
+            replacedFrom = Math.min(replacedFrom, fromIndex);
+            replacedTo = Math.max(replacedTo, toIndex);
+        }
+        markDirty(state);
+    }
+
+    @Override
+    public void onFilesRemoved(int fromIndex, int toIndex, FileRenameState state) {
+        // 제거는 이후 인덱스를 모두 밀어내므로 구간을 합치지 않고 전체 갱신으로 대체
+        dirtyTypes.add(FileRenameViewModel.ResultType.LIST_RELOAD);
+        markDirty(state);
+    }
+
+    @Override
+    public void onProgress(FileRenameState state) {
+        progressDirty = true;
+        markDirty(state);
+    }
+
+    private void markDirty(FileRenameState state) {
+        lastState = state;
+        if (flushScheduled) {
+            return;
+        }
+        flushScheduled = true;
+        long delayNanos = intervalNanos - (System.nanoTime() - lastFlushNanos);
+        if (delayNanos <= 0) {
+            uiExecutor.execute(this::flush);
+        } else {
+            timer.schedule(() -> uiExecutor.execute(this::flush), delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 모아 둔 알림을 즉시 전달합니다. uiExecutor 스레드에서 호출해야 합니다.
+     */
+    public void flush() {
+        flushScheduled = false;
+        lastFlushNanos = System.nanoTime();
+        FileRenameState state = lastState;
+        if (state == null) {
+            return;
+        }
+
+        if (dirtyTypes.remove(FileRenameViewModel.ResultType.LIST_RELOAD)) {
+            // 전체 갱신이 구간 알림을 모두 포함
+            target.onStateChanged(FileRenameViewModel.ResultType.LIST_RELOAD, state);
+        } else {
+            if (insertedFrom >= 0) {
+                target.onFilesInserted(insertedFrom, insertedTo, state);
+            }
+            if (replacedFrom >= 0) {
+                int last = Math.min(replacedTo, state.getFileCount() - 1);
+                if (replacedFrom <= last) {
+                    target.onFilesReplaced(replacedFrom, last, state);
+                }
+            }
+        }
+        insertedFrom = insertedTo = -1;
+        replacedFrom = replacedTo = -1;
+
+        for (FileRenameViewModel.ResultType type : dirtyTypes) {
+            target.onStateChanged(type, state);
+        }
+        dirtyTypes.clear();
+
+        if (progressDirty) {
+            progressDirty = false;
+            target.onProgress(state);
+        }
+    }
+}
@@ -1,101 +1,1082 @@
 package org.example.viewmodel;
 
+import org.example.domain.BatchRenamingCallback;
+import org.example.domain.DirectoryWatcher;
 import org.example.domain.FileRenameService;
+import org.example.domain.FileSorter;
+import org.example.domain.NameTemplate;
+import org.example.domain.RecursiveFileCollector;
+import org.example.domain.RenameBatch;
+import org.example.domain.RenameJournal;
+import org.example.domain.RenameNamer;
+import org.example.domain.RenameRule;
+import org.example.domain.RenameSummary;
 import org.example.intent.*;
+import org.example.metrics.RenameMetrics;
 import org.example.state.FileRenameState;
+import org.example.state.SessionSnapshot;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 public class FileRenameViewModel {
+
+    /** 폴더 탐색이 uiExecutor 에 넘겨 두고 아직 반영되지 않은 묶음의 최대 수 */
+    static final int MAX_PENDING_SCAN_CHUNKS = 4;
+
+    // 반영을 기다리는 폴더 탐색이 취소를 확인하는 간격 (밀리초)
+    private static final long SCAN_CANCEL_POLL_MILLIS = 50;
+
     private final FileRenameState state = new FileRenameState();
     private final FileRenameService renameService;
+    private final Executor jobExecutor;
+    private final Executor uiExecutor;
+    private final RecursiveFileCollector fileCollector = new RecursiveFileCollector();
+    private final FileSorter fileSorter = new FileSorter();
     private StateListener listener;
+    // 리스너 호출 시간을 기록할 측정값 (null 이면 측정하지 않음)
+    private RenameMetrics metrics;
+
+    // 진행 중인 이름 변경 작업 (uiExecutor 스레드에서만 변경, 취소 요청은 다른 스레드에서도 읽음)
+    private volatile RenameJob currentJob;
+    // 진행 중인 폴더 탐색들의 취소 플래그 (탐색 스레드에서 넣고 빼며, 취소 요청은 어느 스레드에서든 함)
+    private final Set<AtomicBoolean> activeScans = ConcurrentHashMap.newKeySet();
+
+    // 아직 처리하지 않은 인텐트. 어느 스레드에서든 넣을 수 있고 uiExecutor 스레드 하나만 꺼내 처리합니다.
+    private final ConcurrentLinkedQueue<FileRenameIntent> pendingIntents = new ConcurrentLinkedQueue<>();
+    // 큐를 비우는 작업이 uiExecutor 에 예약되었거나 실행 중이면 true
+    private final AtomicBoolean intentDrainScheduled = new AtomicBoolean();
 
+    // 폴더 실시간 동기화 감시자 (null 이면 꺼짐, uiExecutor 스레드에서만 접근)
+    private DirectoryWatcher watcher;
+    // 이름 변경 작업 중에 도착해 작업이 끝난 뒤 반영할 폴더 변경 묶음
+    private final List<DirectoryWatcher.Batch> deferredWatchBatches = new ArrayList<>();
+
+    // 작업마다 실제로 바뀐 파일을 기록한 되돌리기/다시 실행 스택 (uiExecutor 스레드에서만 접근)
+    private final RenameJournal journal = new RenameJournal();
+
+    /**
+     * 이름 변경 작업을 호출 스레드에서 바로 실행하는 ViewModel 을 생성합니다.
+     */
     public FileRenameViewModel(FileRenameService renameService) {
+        this(renameService, Runnable::run, Runnable::run);
+    }
+
+    /**
+     * @param renameService 이름 변경 서비스
+     * @param jobExecutor   이름 변경 작업을 실행할 백그라운드 executor
+     * @param uiExecutor    상태 반영과 리스너 알림을 실행할 executor (Swing 에서는 SwingUtilities::invokeLater)
+     */
+    public FileRenameViewModel(FileRenameService renameService, Executor jobExecutor, Executor uiExecutor) {
         this.renameService = renameService;
+        this.jobExecutor = jobExecutor;
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * 현재 상태를 반환합니다. View 는 읽기 전용으로만 사용해야 합니다.
+     */
+    public FileRenameState getState() {
+        return state;
+    }
+
+    /**
+     * 리스너 호출 시간을 기록할 측정값을 설정합니다. null 이면 측정하지 않습니다.
+     */
+    public void setMetrics(RenameMetrics metrics) {
+        this.metrics = metrics;
     }
 
     private void notifyStateChanged(ResultType type) {
         if (listener != null) {
+            long start = listenerTimerStart();
             listener.onStateChanged(type, state);
+            recordListenerTime(start);
+        }
+    }
+
+    private void notifyProgress() {
+        if (listener != null) {
+            long start = listenerTimerStart();
+            listener.onProgress(state);
+            recordListenerTime(start);
+        }
+    }
+
+    private void notifyFilesInserted(int fromIndex, int toIndex) {
+        if (listener != null && fromIndex <= toIndex) {
+            long start = listenerTimerStart();
+            listener.onFilesInserted(fromIndex, toIndex, state);
+            recordListenerTime(start);
+        }
+    }
+
+    private void notifyFileReplaced(int index) {
+        if (listener != null) {
+            long start = listenerTimerStart();
+            listener.onFileReplaced(index, state);
+            recordListenerTime(start);
+        }
+    }
+
+    private void notifyFilesRemoved(int fromIndex, int toIndex) {
+        if (listener != null && fromIndex <= toIndex) {
+            long start = listenerTimerStart();
+            listener.onFilesRemoved(fromIndex, toIndex, state);
+            recordListenerTime(start);
+        }
+    }
+
+    private void notifyFilesReplaced(int fromIndex, int toIndex) {
+        if (listener != null && fromIndex <= toIndex) {
+            long start = listenerTimerStart();
+            listener.onFilesReplaced(fromIndex, toIndex, state);
+            recordListenerTime(start);
+        }
+    }
+
+    private long listenerTimerStart() {
+        return metrics != null && metrics.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    private void recordListenerTime(long start) {
+        if (start != 0) {
+            metrics.recordListener(System.nanoTime() - start);
         }
     }
 
+
+    /**
+     * 인텐트를 큐에 넣습니다. 어느 스레드에서 호출해도 되며, 상태 변경은 항상 uiExecutor 스레드 하나에서만 일어납니다.
+     *
+     * 큐에 쌓인 인텐트는 uiExecutor 에서 한 번에 꺼내 처리하며, 처리 전에 다음과 같이 합칩니다.
+     * - 연속된 패턴/시작 번호 변경은 마지막 값만 반영하고 미리보기 알림도 한 번만 보냅니다.
+     * - 연속된 파일 추가는 하나로 묶어 목록 추가 알림과 로그 알림을 한 번만 보냅니다.
+     * 입력이 빠르게 들어와 UI 스레드가 밀릴수록 더 많이 합쳐지므로, 중간 값에 대한 계산을 건너뛰게 됩니다.
+     *
+     * 취소는 작업을 멈추는 것이 목적이므로 진행 중인 작업이나 폴더 탐색이 있으면 큐를 거치지 않고 바로 요청합니다.
+     */
     public void processIntent(FileRenameIntent intent) {
+        if (intent.getIntentType() == FileRenameIntent.IntentType.CANCEL_RENAME) {
+            RenameJob job = currentJob;
+            boolean scanCancelled = cancelScans();
+            if (job != null || scanCancelled) {
+                if ((job != null && job.cancel()) || scanCancelled) {
+                    uiExecutor.execute(() -> {
+                        state.addLog("작업 취소를 요청했습니다.");
+                        notifyStateChanged(ResultType.LOG_MESSAGE);
+                    });
+                }
+                return;
+            }
+        }
+        pendingIntents.add(intent);
+        if (intentDrainScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::drainIntents);
+        }
+    }
+
+    /**
+     * 큐에 쌓인 인텐트를 모두 처리합니다. 처리 중(리스너 안 등)에 새로 들어온 인텐트도 이어서 처리합니다.
+     */
+    private void drainIntents() {
+        List<FileRenameIntent> batch = new ArrayList<>();
+        while (true) {
+            FileRenameIntent intent;
+            while ((intent = pendingIntents.poll()) != null) {
+                batch.add(intent);
+            }
+            if (batch.isEmpty()) {
+                intentDrainScheduled.set(false);
+                // 플래그를 내리는 사이에 들어온 인텐트는 다른 호출이 예약하지 못했으므로 여기서 이어서 처리
+                if (pendingIntents.isEmpty() || !intentDrainScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            handleMerged(batch);
+            batch.clear();
+        }
+    }
+
+    private void handleMerged(List<FileRenameIntent> batch) {
+        int i = 0;
+        while (i < batch.size()) {
+            FileRenameIntent intent = batch.get(i);
+            switch (intent.getIntentType()) {
+                case PATTERN_CHANGED, START_NUMBER_CHANGED -> {
+                    // 패턴과 시작 번호는 서로 독립이므로 섞여 있어도 각각 마지막 값만 반영
+                    String pattern = null;
+                    Integer startNumber = null;
+                    for (; i < batch.size(); i++) {
+                        FileRenameIntent input = batch.get(i);
+                        if (input instanceof PatternChangedIntent patternIntent) {
+                            pattern = patternIntent.newPattern();
+                        } else if (input instanceof StartNumberChangedIntent startNumberIntent) {
+                            startNumber = startNumberIntent.newStartNumber();
+                        } else {
+                            break;
+                        }
+                    }
+                    applyInput(pattern, startNumber);
+                }
+                case ADD -> {
+                    List<File> files = new ArrayList<>();
+                    for (; i < batch.size() && batch.get(i) instanceof AddFilesIntent addIntent; i++) {
+                        files.addAll(addIntent.files());
+                    }
+                    addFiles(files);
+                }
+                default -> {
+                    handleIntent(intent);
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 패턴과 시작 번호를 반영합니다. null 이면 바뀌지 않은 값입니다.
+     */
+    private void applyInput(String pattern, Integer startNumber) {
+        boolean changed = false;
+        if (pattern != null && !state.getCurrentPattern().equals(pattern)) {
+            state.setCurrentPattern(pattern);
+            changed = true;
+        }
+        if (startNumber != null && state.getCurrentStartNumber() != startNumber) {
+            state.setCurrentStartNumber(startNumber);
+            changed = true;
+        }
+        if (changed) {
+            // 입력 필드는 자동으로 그려지므로 미리보기만 다시 그리도록 알림
+            notifyStateChanged(ResultType.PREVIEW_CHANGED);
+        }
+    }
+
+    private void addFiles(List<File> files) {
+        int firstIndex = state.getFileCount();
+        int duplicates = 0;
+        for (File file : files) {
+            if (state.addFile(file)) {
+                state.addLog("파일 추가됨: " + file.getAbsolutePath());
+            } else {
+                duplicates++;
+            }
+        }
+        if (duplicates > 0) {
+            state.addLog("이미 목록에 있는 파일 " + duplicates + "개는 건너뛰었습니다.");
+        }
+        watchParentsOf(firstIndex);
+        notifyFilesInserted(firstIndex, state.getFileCount() - 1);
+        notifyStateChanged(ResultType.LOG_MESSAGE);
+    }
+
+    private void handleIntent(FileRenameIntent intent) {
         switch (intent.getIntentType()) {
-            case PATTERN_CHANGED: {
-                PatternChangedIntent patternIntent = (PatternChangedIntent) intent;
-                String newPattern = patternIntent.newPattern();
-                if (!state.getCurrentPattern().equals(newPattern)) {
-                    state.setCurrentPattern(newPattern);
-                    //자동으로 그려지기 때문에 notifyStateChanged() 할필요 없음
+            case ADD_DIRECTORY: {
+                AddDirectoryIntent directoryIntent = (AddDirectoryIntent) intent;
+                state.startScan();
+                notifyProgress();
+                jobExecutor.execute(() -> collectDirectories(directoryIntent));
+                break;
+            }
+
+            case RENAME: {
+                RenameFilesIntent renameIntent = (RenameFilesIntent) intent;
+                if (currentJob != null) {
+                    state.addLog("이미 이름 변경 작업이 진행 중입니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                    break;
+                }
+                List<File> files = state.getFileList();
+                // 규칙이 있으면 규칙 체인, 없으면 패턴. 입력 중인 패턴과 같으면 미리 컴파일해 둔 패턴을 그대로 재사용
+                RenameNamer namer;
+                if (!state.getRenameRules().isEmpty()) {
+                    namer = state.getRenameNamer();
+                    state.addLog("정규식 규칙 " + state.getRenameRules().size() + "개로 이름을 변경합니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                } else if (renameIntent.newPattern().equals(state.getCurrentPattern())) {
+                    namer = state.getNameTemplate();
+                } else {
+                    namer = NameTemplate.compile(renameIntent.newPattern());
+                }
+                // 새 작업을 기록해 두고, 실제로 바뀐 파일이 있으면 되돌렸던 작업은 더 이상 다시 실행할 수 없음
+                RenameJob job = new RenameJob(files, true, batch -> {
+                    if (batch.size() > 0) {
+                        journal.clearRedo();
+                    }
+                    journal.pushUndo(batch);
+                });
+                currentJob = job;
+                state.startProgress(files.size());
+                notifyProgress();
+                jobExecutor.execute(() -> job.run(namer, renameIntent.startNumber()));
+                break;
+            }
+
+            case CANCEL_RENAME: {
+                boolean scanCancelled = cancelScans();
+                if ((currentJob != null && currentJob.cancel()) || scanCancelled) {
+                    state.addLog("작업 취소를 요청했습니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
                 }
                 break;
             }
-            case START_NUMBER_CHANGED: {
-                StartNumberChangedIntent startNumberIntent = (StartNumberChangedIntent) intent;
-                int newNumber = startNumberIntent.newStartNumber();
-                if (state.getCurrentStartNumber() != newNumber) {
-                    state.setCurrentStartNumber(newNumber);
+            case SORT: {
+                SortFilesIntent sortIntent = (SortFilesIntent) intent;
+                if (currentJob != null) {
+                    state.addLog("이름 변경 작업 중에는 정렬할 수 없습니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                    break;
+                }
+                // 정렬 키 계산(파일 속성 읽기 포함)은 백그라운드에서 하고, 결과 순서만 UI 스레드에서 반영
+                List<File> files = state.getFileList();
+                long version = state.getFileListVersion();
+                jobExecutor.execute(() -> sortFiles(sortIntent, files, version));
+                break;
+            }
+            case ADD_RULE: {
+                AddRenameRuleIntent ruleIntent = (AddRenameRuleIntent) intent;
+                List<RenameRule> rules = new ArrayList<>(state.getRenameRules());
+                try {
+                    rules.add(new RenameRule(ruleIntent.find(), ruleIntent.replacement()));
+                    state.setRenameRules(rules);
+                } catch (IllegalArgumentException e) {
+                    state.addLog("규칙을 추가할 수 없습니다: " + e.getMessage());
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                    break;
+                }
+                state.addLog("규칙 추가됨: " + rules.get(rules.size() - 1) + " (규칙 " + rules.size() + "개)");
+                notifyStateChanged(ResultType.PREVIEW_CHANGED);
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+                break;
+            }
+            case CLEAR_RULES: {
+                if (!state.getRenameRules().isEmpty()) {
+                    state.setRenameRules(List.of());
+                    state.addLog("규칙을 모두 지웠습니다. 번호 패턴으로 이름을 변경합니다.");
+                    notifyStateChanged(ResultType.PREVIEW_CHANGED);
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                }
+                break;
+            }
+            case LIVE_SYNC: {
+                LiveSyncIntent syncIntent = (LiveSyncIntent) intent;
+                if (syncIntent.enabled() == (watcher != null)) {
+                    break;
+                }
+                if (syncIntent.enabled()) {
+                    watcher = new DirectoryWatcher(batch -> uiExecutor.execute(() -> onWatchBatch(batch)));
+                    watchDirectories(state.getDirectories());
+                    state.addLog("폴더 실시간 동기화를 켰습니다.");
+                } else {
+                    closeWatcher();
+                    state.addLog("폴더 실시간 동기화를 껐습니다.");
+                }
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+                break;
+            }
+            case UNDO:
+            case REDO: {
+                boolean undo = intent.getIntentType() == FileRenameIntent.IntentType.UNDO;
+                if (currentJob != null) {
+                    state.addLog("이름 변경 작업 중에는 되돌리거나 다시 실행할 수 없습니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                    break;
+                }
+                RenameJournal.Batch batch = undo ? journal.pollUndo() : journal.pollRedo();
+                if (batch == null) {
+                    state.addLog(undo ? "되돌릴 작업이 없습니다." : "다시 실행할 작업이 없습니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                    break;
+                }
+                // 되돌리기로 바뀐 파일은 다시 실행 스택에, 다시 실행으로 바뀐 파일은 되돌리기 스택에 기록
+                RenameJob job = new RenameJob(List.of(), false, undo ? journal::pushRedo : journal::pushUndo);
+                currentJob = job;
+                state.addLog((undo ? "되돌리기: " : "다시 실행: ") + "파일 " + batch.size() + "개의 이름을 바꿉니다.");
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+                state.startProgress(batch.size());
+                notifyProgress();
+                jobExecutor.execute(() -> job.replay(batch));
+                break;
+            }
+            case SAVE_SESSION: {
+                SaveSessionIntent saveIntent = (SaveSessionIntent) intent;
+                // 상태 복사만 UI 스레드에서 하고, 인코딩과 디스크 쓰기는 백그라운드에서 실행
+                SessionSnapshot snapshot = SessionSnapshot.capture(state);
+                jobExecutor.execute(() -> writeSession(snapshot, saveIntent.path()));
+                break;
+            }
+            case RESTORE_SESSION: {
+                RestoreSessionIntent restoreIntent = (RestoreSessionIntent) intent;
+                if (currentJob != null) {
+                    state.addLog("이름 변경 작업 중에는 세션을 복원할 수 없습니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                    break;
                 }
+                jobExecutor.execute(() -> readSession(restoreIntent.path()));
                 break;
             }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * firstIndex 부터 새로 추가된 파일들의 폴더를 실시간 동기화 감시 대상에 더합니다.
+     */
+    private void watchParentsOf(int firstIndex) {
+        if (watcher == null) {
+            return;
+        }
+        Set<File> parents = new LinkedHashSet<>();
+        for (int i = firstIndex; i < state.getFileCount(); i++) {
+            File parent = state.getFileAt(i).getParentFile();
+            if (parent != null) {
+                parents.add(parent);
+            }
+        }
+        watchDirectories(new ArrayList<>(parents));
+    }
 
-            case ADD: {
-                AddFilesIntent addIntent = (AddFilesIntent) intent;
-                for (File file : addIntent.files()) {
-                    state.addFile(file);
-                    state.addLog("파일 추가됨: " + file.getAbsolutePath());
+    /**
+     * 폴더 감시 등록(시스템 콜)은 백그라운드에서 실행합니다.
+     */
+    private void watchDirectories(List<File> directories) {
+        DirectoryWatcher target = watcher;
+        jobExecutor.execute(() -> {
+            int failed = 0;
+            for (File directory : directories) {
+                try {
+                    target.watch(directory);
+                } catch (IOException | IllegalStateException e) {
+                    // 이미 없어진 폴더이거나 감시가 꺼진 경우
+                    failed++;
                 }
+            }
+            if (failed > 0) {
+                int count = failed;
+                uiExecutor.execute(() -> {
+                    state.addLog("폴더 " + count + "개는 실시간 동기화로 감시할 수 없습니다.");
+                    notifyStateChanged(ResultType.LOG_MESSAGE);
+                });
+            }
+        });
+    }
+
+    private void closeWatcher() {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            state.addLog("폴더 감시를 닫는 중 에러 발생: " + e.getMessage());
+        }
+        watcher = null;
+        deferredWatchBatches.clear();
+    }
+
+    /**
+     * 폴더 변경 묶음을 받습니다. 이름 변경 작업 중에는 목록 위치가 작업과 어긋나지 않도록 작업이 끝날 때까지 미룹니다.
+     */
+    private void onWatchBatch(DirectoryWatcher.Batch batch) {
+        if (watcher == null) {
+            return;
+        }
+        if (currentJob != null) {
+            deferredWatchBatches.add(batch);
+            return;
+        }
+        applyWatchBatch(batch);
+    }
+
+    private void applyDeferredWatchBatches() {
+        List<DirectoryWatcher.Batch> batches = new ArrayList<>(deferredWatchBatches);
+        deferredWatchBatches.clear();
+        for (DirectoryWatcher.Batch batch : batches) {
+            applyWatchBatch(batch);
+        }
+    }
+
+    /**
+     * 폴더 변경 묶음을 목록에 증분으로 반영합니다.
+     * 같은 폴더에서 목록의 파일이 사라지고 확장자가 같은 새 파일이 생겼으면 이름 변경으로 보고
+     * 그 자리의 파일을 교체하여 순서를 유지하며, 짝이 없는 삭제는 제거합니다.
+     * 짝이 없는 생성은 사용자가 고른 파일이 아니므로(폴더 추가 시의 필터도 거치지 않음) 목록에 넣지 않습니다.
+     */
+    private void applyWatchBatch(DirectoryWatcher.Batch batch) {
+        TreeSet<Integer> deleted = new TreeSet<>();
+        Map<File, ArrayDeque<File>> createdByDirectory = new LinkedHashMap<>();
+        for (DirectoryWatcher.Change change : batch.changes()) {
+            if (change.created()) {
+                if (!state.containsFile(change.file())) {
+                    createdByDirectory.computeIfAbsent(change.file().getParentFile(), d -> new ArrayDeque<>())
+                            .add(change.file());
+                }
+            } else {
+                int index = state.indexOfFile(change.file());
+                if (index >= 0) {
+                    deleted.add(index);
+                }
+            }
+        }
+        // 이벤트가 유실된 폴더는 다시 읽은 이름 집합에 없는 목록 항목을 삭제로 처리
+        if (!batch.rescanned().isEmpty()) {
+            for (int i = 0; i < state.getFileCount(); i++) {
+                File file = state.getFileAt(i);
+                Set<String> names = batch.rescanned().get(file.getAbsoluteFile().getParentFile());
+                if (names != null && !names.contains(file.getName())) {
+                    deleted.add(i);
+                }
+            }
+        }
+
+        int renamed = 0;
+        for (Iterator<Integer> iterator = deleted.iterator(); iterator.hasNext(); ) {
+            int index = iterator.next();
+            File oldFile = state.getFileAt(index);
+            File newFile = pollSameExtension(createdByDirectory.get(oldFile.getParentFile()), oldFile);
+            if (newFile != null) {
+                state.addLog("밖에서 변경됨: " + state.getFileAt(index).getAbsolutePath() + " -> " + newFile.getAbsolutePath());
+                state.setFileAt(index, newFile);
+                notifyFileReplaced(index);
+                iterator.remove();
+                renamed++;
+            }
+        }
+        // 흩어진 위치도 한 번에 제거하고 알림도 한 번만 보냄 (이어진 한 구간이면 그 구간, 아니면 목록 전체 갱신)
+        int removed = deleted.size();
+        if (removed > 0) {
+            int first = deleted.first();
+            int last = deleted.last();
+            int[] indices = new int[removed];
+            int n = 0;
+            for (int index : deleted) {
+                indices[n++] = index;
+            }
+            state.removeFiles(indices);
+            if (last - first + 1 == removed) {
+                notifyFilesRemoved(first, last);
+            } else {
                 notifyStateChanged(ResultType.LIST_RELOAD);
+            }
+        }
+
+        if (renamed + removed > 0) {
+            state.addLog("폴더 변경 반영: 이름 변경 " + renamed + "개, 삭제 " + removed + "개");
+            notifyStateChanged(ResultType.LOG_MESSAGE);
+        }
+    }
+
+    /**
+     * 후보 중 oldFile 과 확장자가 같은 첫 파일을 꺼냅니다. 없으면 null 을 반환합니다.
+     */
+    private static File pollSameExtension(ArrayDeque<File> candidates, File oldFile) {
+        if (candidates == null) {
+            return null;
+        }
+        String extension = extensionOf(oldFile.getName());
+        for (Iterator<File> iterator = candidates.iterator(); iterator.hasNext(); ) {
+            File candidate = iterator.next();
+            if (extensionOf(candidate.getName()).equalsIgnoreCase(extension)) {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot) : "";
+    }
+
+    /**
+     * 현재 상태를 호출 스레드에서 바로 세션 파일로 저장합니다.
+     * 창을 닫을 때처럼 저장이 끝나야 다음으로 넘어갈 수 있을 때 UI 스레드에서 호출합니다.
+     * 큐에 남은 인텐트(마지막 입력 등)를 먼저 처리한 뒤 저장합니다.
+     *
+     * @throws IOException 저장에 실패한 경우
+     */
+    public void saveSession(Path path) throws IOException {
+        drainIntents();
+        SessionSnapshot.capture(state).write(path);
+    }
+
+    private void writeSession(SessionSnapshot snapshot, Path path) {
+        long startNanos = System.nanoTime();
+        try {
+            snapshot.write(path);
+        } catch (IOException | RuntimeException e) {
+            uiExecutor.execute(() -> {
+                state.addLog("세션을 저장하는 중 에러 발생: " + e.getMessage());
                 notifyStateChanged(ResultType.LOG_MESSAGE);
-                break;
+            });
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        uiExecutor.execute(() -> {
+            state.addLog("세션 저장: 파일 " + snapshot.getFileCount() + "개 → " + path + " (" + elapsedMillis + " ms)");
+            notifyStateChanged(ResultType.LOG_MESSAGE);
+        });
+    }
+
+    /**
+     * 세션 파일을 백그라운드에서 읽고, 읽은 목록은 uiExecutor 에서 한 번에 상태로 바꿔 넣습니다.
+     */
+    private void readSession(Path path) {
+        long startNanos = System.nanoTime();
+        SessionSnapshot snapshot;
+        try {
+            snapshot = SessionSnapshot.read(path);
+        } catch (IOException | RuntimeException e) {
+            uiExecutor.execute(() -> {
+                state.addLog("세션을 복원하는 중 에러 발생: " + e.getMessage());
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+            });
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        uiExecutor.execute(() -> {
+            if (currentJob != null) {
+                state.addLog("세션을 읽는 동안 이름 변경 작업이 시작되어 세션을 복원하지 않았습니다.");
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+                return;
+            }
+            snapshot.applyTo(state);
+            if (watcher != null) {
+                watchDirectories(state.getDirectories());
             }
+            state.addLog("세션 복원: 파일 " + snapshot.getFileCount() + "개 ← " + path + " (" + elapsedMillis + " ms)");
+            notifyStateChanged(ResultType.LIST_RELOAD);
+            notifyStateChanged(ResultType.SESSION_RESTORED);
+            notifyStateChanged(ResultType.PREVIEW_CHANGED);
+            notifyStateChanged(ResultType.LOG_MESSAGE);
+        });
+    }
 
-            case RENAME: {
-                RenameFilesIntent renameIntent = (RenameFilesIntent) intent;
-                List<File> files = state.getFileList();
-                renameService.renameFiles(files, renameIntent.newPattern(), renameIntent.startNumber(), new FileRenameService.RenamingCallback() {
-                    @Override
-                    public void onRenamed(File oldFile, File newFile) {
-                        int index = files.indexOf(oldFile);
-                        if (index != -1) {
+    private void sortFiles(SortFilesIntent intent, List<File> files, long version) {
+        long startNanos = System.nanoTime();
+        int[] order;
+        try {
+            order = fileSorter.sortOrder(files, intent.key(), intent.descending());
+        } catch (RuntimeException e) {
+            uiExecutor.execute(() -> {
+                state.addLog("정렬 중 에러 발생: " + e.getMessage());
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+            });
+            return;
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        uiExecutor.execute(() -> {
+            if (state.getFileListVersion() != version || currentJob != null) {
+                state.addLog("정렬하는 동안 목록이 바뀌어 정렬 결과를 적용하지 않았습니다.");
+            } else {
+                state.reorderFiles(order);
+                notifyStateChanged(ResultType.LIST_RELOAD);
+                state.addLog(files.size() + "개 파일을 " + sortLabel(intent) + " 정렬했습니다. (" + elapsedMillis + " ms)");
+            }
+            notifyStateChanged(ResultType.LOG_MESSAGE);
+        });
+    }
+
+    private static String sortLabel(SortFilesIntent intent) {
+        String key = switch (intent.key()) {
+            case NATURAL_NAME -> "이름";
+            case MODIFIED_TIME -> "수정 시간";
+            case SIZE -> "크기";
+        };
+        return key + (intent.descending() ? " 내림차순으로" : " 순으로");
+    }
+
+    /**
+     * 폴더를 백그라운드에서 재귀 탐색하고, 찾은 파일을 묶음 단위로 uiExecutor 에서 상태에 추가합니다.
+     * uiExecutor 에 쌓인 묶음이 {@link #MAX_PENDING_SCAN_CHUNKS} 개가 되면 반영될 때까지 탐색을 멈추고,
+     * 취소 요청(CANCEL_RENAME)을 받으면 탐색을 멈춥니다. 이미 넘긴 묶음은 그대로 반영합니다.
+     * 탐색 스레드가 기다리는 동안 묶음을 반영해야 하므로 jobExecutor 는 uiExecutor 와 다른 스레드여야 합니다.
+     */
+    private void collectDirectories(AddDirectoryIntent intent) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        activeScans.add(cancelled);
+        Semaphore pendingChunks = new Semaphore(MAX_PENDING_SCAN_CHUNKS);
+        // 실제로 추가된 파일 수. 묶음 반영과 완료 로그 모두 uiExecutor 에서 순서대로 실행되므로 동기화가 필요 없음
+        int[] added = new int[1];
+        try {
+            int total = fileCollector.collect(intent.roots(), intent.includeGlob(), intent.excludeGlob(), chunk -> {
+                if (!awaitChunkSlot(pendingChunks, cancelled)) {
+                    return;
+                }
+                uiExecutor.execute(() -> {
+                    try {
+                        added[0] += addCollectedFiles(chunk);
+                    } finally {
+                        pendingChunks.release();
+                    }
+                });
+            }, cancelled::get);
+            uiExecutor.execute(() -> {
+                if (cancelled.get()) {
+                    // 넘기지 못한 묶음이 있을 수 있으므로 중복 수는 알리지 않음
+                    state.addLog("폴더 탐색 취소: " + added[0] + "개의 파일까지 추가되었습니다.");
+                } else {
+                    String skipped = total > added[0] ? " (중복 " + (total - added[0]) + "개 제외)" : "";
+                    state.addLog("폴더 탐색 완료: 총 " + added[0] + "개의 파일이 추가되었습니다." + skipped);
+                }
+                state.finishScan();
+                notifyProgress();
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+            });
+        } catch (IOException | RuntimeException e) {
+            uiExecutor.execute(() -> {
+                state.addLog("폴더 탐색 중 에러 발생: " + e.getMessage());
+                state.finishScan();
+                notifyProgress();
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+            });
+        } finally {
+            activeScans.remove(cancelled);
+        }
+    }
+
+    /**
+     * 반영을 기다리는 묶음이 줄어들 때까지 탐색 스레드를 멈춥니다. 기다리는 동안 취소되면 false 를 반환합니다.
+     */
+    private static boolean awaitChunkSlot(Semaphore pendingChunks, AtomicBoolean cancelled) {
+        try {
+            while (!pendingChunks.tryAcquire(SCAN_CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled.get()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled.set(true);
+            return false;
+        }
+    }
+
+    /**
+     * 진행 중인 폴더 탐색에 모두 취소를 요청합니다. 새로 취소한 탐색이 있으면 true 를 반환합니다.
+     */
+    private boolean cancelScans() {
+        boolean cancelled = false;
+        for (AtomicBoolean scan : activeScans) {
+            cancelled |= scan.compareAndSet(false, true);
+        }
+        return cancelled;
+    }
+
+    private int addCollectedFiles(List<File> chunk) {
+        int firstIndex = state.getFileCount();
+        for (File file : chunk) {
+            state.addFile(file);
+        }
+        int added = state.getFileCount() - firstIndex;
+        if (added > 0) {
+            watchParentsOf(firstIndex);
+            notifyFilesInserted(firstIndex, state.getFileCount() - 1);
+            state.addLog("폴더에서 파일 " + added + "개 추가됨 (" + chunk.get(0).getParent() + " ...)");
+            notifyStateChanged(ResultType.LOG_MESSAGE);
+        }
+        return added;
+    }
+
+    /**
+     * RenameJob 은 한 번의 이름 변경 작업을 jobExecutor 에서 실행하고,
+     * 서비스가 보내는 콜백을 모아 uiExecutor 에서 한꺼번에 상태에 반영합니다.
+     * 묶음(RenameBatch)을 지원하는 엔진이면 묶음 하나를 한 번의 상태 반영과 한 번의 구간 알림으로 처리합니다.
+     * 상태(FileRenameState)는 항상 uiExecutor 스레드에서만 변경됩니다.
+     */
+    private class RenameJob implements BatchRenamingCallback {
+        private final List<File> files;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final long startNanos = System.nanoTime();
+
+        // 서비스 스레드에서 쌓이고 UI 스레드에서 비워지는 대기 이벤트
+        private final Object pendingLock = new Object();
+        private List<Runnable> pending = new ArrayList<>();
+        private boolean flushScheduled;
+
+        // true 면 콜백의 위치가 곧 목록 위치(작업 시작 시의 목록 순서), false 면 파일로 목록 위치를 찾음
+        private final boolean listOrder;
+        // 작업이 끝나면 실제로 바뀐 파일 기록을 넘겨받을 곳 (UI 스레드에서 호출)
+        private final Consumer<RenameJournal.Batch> onRecorded;
+
+        // 위치 없이 호출하는 구현체를 위한 파일 → 위치 색인. 필요할 때 한 번만 만듭니다.
+        private Map<File, Integer> positions;
+
+        // 아래 필드는 UI 스레드에서만 사용
+        private int processed;
+        private boolean logDirty;
+        private RenameJournal.Batch recorded = journal.newBatch();
+
+        RenameJob(List<File> files, boolean listOrder, Consumer<RenameJournal.Batch> onRecorded) {
+            this.files = files;
+            this.listOrder = listOrder;
+            this.onRecorded = onRecorded;
+        }
+
+        void run(RenameNamer namer, int startNumber) {
+            execute(files, namer, startNumber);
+        }
+
+        /**
+         * 기록된 작업을 되돌립니다. 기록을 풀어 지금 이름의 파일들을 기록의 이전 이름으로 바꾸는 작업으로 실행합니다.
+         */
+        void replay(RenameJournal.Batch batch) {
+            RenameJournal.Replay replay;
+            try {
+                replay = batch.replay();
+            } catch (IOException e) {
+                enqueue(() -> {
+                    state.addLog("이름 변경 기록을 읽을 수 없습니다: " + e.getMessage());
+                    finish();
+                });
+                return;
+            } finally {
+                batch.close();
+            }
+            execute(replay.sources(), replay, 0);
+        }
+
+        private void execute(List<File> sources, RenameNamer namer, int startNumber) {
+            try {
+                renameService.renameFiles(sources, namer, startNumber, this);
+            } catch (RuntimeException e) {
+                enqueue(() -> {
+                    state.addLog("에러 발생: " + e.getMessage());
+                    finish();
+                });
+            }
+        }
+
+        boolean cancel() {
+            return cancelled.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public void onRenamed(int index, File oldFile, File newFile) {
+            enqueue(() -> {
+                processed++;
+                int position = listPosition(index, oldFile);
+                if (position >= 0) {
+                    state.setFileAt(position, newFile);
+                    notifyFileReplaced(position);
+                }
+                record(oldFile, newFile);
+                state.addLog("변경됨: " + oldFile.getAbsolutePath() + " -> " + newFile.getAbsolutePath());
+            });
+        }
+
+        @Override
+        public void onRenamed(File oldFile, File newFile) {
+            // 목록에 없는 파일이면 위치가 -1 이므로 로그와 기록만 남음
+            onRenamed(listOrder ? positionOf(oldFile) : -1, oldFile, newFile);
+        }
+
+        @Override
+        public void onBatch(RenameBatch batch) {
+            enqueue(() -> applyBatch(batch));
+        }
+
+        /**
+         * 묶음의 결과를 상태에 반영하고, 바뀐 행 구간을 한 번만 알립니다.
+         */
+        private void applyBatch(RenameBatch batch) {
+            int replacedFrom = Integer.MAX_VALUE;
+            int replacedTo = -1;
+            for (int i = 0; i < batch.size(); i++) {
+                switch (batch.status(i)) {
+                    case RenameBatch.RENAMED -> {
+                        File oldFile = batch.oldFile(i);
+                        File newFile = batch.newFile(i);
+                        int index = listPosition(batch.index(i), oldFile);
+                        if (index >= 0) {
                             state.setFileAt(index, newFile);
+                            replacedFrom = Math.min(replacedFrom, index);
+                            replacedTo = Math.max(replacedTo, index);
                         }
-                        notifyStateChanged(ResultType.LIST_RELOAD);
+                        record(oldFile, newFile);
                         state.addLog("변경됨: " + oldFile.getAbsolutePath() + " -> " + newFile.getAbsolutePath());
                     }
-
-                    @Override
-                    public void onExists(File newFile) {
-                        state.addLog("오류: " + newFile.getAbsolutePath() + " 파일이 이미 존재합니다. 건너뜀.");
-                        notifyStateChanged(ResultType.LOG_MESSAGE);
+                    case RenameBatch.EXISTS -> {
+                        state.addLog("오류: " + batch.newFile(i).getAbsolutePath() + " 파일이 이미 존재합니다. 건너뜀.");
+                        logDirty = true;
                     }
-
-                    @Override
-                    public void onComplete(int count) {
-                        state.addLog("총 " + count + "개의 파일명이 변경되었습니다.");
-                        notifyStateChanged(ResultType.LOG_MESSAGE);
+                    default -> {
+                        state.addLog(batch.error(i).getMessage());
+                        logDirty = true;
                     }
+                }
+            }
+            processed += batch.size();
+            notifyFilesReplaced(replacedFrom, replacedTo);
+        }
 
-                    @Override
-                    public void onError(File file, Exception e) {
-                        state.addLog(e.getMessage());
-                        notifyStateChanged(ResultType.LOG_MESSAGE);
-                    }
-                });
-                break;
+        /**
+         * 콜백으로 받은 위치를 목록 위치로 바꿉니다. 되돌리기 작업은 목록 순서와 관계없으므로 파일로 찾습니다.
+         * UI 스레드에서만 호출합니다.
+         */
+        private int listPosition(int index, File oldFile) {
+            if (!listOrder) {
+                return state.indexOfFile(oldFile);
             }
-            default:
-                break;
+            return index >= 0 ? index : positionOf(oldFile);
+        }
+
+        /**
+         * 바뀐 파일을 되돌리기 기록에 더합니다. 기록을 임시 파일로 내보내지 못하면 이 작업은 되돌릴 수 없게 됩니다.
+         */
+        private void record(File oldFile, File newFile) {
+            if (recorded == null) {
+                return;
+            }
+            try {
+                recorded.record(oldFile, newFile);
+            } catch (UncheckedIOException e) {
+                state.addLog("되돌리기 기록을 저장하지 못해 이 작업은 되돌릴 수 없습니다: " + e.getCause().getMessage());
+                logDirty = true;
+                recorded.close();
+                recorded = null;
+            }
+        }
+
+        /**
+         * 위치 없이 전달된 파일의 목록 내 위치를 찾습니다. 색인은 처음 필요할 때 한 번만 만듭니다.
+         * 서비스 스레드(onRenamed)와 UI 스레드(applyBatch) 양쪽에서 호출될 수 있어 동기화합니다.
+         */
+        private synchronized int positionOf(File oldFile) {
+            if (positions == null) {
+                positions = new HashMap<>(files.size() * 2);
+                for (int i = files.size() - 1; i >= 0; i--) {
+                    positions.put(files.get(i), i);
+                }
+            }
+            Integer index = positions.get(oldFile);
+            return index != null ? index : -1;
+        }
+
+        @Override
+        public void onExists(File newFile) {
+            enqueue(() -> {
+                processed++;
+                state.addLog("오류: " + newFile.getAbsolutePath() + " 파일이 이미 존재합니다. 건너뜀.");
+                logDirty = true;
+            });
+        }
+
+        @Override
+        public void onComplete(int count, RenameSummary summary) {
+            if (summary != null) {
+                enqueue(() -> state.addLog(summary.toLogString()));
+            }
+            onComplete(count);
+        }
+
+        @Override
+        public void onComplete(int count) {
+            enqueue(() -> {
+                if (cancelled.get()) {
+                    // 넘기지 못한 묶음이 있을 수 있으므로 중복 수는 알리지 않음
+                    state.addLog("작업이 취소되었습니다. 총 " + count + "개의 파일명이 변경되었습니다.");
+                } else {
+                    state.addLog("총 " + count + "개의 파일명이 변경되었습니다.");
+                }
+                finish();
+            });
+        }
+
+        @Override
+        public void onError(File file, Exception e) {
+            enqueue(() -> {
+                processed++;
+                state.addLog(e.getMessage());
+                logDirty = true;
+            });
+        }
+
+        private void finish() {
+            logDirty = true;
+            if (recorded != null) {
+                onRecorded.accept(recorded);
+                recorded = null;
+            }
+            if (currentJob == this) {
+                currentJob = null;
+                applyDeferredWatchBatches();
+            }
+            state.finishProgress();
+        }
+
+        /**
+         * 이벤트를 대기열에 넣고, 대기열이 비어 있었다면 UI 스레드에 반영 작업을 한 번 예약합니다.
+         * 반영 작업이 실행되기 전까지 쌓인 이벤트는 한 묶음으로 처리됩니다.
+         */
+        private void enqueue(Runnable event) {
+            boolean schedule;
+            synchronized (pendingLock) {
+                pending.add(event);
+                schedule = !flushScheduled;
+                flushScheduled = true;
+            }
+            if (schedule) {
+                uiExecutor.execute(this::flush);
+            }
+        }
+
+        private void flush() {
+            List<Runnable> batch;
+            synchronized (pendingLock) {
+                batch = pending;
+                pending = new ArrayList<>();
+                flushScheduled = false;
+            }
+            for (Runnable event : batch) {
+                event.run();
+            }
+            if (logDirty) {
+                logDirty = false;
+                notifyStateChanged(ResultType.LOG_MESSAGE);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            double filesPerSecond = elapsedNanos > 0 ? processed * 1_000_000_000.0 / elapsedNanos : 0;
+            state.updateProgress(processed, filesPerSecond);
+            notifyProgress();
         }
     }
 
     public enum ResultType {
         LIST_RELOAD,
         ON_FILE_RENAMED,
-        LOG_MESSAGE
+        LOG_MESSAGE,
+        // 패턴, 시작 번호, 정규식 규칙이 바뀌어 이름 변경 미리보기를 다시 계산해야 함
+        PREVIEW_CHANGED,
+        // 세션 복원으로 패턴과 시작 번호가 바뀌어 입력 필드를 상태에 맞춰야 함
+        SESSION_RESTORED
     }
 
     public void setListener(StateListener listener) {
@@ -104,5 +1085,43 @@ public class FileRenameViewModel {
 
     public interface StateListener {
         void onStateChanged(ResultType type, FileRenameState state);
+
+        // 아래 목록 변경 이벤트의 기본 구현은 전체 목록을 다시 그리도록 LIST_RELOAD 로 전달합니다.
+        // 구간은 ListDataEvent 와 같이 양 끝을 포함합니다.
+
+        /**
+         * fromIndex ~ toIndex 위치에 파일이 추가되었을 때 호출됩니다.
+         */
+        default void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+            onStateChanged(ResultType.LIST_RELOAD, state);
+        }
+
+        /**
+         * index 위치의 파일 하나가 다른 파일로 교체(이름 변경 등)되었을 때 호출됩니다.
+         */
+        default void onFileReplaced(int index, FileRenameState state) {
+            onStateChanged(ResultType.LIST_RELOAD, state);
+        }
+
+        /**
+         * fromIndex ~ toIndex 위치의 파일들이 교체되었을 때 호출됩니다. 여러 교체를 합쳐 전달할 때 사용합니다.
+         * 기본 구현은 구간 전체를 한 번의 LIST_RELOAD 로 알립니다.
+         */
+        default void onFilesReplaced(int fromIndex, int toIndex, FileRenameState state) {
+            onStateChanged(ResultType.LIST_RELOAD, state);
+        }
+
+        /**
+         * fromIndex ~ toIndex 위치의 파일이 제거되었을 때 호출됩니다. 인덱스는 제거 전 기준입니다.
+         */
+        default void onFilesRemoved(int fromIndex, int toIndex, FileRenameState state) {
+            onStateChanged(ResultType.LIST_RELOAD, state);
+        }
+
+        /**
+         * 이름 변경 작업의 진행 상황(처리한 파일 수, 초당 처리량, 실행 여부)이 바뀌었을 때 호출됩니다.
+         */
+        default void onProgress(FileRenameState state) {
+        }
     }
 }
@@ -0,0 +1,147 @@
+package org.example.cli;
+
+import org.example.domain.FileRenameServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRenameCliTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String input, String... args) {
+        FileRenameCli cli = new FileRenameCli(new FileRenameServiceImpl(),
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8));
+        return cli.run(args);
+    }
+
+    private String createFile(String name) throws IOException {
+        return Files.createFile(tempDir.resolve(name)).toString();
+    }
+
+    @Test
+    void newlineSeparatedInput_isRenamedAcrossChunksWithContinuousNumbers() throws IOException {
+        String input = createFile("a") + "\n" + createFile("b") + "\r\n\n" + createFile("c") + "\n";
+
+        int exitCode = run(input, "--pattern", "N[0-9].txt", "--start", "5", "--chunk-size", "2");
+
+        assertEquals(0, exitCode);
+        assertTrue(Files.exists(tempDir.resolve("N5.txt")));
+        assertTrue(Files.exists(tempDir.resolve("N6.txt")));
+        assertTrue(Files.exists(tempDir.resolve("N7.txt")));
+        String[] records = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, records.length);
+        assertEquals("RENAMED\t" + tempDir.resolve("a") + "\t" + tempDir.resolve("N5.txt"), records[0]);
+        assertEquals("COMPLETE\t3", records[3]);
+    }
+
+    @Test
+    void skippedMoveInsideChunk_doesNotChangeNumbersOfLaterChunks() throws IOException {
+        // y → A1_0 은 크기를 읽을 수 없는 A1_0(끊어진 링크)의 자리를 기다리다 건너뛰지만, 번호 1 은 이미 배정됨
+        String input = createFile("y") + "\n"
+                + Files.createSymbolicLink(tempDir.resolve("A1_0"), tempDir.resolve("gone")) + "\n"
+                + createFile("w") + "\n" + createFile("v") + "\n";
+
+        int exitCode = run(input, "--pattern", "A[n]_[size]", "--chunk-size", "2");
+
+        // 한 묶음으로 실행한 것과 같은 번호: w → A2_0, v → A3_0
+        assertEquals(1, exitCode);
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("RENAMED\t" + tempDir.resolve("w") + "\t" + tempDir.resolve("A2_0")), output);
+        assertTrue(output.contains("RENAMED\t" + tempDir.resolve("v") + "\t" + tempDir.resolve("A3_0")), output);
+        assertTrue(output.contains("EXISTS\t" + tempDir.resolve("A1_0")), output);
+        assertTrue(output.endsWith("COMPLETE\t2\n"), output);
+        assertTrue(Files.exists(tempDir.resolve("y")));
+    }
+
+    @Test
+    void nulSeparatedInput_allowsNewlinesInNamesAndTerminatesRecordsWithNul() throws IOException {
+        String input = createFile("line\nbreak") + "\0";
+
+        int exitCode = run(input, "-0", "-p", "X[0-9]");
+
+        assertEquals(0, exitCode);
+        assertTrue(Files.exists(tempDir.resolve("X1")));
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.endsWith("COMPLETE\t1\0"), output);
+    }
+
+    @Test
+    void existingTargetAndMissingSource_areReportedAndExitWithError() throws IOException {
+        createFile("N1");
+        String input = tempDir.resolve("missing") + "\n" + createFile("a") + "\n";
+
+        int exitCode = run(input, "--pattern", "N[0-9]");
+
+        assertEquals(1, exitCode);
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("EXISTS\t" + new File(tempDir.toFile(), "N1").getPath()), output);
+        assertTrue(output.contains("ERROR\t" + tempDir.resolve("missing")), output);
+    }
+
+    @Test
+    void moveTo_movesRenamedFilesIntoTargetDirectory() throws IOException {
+        Path target = Files.createDirectory(tempDir.resolve("out"));
+        String input = createFile("a") + "\n" + createFile("b") + "\n";
+
+        int exitCode = run(input, "--pattern", "M[0-9].txt", "--move-to", target.toString(), "--max-rate", "1048576");
+
+        assertEquals(0, exitCode);
+        assertTrue(Files.exists(target.resolve("M1.txt")));
+        assertTrue(Files.exists(target.resolve("M2.txt")));
+        assertFalse(Files.exists(tempDir.resolve("a")));
+        assertEquals(2, run("", "--pattern", "M[0-9]", "--move-to", tempDir.resolve("none").toString()));
+    }
+
+    @Test
+    void moveTo_otherFileSystem_reportsCopyProgress() throws IOException {
+        // 복사로 옮기려면 다른 파일 시스템의 폴더가 필요함 (Linux 의 /dev/shm 은 보통 tmpfs)
+        Path shm = Path.of("/dev/shm");
+        if (!Files.isDirectory(shm) || Files.getFileStore(shm).equals(Files.getFileStore(tempDir))) {
+            return;
+        }
+        Path target = Files.createTempDirectory(shm, "file-rename-cli");
+        try {
+            Path source = Files.write(tempDir.resolve("big.bin"), new byte[300_000]);
+
+            int exitCode = run(source + "\n", "--pattern", "B[0-9].bin", "--move-to", target.toString());
+
+            // 제한이 없으면 8MiB 단위로 복사하므로 이 파일은 한 번에 보내고 한 번 알림
+            assertEquals(0, exitCode);
+            String[] records = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals("PROGRESS\t" + source + "\t300000\t300000", records[0]);
+            assertEquals("RENAMED\t" + source + "\t" + target.resolve("B1.bin"), records[1]);
+            assertEquals("COMPLETE\t1", records[2]);
+            assertEquals(300_000, Files.size(target.resolve("B1.bin")));
+        } finally {
+            try (var entries = Files.list(target)) {
+                for (Path entry : (Iterable<Path>) entries::iterator) {
+                    Files.delete(entry);
+                }
+            }
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    void missingPattern_printsUsageWithExitCode2() {
+        assertEquals(2, run("", "--start", "1"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("--pattern"));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentDigestCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void digest_readsUnchangedFileOnceAndRehashesAfterChange() throws Exception {
+        ContentDigestCache cache = new ContentDigestCache(16);
+        Path path = Files.writeString(tempDir.resolve("a.txt"), "first");
+        File file = path.toFile();
+
+        byte[] first = cache.digest(file, attributes(path));
+        assertArrayEquals(first, cache.digest(file, attributes(path)));
+        assertEquals(1, cache.getHashCount());
+
+        Files.writeString(path, "second!");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 2_000));
+        assertNull(cache.getIfFresh(file, attributes(path)));
+        byte[] second = cache.digest(file, attributes(path));
+        assertFalse(MessageDigest.isEqual(first, second));
+        assertEquals(2, cache.getHashCount());
+        assertEquals(1, cache.size(), "같은 경로의 항목은 새 해시로 바뀌어야 합니다");
+    }
+
+    @Test
+    void digestAll_hashesMappedRegionsInParallelAndMatchesMessageDigest() throws Exception {
+        ContentDigestCache cache = new ContentDigestCache(16);
+        byte[] large = new byte[ContentDigestCache.MIN_MAP_BYTES * 5 + 17];
+        new Random(3).nextBytes(large);
+        File[] files = {
+                Files.write(tempDir.resolve("large.bin"), large).toFile(),
+                Files.write(tempDir.resolve("empty.bin"), new byte[0]).toFile(),
+                tempDir.resolve("missing.bin").toFile()
+        };
+
+        byte[][] digests = cache.digestAll(files);
+
+        MessageDigest expected = MessageDigest.getInstance("SHA-256");
+        assertArrayEquals(expected.digest(large), digests[0]);
+        assertArrayEquals(expected.digest(new byte[0]), digests[1]);
+        assertNull(digests[2], "읽을 수 없는 파일은 null 이어야 합니다");
+        assertArrayEquals(digests[0], cache.digestAsync(files[0]).join());
+        assertEquals(2, cache.getHashCount());
+        assertThrows(UncheckedIOException.class, () -> new FileAttributeCache(cache).digest(files[2]));
+    }
+
+    private static BasicFileAttributes attributes(Path path) throws Exception {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+}
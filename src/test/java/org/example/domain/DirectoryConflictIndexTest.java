@@ -0,0 +1,53 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryConflictIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void exists_shouldReadDirectoryOnceAndTrackMoves() throws Exception {
+        File a = Files.createFile(tempDir.resolve("a.txt")).toFile();
+        File b = tempDir.resolve("b.txt").toFile();
+        DirectoryConflictIndex index = new DirectoryConflictIndex();
+
+        assertTrue(index.exists(a));
+        assertFalse(index.exists(b));
+        assertEquals(1, index.getDirectoryCount());
+
+        // 스냅샷 이후 디스크에 생긴 파일은 보이지 않고, 기록한 이동만 반영됨
+        File late = Files.createFile(tempDir.resolve("late.txt")).toFile();
+        assertFalse(index.exists(late), "스냅샷 이후 생긴 파일");
+        index.recordMove(a, b);
+        assertFalse(index.exists(a), "비워진 이름");
+        assertTrue(index.exists(b), "점유된 이름");
+        assertEquals(1, index.getDirectoryCount());
+    }
+
+    @Test
+    void exists_followsCaseRuleProbedFromDirectory() throws Exception {
+        File lower = Files.createFile(tempDir.resolve("a.smi")).toFile();
+        File upper = tempDir.resolve("A.smi").toFile();
+        // 운영체제가 아니라 이 폴더가 대소문자를 구분하는지에 따름 (ext4 는 구분, APFS/NTFS 는 보통 구분하지 않음)
+        boolean caseInsensitive = Files.exists(upper.toPath());
+        DirectoryConflictIndex index = new DirectoryConflictIndex();
+
+        assertEquals(caseInsensitive, index.exists(upper));
+        assertEquals(caseInsensitive, index.keyOf(lower).equals(index.keyOf(upper)));
+    }
+
+    @Test
+    void exists_inMissingDirectory_shouldFallBackToFileCheck() {
+        File missing = tempDir.resolve("none").resolve("x.txt").toFile();
+        assertFalse(new DirectoryConflictIndex().exists(missing));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void watch_shouldDeliverNetChangesInOneDebouncedBatch() throws Exception {
+        Path kept = Files.writeString(tempDir.resolve("a.txt"), "a");
+        Files.writeString(tempDir.resolve("gone.txt"), "g");
+        BlockingQueue<DirectoryWatcher.Batch> batches = new LinkedBlockingQueue<>();
+        try (DirectoryWatcher watcher = new DirectoryWatcher(batches::add, 100)) {
+            assertTrue(watcher.watch(tempDir.toFile()));
+            assertFalse(watcher.watch(tempDir.toFile()));
+
+            Files.move(kept, tempDir.resolve("b.txt"));
+            Files.delete(tempDir.resolve("gone.txt"));
+            // 묶음 안에서 생겼다가 사라진 파일과 새 하위 폴더는 전달되지 않음
+            Files.delete(Files.writeString(tempDir.resolve("temp.tmp"), "t"));
+            Files.createDirectory(tempDir.resolve("sub"));
+
+            List<DirectoryWatcher.Change> changes = collect(batches, 3);
+            List<String> summary = new ArrayList<>();
+            for (DirectoryWatcher.Change change : changes) {
+                summary.add((change.created() ? "+" : "-") + change.file().getName());
+            }
+            assertEquals(3, summary.size(), summary.toString());
+            assertTrue(summary.containsAll(List.of("-a.txt", "+b.txt", "-gone.txt")), summary.toString());
+            assertEquals(tempDir.toAbsolutePath().resolve("b.txt").toFile(), find(changes, "b.txt").file());
+        }
+    }
+
+    private static List<DirectoryWatcher.Change> collect(BlockingQueue<DirectoryWatcher.Batch> batches, int expected)
+            throws InterruptedException {
+        List<DirectoryWatcher.Change> changes = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (changes.size() < expected && System.nanoTime() < deadline) {
+            DirectoryWatcher.Batch batch = batches.poll(100, TimeUnit.MILLISECONDS);
+            if (batch != null) {
+                changes.addAll(batch.changes());
+            }
+        }
+        // 늦게 도착하는 불필요한 변화가 없는지 잠시 더 확인
+        DirectoryWatcher.Batch extra = batches.poll(300, TimeUnit.MILLISECONDS);
+        if (extra != null) {
+            changes.addAll(extra.changes());
+        }
+        return changes;
+    }
+
+    private static DirectoryWatcher.Change find(List<DirectoryWatcher.Change> changes, String name) {
+        for (DirectoryWatcher.Change change : changes) {
+            if (change.file().getName().equals(name)) {
+                return change;
+            }
+        }
+        return fail("no change for " + name);
+    }
+
+    @Test
+    void watch_afterClose_shouldThrow() throws Exception {
+        DirectoryWatcher watcher = new DirectoryWatcher(batch -> { });
+        watcher.close();
+        File directory = tempDir.toFile();
+        assertThrows(IllegalStateException.class, () -> watcher.watch(directory));
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileMoverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void transfer_copiesContentReportsBytesAndDeletesSource() throws Exception {
+        Path source = Files.createDirectory(tempDir.resolve("src"));
+        Path target = Files.createDirectory(tempDir.resolve("dst"));
+        byte[] content = new byte[(int) FileMover.MAX_CHUNK_BYTES * 2 + 123];
+        new Random(7).nextBytes(content);
+        Path from = Files.write(source.resolve("big.bin"), content);
+        FileTime modified = FileTime.fromMillis(1_600_000_000_000L);
+        Files.setLastModifiedTime(from, modified);
+
+        List<long[]> progress = new ArrayList<>();
+        Path to = target.resolve("moved.bin");
+        FileMover.DEFAULT.transfer(from, to, (transferred, total) -> progress.add(new long[]{transferred, total}));
+
+        assertFalse(Files.exists(from));
+        assertArrayEquals(content, Files.readAllBytes(to));
+        assertEquals(modified, Files.getLastModifiedTime(to));
+        assertEquals(3, progress.size(), "덩어리마다 진행 상황을 알려야 합니다");
+        assertArrayEquals(new long[]{content.length, content.length}, progress.get(2));
+        try (Stream<Path> files = Files.list(target)) {
+            assertEquals(1, files.count(), "임시 파일이 남으면 안 됩니다");
+        }
+    }
+
+    @Test
+    void transfer_keepsSourceAndLeavesNoTemporaryWhenTargetAppears() throws Exception {
+        Path source = Files.createDirectory(tempDir.resolve("src"));
+        Path target = Files.createDirectory(tempDir.resolve("dst"));
+        Path from = Files.writeString(source.resolve("a.txt"), "원본");
+        Path to = Files.writeString(target.resolve("a.txt"), "다른 파일");
+
+        assertThrows(FileAlreadyExistsException.class, () -> FileMover.DEFAULT.transfer(from, to, (t, total) -> {
+        }));
+
+        assertEquals("원본", Files.readString(from));
+        assertEquals("다른 파일", Files.readString(to));
+        try (Stream<Path> files = Files.list(target)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void transfer_isPacedByByteRateBudgetSharedAcrossTransfers() throws Exception {
+        Path source = Files.createDirectory(tempDir.resolve("src"));
+        Path target = Files.createDirectory(tempDir.resolve("dst"));
+        // 초당 1 MiB 예산에서 최소 덩어리(64 KiB)씩 보내므로, 첫 덩어리 이후 4 덩어리는 예산을 기다려야 함
+        FileMover mover = new FileMover(2, 1L << 20);
+        Path first = Files.write(source.resolve("1.bin"), new byte[160 << 10]);
+        Path second = Files.write(source.resolve("2.bin"), new byte[160 << 10]);
+
+        long start = System.nanoTime();
+        mover.transfer(first, target.resolve("1.bin"), (t, total) -> {
+        });
+        mover.transfer(second, target.resolve("2.bin"), (t, total) -> {
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 200, "예산보다 빨리 보냈습니다: " + elapsedMillis + " ms");
+        assertEquals(160 << 10, Files.size(target.resolve("2.bin")));
+    }
+
+    @Test
+    void moveFiles_movesIntoTargetDirectoryAndSkipsExistingNames() throws Exception {
+        Path source = Files.createDirectory(tempDir.resolve("src"));
+        Path target = Files.createDirectory(tempDir.resolve("dst"));
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            files.add(Files.writeString(source.resolve("old" + i + ".txt"), "내용" + i).toFile());
+        }
+        Files.writeString(target.resolve("new4.txt"), "이미 있음");
+
+        List<String> renamed = new ArrayList<>();
+        List<File> exists = new ArrayList<>();
+        new ParallelFileRenameService(ForkJoinPool.commonPool(), new FileMover(2, FileMover.UNLIMITED))
+                .moveFiles(files, NameTemplate.compile("new[0-9].txt"), 1, target.toFile(),
+                        new FileRenameService.RenamingCallback() {
+                            @Override
+                            public void onRenamed(File oldFile, File newFile) {
+                                renamed.add(newFile.getName());
+                            }
+
+                            @Override
+                            public void onExists(File newFile) {
+                                exists.add(newFile);
+                            }
+
+                            @Override
+                            public void onComplete(int count) {
+                            }
+
+                            @Override
+                            public void onError(File file, Exception e) {
+                                fail(e.getMessage());
+                            }
+                        });
+
+        assertEquals(List.of(target.resolve("new4.txt").toFile()), exists);
+        assertEquals(3, renamed.size());
+        assertEquals("내용0", Files.readString(target.resolve("new1.txt")));
+        assertEquals("내용2", Files.readString(target.resolve("new3.txt")));
+        assertTrue(Files.exists(source.resolve("old3.txt")), "건너뛴 파일은 원래 자리에 남아야 합니다");
+        assertThrows(IllegalArgumentException.class, () -> new FileRenameServiceImpl().moveFiles(files,
+                NameTemplate.compile("x[0-9]"), 1, source.resolve("old0.txt").toFile(), null));
+    }
+}
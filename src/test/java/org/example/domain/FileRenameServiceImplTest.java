@@ -62,4 +62,42 @@ class FileRenameServiceImplTest {
         assertTrue(tempDir.resolve("renamed5.txt").toFile().exists(), "renamed5.txt 존재 여부");
         assertTrue(tempDir.resolve("renamed6.txt").toFile().exists(), "renamed6.txt 존재 여부");
     }
+
+    @Test
+    void renameFiles_sessionKeepsConflictIndexAcrossCalls() throws Exception {
+        File a = tempDir.resolve("a").toFile();
+        assertTrue(a.createNewFile());
+        FileRenameServiceImpl service = new FileRenameServiceImpl();
+        RenameSession session = new RenameSession(1);
+        var errors = new java.util.ArrayList<File>();
+        FileRenameService.RenamingCallback callback = new FileRenameService.RenamingCallback() {
+            @Override
+            public void onRenamed(File oldFile, File newFile) {
+            }
+
+            @Override
+            public void onExists(File newFile) {
+                fail("onExists는 호출되지 않아야 합니다: " + newFile);
+            }
+
+            @Override
+            public void onComplete(int count) {
+            }
+
+            @Override
+            public void onError(File file, Exception e) {
+                errors.add(file);
+            }
+        };
+
+        // 두 번째 호출은 폴더를 다시 읽지 않으므로, 첫 호출이 만든 N1 은 기록된 이동으로만 보임
+        service.renameFiles(List.of(a), NameTemplate.compile("N[0-9]"), session, callback);
+        service.renameFiles(List.of(tempDir.resolve("N1").toFile()), NameTemplate.compile("N[0-9]"), session, callback);
+
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(3, session.getNextNumber());
+        assertEquals(1, session.conflicts().getDirectoryCount());
+        assertTrue(tempDir.resolve("N2").toFile().exists());
+        assertFalse(session.conflicts().exists(tempDir.resolve("N1").toFile()));
+    }
 }
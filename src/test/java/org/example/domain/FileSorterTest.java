@@ -0,0 +1,76 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSorterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileSorter sorter = new FileSorter();
+
+    private static List<String> names(List<File> files, int[] order) {
+        List<String> names = new ArrayList<>();
+        for (int index : order) {
+            names.add(files.get(index).getName());
+        }
+        return names;
+    }
+
+    @Test
+    void naturalName_comparesDigitRunsNumerically() {
+        List<File> files = List.of(new File("d", "ep10.mkv"), new File("d", "ep2.mkv"), new File("d", "EP1.mkv"),
+                new File("d", "ep02.mkv"), new File("d", "ep.mkv"), new File("d", "ep100.mkv"));
+
+        int[] order = sorter.sortOrder(files, FileSortKey.NATURAL_NAME, false);
+
+        // ep02 와 ep2 는 키가 같으므로 원래 이름으로 순서를 정함
+        assertEquals(List.of("ep.mkv", "EP1.mkv", "ep02.mkv", "ep2.mkv", "ep10.mkv", "ep100.mkv"), names(files, order));
+    }
+
+    @Test
+    void naturalName_descendingAndDeterministicTieBreak() {
+        List<File> files = List.of(new File("b", "x1"), new File("a", "x1"), new File("a", "x2"));
+
+        int[] order = sorter.sortOrder(files, FileSortKey.NATURAL_NAME, true);
+
+        assertArrayEquals(new int[]{2, 1, 0}, order, "같은 이름은 경로 순으로 정렬되어야 합니다");
+    }
+
+    @Test
+    void size_andModifiedTime_useFileAttributesAndPutUnreadableLast() throws IOException {
+        File small = Files.write(tempDir.resolve("small"), new byte[1]).toFile();
+        File large = Files.write(tempDir.resolve("large"), new byte[100]).toFile();
+        File medium = Files.write(tempDir.resolve("medium"), new byte[10]).toFile();
+        File missing = tempDir.resolve("missing").toFile();
+        Files.setLastModifiedTime(small.toPath(), FileTime.fromMillis(3_000_000));
+        Files.setLastModifiedTime(large.toPath(), FileTime.fromMillis(1_000_000));
+        Files.setLastModifiedTime(medium.toPath(), FileTime.fromMillis(2_000_000));
+        List<File> files = List.of(missing, small, large, medium);
+
+        assertEquals(List.of("small", "medium", "large", "missing"),
+                names(files, sorter.sortOrder(files, FileSortKey.SIZE, false)));
+        assertEquals(List.of("large", "medium", "small", "missing"),
+                names(files, sorter.sortOrder(files, FileSortKey.SIZE, true)));
+        assertEquals(List.of("large", "medium", "small", "missing"),
+                names(files, sorter.sortOrder(files, FileSortKey.MODIFIED_TIME, false)));
+    }
+
+    @Test
+    void naturalKey_stripsLeadingZerosAndOrdersByDigitCount() {
+        assertEquals(FileSorter.naturalKey("a007"), FileSorter.naturalKey("A7"));
+        assertTrue(FileSorter.naturalKey("a9").compareTo(FileSorter.naturalKey("a10")) < 0);
+        assertTrue(FileSorter.naturalKey("a0").compareTo(FileSorter.naturalKey("a00001")) < 0);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameTemplateTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void format_shouldMatchReplaceFirstBehaviour() {
+        String[] patterns = {"A0[0-9].smi", "[0-9]", "plain.txt", "x[0-9]y[0-9]z", "", "[0-9"};
+        for (String pattern : patterns) {
+            NameTemplate template = NameTemplate.compile(pattern);
+            for (int number : new int[]{0, 7, 42, -3, Integer.MAX_VALUE}) {
+                String expected = pattern.replaceFirst("\\[0-9]", Integer.toString(number));
+                assertEquals(expected, template.format(number), pattern + " / " + number);
+            }
+        }
+    }
+
+    @Test
+    void format_withReusedBuffer_shouldResetBufferEachTime() {
+        NameTemplate template = NameTemplate.compile("ep[0-9].mkv");
+        StringBuilder buffer = new StringBuilder();
+        assertEquals("ep1.mkv", template.format(buffer, 1));
+        assertEquals("ep10.mkv", template.format(buffer, 10));
+    }
+
+    @Test
+    void hasCounter_shouldReflectCounterSlot() {
+        assertTrue(NameTemplate.compile("a[0-9]").hasCounter());
+        assertFalse(NameTemplate.compile("a.txt").hasCounter());
+    }
+
+    @Test
+    void compile_null_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> NameTemplate.compile(null));
+    }
+
+    @Test
+    void format_paddedCounter_shouldZeroFillToWidth() {
+        NameTemplate template = NameTemplate.compile("ep[n:3].mkv");
+        assertEquals("ep007.mkv", template.format(7));
+        assertEquals("ep1234.mkv", template.format(1234));
+        assertEquals("ep-07.mkv", template.format(-7));
+        assertEquals("ep7.mkv", NameTemplate.compile("ep[n].mkv").format(7));
+    }
+
+    @Test
+    void format_nameTokens_shouldUseSourceFile() {
+        NameTemplate template = NameTemplate.compile("[parent]_[name]_[n:2][ext]");
+        File file = new File(new File("shows", "season1"), "episode.final.mkv");
+        StringBuilder buffer = new StringBuilder();
+
+        assertEquals("season1_episode.final_05.mkv", template.format(buffer, 5, file, null));
+        assertEquals(".bashrc", NameTemplate.compile("[name][ext]").format(buffer, 1, new File(".bashrc"), null));
+        assertEquals("README", NameTemplate.compile("[name][ext]").format(buffer, 1, new File("README"), null));
+        assertTrue(template.needsFile());
+        assertFalse(template.needsAttributes());
+    }
+
+    @Test
+    void format_unknownTokensAndInvalidDateFormats_shouldStayLiteral() {
+        for (String pattern : new String[]{"[abc]_[0-9]", "[n:0][n:99]", "[date:{]", "[[n]]"}) {
+            NameTemplate template = NameTemplate.compile(pattern);
+            assertFalse(template.needsFile(), pattern);
+        }
+        assertEquals("[abc]_4", NameTemplate.compile("[abc]_[0-9]").format(4));
+        assertEquals("[3]", NameTemplate.compile("[[n]]").format(3));
+        assertEquals("[date:{]", NameTemplate.compile("[date:{]").format(1));
+    }
+
+    @Test
+    void format_dateAndSize_shouldReadAttributesOncePerFile() throws Exception {
+        File file = Files.writeString(tempDir.resolve("clip.mp4"), "12345").toFile();
+        LocalDateTime modified = LocalDateTime.of(2024, 3, 9, 14, 30);
+        Files.setLastModifiedTime(file.toPath(), FileTime.from(modified.atZone(ZoneId.systemDefault()).toInstant()));
+        NameTemplate template = NameTemplate.compile("[date]_[date:HHmm]_[size]b[ext]");
+        FileAttributeCache attributes = new FileAttributeCache();
+        StringBuilder buffer = new StringBuilder();
+
+        assertTrue(template.needsAttributes());
+        assertEquals("20240309_1430_5b.mp4", template.format(buffer, 1, file, attributes));
+        assertEquals("20240309_1430_5b.mp4", template.format(buffer, 2, file, attributes));
+        assertEquals(1, attributes.getReadCount());
+    }
+
+    @Test
+    void format_hashTokens_shouldUseContentDigest() throws Exception {
+        // SHA-256("abc") = ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad
+        File file = Files.writeString(tempDir.resolve("sub.smi"), "abc").toFile();
+        NameTemplate template = NameTemplate.compile("[hash8][ext]_[hash:12]");
+        StringBuilder buffer = new StringBuilder();
+
+        assertTrue(template.needsContent());
+        assertFalse(NameTemplate.compile("[size]").needsContent());
+        assertEquals("ba7816bf.smi_ba7816bf8f01", template.format(buffer, 1, file, new FileAttributeCache()));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                NameTemplate.compile("[hash]").format(buffer, 1, file, new FileAttributeCache()));
+        assertEquals("[hash:0][hash:65]", NameTemplate.compile("[hash:0][hash:65]").format(1));
+    }
+
+    @Test
+    void format_fileTokensWithoutFile_shouldThrow() {
+        assertThrows(IllegalStateException.class, () -> NameTemplate.compile("[name]").format(1));
+        assertThrows(IllegalStateException.class,
+                () -> NameTemplate.compile("[size]").format(new StringBuilder(), 1, new File("a"), null));
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelFileRenameServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void renameFiles_shouldAssignSameNumbersAsSequentialAcrossDirectories() throws Exception {
+        // 준비: 두 디렉토리에 파일을 번갈아 배치
+        Path dirA = Files.createDirectory(tempDir.resolve("a"));
+        Path dirB = Files.createDirectory(tempDir.resolve("b"));
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Path dir = (i % 2 == 0) ? dirA : dirB;
+            files.add(Files.createFile(dir.resolve("old" + i + ".txt")).toFile());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            RecordingCallback callback = new RecordingCallback();
+            new ParallelFileRenameService(executor).renameFiles(files, "new[0-9].txt", 1, callback);
+
+            assertEquals(1, callback.completeCalls, "onComplete는 한 번만 호출되어야 합니다");
+            assertEquals(6, callback.completedCount);
+            assertEquals(6, callback.renamed.size());
+            for (int i = 0; i < 6; i++) {
+                File newFile = callback.renamed.get(files.get(i));
+                assertEquals("new" + (i + 1) + ".txt", newFile.getName());
+                assertTrue(newFile.exists(), newFile + " 존재 여부");
+                assertFalse(files.get(i).exists(), files.get(i) + " 삭제 여부");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void renameFiles_shouldSkipExistingTargetWithoutConsumingNumber() throws Exception {
+        File oldFile1 = Files.createFile(tempDir.resolve("old1.txt")).toFile();
+        File oldFile2 = Files.createFile(tempDir.resolve("old2.txt")).toFile();
+        Files.createFile(tempDir.resolve("new1.txt"));
+
+        RecordingCallback callback = new RecordingCallback();
+        new ParallelFileRenameService().renameFiles(List.of(oldFile1, oldFile2), "new[0-9].txt", 1, callback);
+
+        // new1.txt 가 이미 있으므로 두 파일 모두 건너뜀 (순차 구현과 동일)
+        assertEquals(2, callback.exists.size());
+        assertTrue(callback.renamed.isEmpty());
+        assertEquals(0, callback.completedCount);
+        assertTrue(oldFile1.exists());
+        assertTrue(oldFile2.exists());
+    }
+
+    @Test
+    void close_shutsDownOnlyOwnedPool() throws Exception {
+        File oldFile = Files.createFile(tempDir.resolve("old.txt")).toFile();
+        ParallelFileRenameService owned = ParallelFileRenameService.withParallelism(2);
+        owned.close();
+        assertThrows(RejectedExecutionException.class,
+                () -> owned.renameFiles(List.of(oldFile), "new[0-9].txt", 1, new RecordingCallback()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelFileRenameService borrowed = new ParallelFileRenameService(executor);
+            borrowed.close();
+            assertFalse(executor.isShutdown(), "호출자가 넘긴 풀은 종료하면 안 됩니다");
+            RecordingCallback callback = new RecordingCallback();
+            borrowed.renameFiles(List.of(oldFile), "new[0-9].txt", 1, callback);
+            assertEquals(1, callback.completedCount);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class RecordingCallback implements FileRenameService.RenamingCallback {
+        final Map<File, File> renamed = new HashMap<>();
+        final List<File> exists = new ArrayList<>();
+        int completeCalls;
+        int completedCount;
+
+        @Override
+        public void onRenamed(File oldFile, File newFile) {
+            renamed.put(oldFile, newFile);
+        }
+
+        @Override
+        public void onExists(File newFile) {
+            exists.add(newFile);
+        }
+
+        @Override
+        public void onComplete(int count) {
+            completeCalls++;
+            completedCount = count;
+        }
+
+        @Override
+        public void onError(File file, Exception e) {
+            fail("onError는 호출되지 않아야 합니다: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecursiveFileCollectorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void collect_shouldWalkRecursivelyInChunksWithFilters() throws Exception {
+        Path sub = Files.createDirectories(tempDir.resolve("a/b"));
+        Path backup = Files.createDirectories(tempDir.resolve("a/backup"));
+        Files.createFile(tempDir.resolve("1.smi"));
+        Files.createFile(tempDir.resolve("2.txt"));
+        Files.createFile(sub.resolve("3.smi"));
+        Files.createFile(sub.resolve("4.smi"));
+        Files.createFile(backup.resolve("5.smi"));
+
+        List<List<File>> chunks = new ArrayList<>();
+        int total = new RecursiveFileCollector(2).collect(List.of(tempDir.toFile()), "*.smi", "backup",
+                chunk -> chunks.add(List.copyOf(chunk)), () -> false);
+
+        assertEquals(3, total);
+        assertEquals(2, chunks.size(), "2개씩 묶여 전달되어야 합니다");
+        Set<String> names = new TreeSet<>();
+        chunks.forEach(chunk -> chunk.forEach(file -> names.add(file.getName())));
+        assertEquals(Set.of("1.smi", "3.smi", "4.smi"), names);
+    }
+
+    @Test
+    void collect_regularFileRoot_shouldBePassedThrough() throws Exception {
+        File file = Files.createFile(tempDir.resolve("x.txt")).toFile();
+        List<File> collected = new ArrayList<>();
+        int total = new RecursiveFileCollector().collect(List.of(file), "*.smi", "", collected::addAll, () -> false);
+
+        assertEquals(1, total);
+        assertEquals(List.of(file), collected);
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenameBatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<File> createFiles(int count) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(Files.createFile(tempDir.resolve("f" + i)).toFile());
+        }
+        return files;
+    }
+
+    @Test
+    void batchCallback_receivesResultsInChunksBeforeComplete() throws IOException {
+        List<File> files = createFiles(5);
+        RecordingBatchCallback callback = new RecordingBatchCallback(2);
+
+        new FileRenameServiceImpl().renameFiles(files, "x-[0-9]", 1, callback);
+
+        assertEquals(List.of(2, 2, 1), callback.batchSizes);
+        assertEquals(5, callback.renamed);
+        assertEquals(5, callback.completedCount);
+        assertTrue(callback.completedAfterBatches);
+    }
+
+    @Test
+    void batch_carriesIndicesAndStatuses() throws IOException {
+        List<File> files = createFiles(2);
+        Files.createFile(tempDir.resolve("y1"));
+        RecordingBatchCallback callback = new RecordingBatchCallback(10);
+
+        new FileRenameServiceImpl().renameFiles(files, "y[0-9]", 1, callback);
+
+        RenameBatch batch = callback.batches.get(0);
+        assertEquals(RenameBatch.EXISTS, batch.status(0));
+        assertEquals(new File(tempDir.toFile(), "y1"), batch.newFile(0));
+        assertEquals(RenameBatch.EXISTS, batch.status(1), "번호가 진행되지 않으므로 두 번째 파일도 y1 을 만남");
+        assertEquals(0, batch.count(RenameBatch.RENAMED));
+    }
+
+    @Test
+    void parallelService_deliversEveryResultExactlyOnce() throws IOException {
+        List<File> files = createFiles(50);
+        RecordingBatchCallback callback = new RecordingBatchCallback(7);
+
+        try (ParallelFileRenameService service = ParallelFileRenameService.withParallelism(4)) {
+            service.renameFiles(files, "p[0-9]", 1, callback);
+        }
+
+        assertEquals(50, callback.renamed);
+        assertEquals(50, callback.batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(callback.batchSizes.stream().allMatch(size -> size <= 7));
+    }
+
+    @Test
+    void plainCallback_stillReceivesPerFileCalls() throws IOException {
+        List<File> files = createFiles(3);
+        List<File> renamed = new ArrayList<>();
+
+        new FileRenameServiceImpl().renameFiles(files, "z[0-9]", 1, new FileRenameService.RenamingCallback() {
+            @Override
+            public void onRenamed(File oldFile, File newFile) {
+                renamed.add(newFile);
+            }
+
+            @Override
+            public void onExists(File newFile) {
+            }
+
+            @Override
+            public void onComplete(int count) {
+            }
+
+            @Override
+            public void onError(File file, Exception e) {
+            }
+        });
+
+        assertEquals(3, renamed.size());
+    }
+
+    @Test
+    void deliverTo_unpacksBatchIntoPerFileCalls() {
+        RenameBatch batch = new RenameBatch(3);
+        batch.addRenamed(4, new File("a"), new File("b"));
+        batch.addExists(new File("c"));
+        batch.addError(new File("d"), new Exception("boom"));
+        List<String> calls = new ArrayList<>();
+
+        batch.deliverTo(new FileRenameService.RenamingCallback() {
+            @Override
+            public void onRenamed(File oldFile, File newFile) {
+                calls.add("renamed " + oldFile + " " + newFile);
+            }
+
+            @Override
+            public void onRenamed(int index, File oldFile, File newFile) {
+                calls.add("renamed@" + index + " " + oldFile + " " + newFile);
+            }
+
+            @Override
+            public void onExists(File newFile) {
+                calls.add("exists " + newFile);
+            }
+
+            @Override
+            public void onComplete(int count) {
+            }
+
+            @Override
+            public void onError(File file, Exception e) {
+                calls.add("error " + file + " " + e.getMessage());
+            }
+        });
+
+        assertEquals(List.of("renamed@4 a b", "exists c", "error d boom"), calls);
+        assertTrue(batch.isFull());
+    }
+
+    private static class RecordingBatchCallback implements BatchRenamingCallback {
+        final int batchSize;
+        final List<RenameBatch> batches = new ArrayList<>();
+        final List<Integer> batchSizes = new ArrayList<>();
+        int renamed;
+        int completedCount = -1;
+        boolean completedAfterBatches;
+
+        RecordingBatchCallback(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public void onBatch(RenameBatch batch) {
+            assertEquals(-1, completedCount, "onComplete 이후에는 묶음이 오지 않아야 합니다");
+            batches.add(batch);
+            batchSizes.add(batch.size());
+            renamed += batch.count(RenameBatch.RENAMED);
+        }
+
+        @Override
+        public void onComplete(int count) {
+            completedCount = count;
+            completedAfterBatches = !batches.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenameJournalTest {
+
+    @Test
+    void replay_returnsCurrentFilesAndOldNames() throws IOException {
+        RenameJournal journal = new RenameJournal();
+        RenameJournal.Batch batch = journal.newBatch();
+        batch.record(new File("photos", "IMG_0001.jpg"), new File("photos", "trip_001.jpg"));
+        batch.record(new File("photos", "IMG_0002.jpg"), new File("photos", "trip_002.jpg"));
+        batch.record(new File("자막", "에피소드.smi"), new File("자막", "E01.smi"));
+        batch.record(new File("same.txt"), new File("same.txt"));
+        batch.record(new File("a", "x"), new File("a", "longer-name"));
+
+        RenameJournal.Replay replay = batch.replay();
+
+        assertEquals(List.of(new File("photos", "trip_001.jpg"), new File("photos", "trip_002.jpg"),
+                new File("자막", "E01.smi"), new File("same.txt"), new File("a", "longer-name")), replay.sources());
+        RenameNamer.Session session = replay.open();
+        assertEquals("IMG_0001.jpg", session.name(0, replay.sources().get(0), 0));
+        assertEquals("IMG_0002.jpg", session.name(1, replay.sources().get(1), 0));
+        assertEquals("에피소드.smi", session.name(2, replay.sources().get(2), 0));
+        assertEquals("same.txt", session.name(3, replay.sources().get(3), 0));
+        assertEquals("x", session.name(4, replay.sources().get(4), 0));
+        assertFalse(replay.hasCounter());
+    }
+
+    @Test
+    void largeBatch_spillsToFileAndStaysCompact() throws IOException {
+        RenameJournal journal = new RenameJournal(RenameJournal.DEFAULT_MAX_BATCHES, 4096);
+        RenameJournal.Batch batch = journal.newBatch();
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            String number = String.format("%05d", i);
+            batch.record(new File("dir" + (i / 5_000), "IMG_" + number + ".jpg"),
+                    new File("dir" + (i / 5_000), "trip_" + number + ".jpg"));
+        }
+
+        assertTrue(batch.isSpilled());
+        assertTrue(batch.getByteSize() < count * 12L, "항목당 몇 바이트만 써야 합니다: " + batch.getByteSize());
+        RenameJournal.Replay replay = batch.replay();
+        assertEquals(count, replay.size());
+        assertEquals(new File("dir3", "trip_19999.jpg"), replay.sources().get(count - 1));
+        assertEquals("IMG_12345.jpg", replay.oldName(12_345));
+        batch.close();
+    }
+
+    @Test
+    void stacks_dropEmptyBatchesAndKeepMostRecent() {
+        RenameJournal journal = new RenameJournal(2, RenameJournal.DEFAULT_SPILL_BYTES);
+        journal.pushUndo(journal.newBatch());
+        assertEquals(0, journal.getUndoCount(), "바뀐 파일이 없는 작업은 보관하지 않습니다");
+
+        RenameJournal.Batch[] batches = new RenameJournal.Batch[3];
+        for (int i = 0; i < batches.length; i++) {
+            batches[i] = journal.newBatch();
+            batches[i].record(new File("d", "a" + i), new File("d", "b" + i));
+            journal.pushUndo(batches[i]);
+        }
+        assertEquals(2, journal.getUndoCount());
+        assertSame(batches[2], journal.pollUndo());
+        journal.pushRedo(batches[2]);
+        assertEquals(1, journal.getRedoCount());
+        journal.clearRedo();
+        assertNull(journal.pollRedo());
+        assertSame(batches[1], journal.pollUndo());
+        assertNull(journal.pollUndo());
+    }
+}
@@ -0,0 +1,295 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenamePlannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void renameFiles_shouldRotateSeriesInPlaceWithoutSkipping() throws Exception {
+        // A1..A2000 → A2..A2001 : 모든 대상이 다음 파일의 원본과 겹치는 체인
+        List<File> files = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            File file = Files.createFile(tempDir.resolve("A" + i)).toFile();
+            Files.writeString(file.toPath(), "content" + i);
+            files.add(file);
+        }
+
+        Result result = run(new FileRenameServiceImpl(), files, "A[0-9]", 2);
+
+        assertEquals(2000, result.count);
+        assertTrue(result.exists.isEmpty(), "건너뛴 파일이 없어야 합니다");
+        assertFalse(tempDir.resolve("A1").toFile().exists());
+        for (int i = 1; i <= 2000; i++) {
+            assertEquals("content" + i, Files.readString(tempDir.resolve("A" + (i + 1))));
+        }
+    }
+
+    @Test
+    void renameFiles_shouldSwapTwoNamesOnParallelEngine() throws Exception {
+        // 입력 순서 x2, x1 에 1부터 번호를 배정하면 x2 → x1, x1 → x2 로 서로 맞바뀜
+        File x2 = Files.writeString(tempDir.resolve("x2"), "was2").toFile();
+        File x1 = Files.writeString(tempDir.resolve("x1"), "was1").toFile();
+
+        Result result = run(new ParallelFileRenameService(), List.of(x2, x1), "x[0-9]", 1);
+
+        assertEquals(2, result.count);
+        assertEquals("was2", Files.readString(tempDir.resolve("x1")));
+        assertEquals("was1", Files.readString(tempDir.resolve("x2")));
+    }
+
+    @Test
+    void renameFiles_shouldBreakCycleAndLeaveNoTemporaryFiles() throws Exception {
+        // c1 → c2, c2 → c3, c3 → c1 을 만들기 위해 입력 순서를 c3, c1, c2 로 두고 1부터 번호 배정
+        File c3 = Files.writeString(tempDir.resolve("c3"), "was3").toFile();
+        File c1 = Files.writeString(tempDir.resolve("c1"), "was1").toFile();
+        File c2 = Files.writeString(tempDir.resolve("c2"), "was2").toFile();
+
+        Result result = run(new FileRenameServiceImpl(), List.of(c3, c1, c2), "c[0-9]", 1);
+
+        assertEquals(3, result.count);
+        assertTrue(result.exists.isEmpty());
+        assertEquals("was3", Files.readString(tempDir.resolve("c1")));
+        assertEquals("was1", Files.readString(tempDir.resolve("c2")));
+        assertEquals("was2", Files.readString(tempDir.resolve("c3")));
+        try (var entries = Files.list(tempDir)) {
+            assertEquals(3, entries.count(), "임시 파일이 남지 않아야 합니다");
+        }
+    }
+
+    @Test
+    void renameFiles_blockedChain_shouldSkipDependentMoves() throws Exception {
+        // b1 → b2 를 원하지만 b2 → b3 는 배치 밖의 b3 때문에 건너뛰므로 b1 도 건너뜀
+        File b1 = Files.createFile(tempDir.resolve("b1")).toFile();
+        File b2 = Files.createFile(tempDir.resolve("b2")).toFile();
+        Files.createFile(tempDir.resolve("b3"));
+
+        Result result = run(new FileRenameServiceImpl(), List.of(b1, b2), "b[0-9]", 2);
+
+        assertEquals(0, result.count);
+        assertEquals(2, result.exists.size());
+        assertTrue(b1.exists());
+        assertTrue(b2.exists());
+    }
+
+    @Test
+    void renameFiles_shouldApplyTokensAndReportUnreadableAttributes() throws Exception {
+        File first = Files.writeString(tempDir.resolve("intro.srt"), "1").toFile();
+        File second = Files.writeString(tempDir.resolve("outro.srt"), "22").toFile();
+
+        Result result = run(new FileRenameServiceImpl(), List.of(first, second), "[name]_[n:2][ext]", 1);
+
+        assertEquals(2, result.count);
+        assertEquals("1", Files.readString(tempDir.resolve("intro_01.srt")));
+        assertEquals("22", Files.readString(tempDir.resolve("outro_02.srt")));
+
+        // 속성을 읽을 수 없는 파일은 오류로 알리고 번호를 소비하지 않음
+        File missing = tempDir.resolve("missing.srt").toFile();
+        File sized = tempDir.resolve("intro_01.srt").toFile();
+        List<File> errors = new ArrayList<>();
+        List<String> renamed = new ArrayList<>();
+        new FileRenameServiceImpl().renameFiles(List.of(missing, sized), "s[n]_[size]", 1,
+                new FileRenameService.RenamingCallback() {
+                    @Override
+                    public void onRenamed(File oldFile, File newFile) {
+                        renamed.add(newFile.getName());
+                    }
+
+                    @Override
+                    public void onExists(File newFile) {
+                    }
+
+                    @Override
+                    public void onComplete(int count) {
+                    }
+
+                    @Override
+                    public void onError(File file, Exception e) {
+                        errors.add(file);
+                    }
+                });
+        assertEquals(List.of(missing), errors);
+        assertEquals(List.of("s1_1"), renamed);
+    }
+
+    @Test
+    void renameFiles_missingSourceDoesNotBlockFileTakingItsName() throws Exception {
+        // 목록이 디스크보다 오래되어 A01 이 이미 없는 경우, x 는 비어 있는 A01 을 받아야 함 (목록 순서와 무관)
+        for (boolean missingFirst : new boolean[]{true, false}) {
+            File missing = tempDir.resolve("A01").toFile();
+            File x = Files.writeString(tempDir.resolve("x"), "x").toFile();
+            List<File> errors = new ArrayList<>();
+            List<File> exists = new ArrayList<>();
+            int[] completed = {-1};
+            new FileRenameServiceImpl().renameFiles(missingFirst ? List.of(missing, x) : List.of(x, missing), "A0[0-9]", 1,
+                    new FileRenameService.RenamingCallback() {
+                        @Override
+                        public void onRenamed(File oldFile, File newFile) {
+                        }
+
+                        @Override
+                        public void onExists(File newFile) {
+                            exists.add(newFile);
+                        }
+
+                        @Override
+                        public void onComplete(int count) {
+                            completed[0] = count;
+                        }
+
+                        @Override
+                        public void onError(File file, Exception e) {
+                            errors.add(file);
+                        }
+                    });
+
+            assertEquals(List.of(missing), errors);
+            assertTrue(exists.isEmpty(), "없는 파일 때문에 충돌로 건너뛰면 안 됩니다: " + exists);
+            assertEquals(1, completed[0]);
+            assertEquals("x", Files.readString(missing.toPath()));
+            Files.delete(missing.toPath());
+        }
+    }
+
+    @Test
+    void execute_failedMoveInsideCycle_restoresOriginalNamesAndReportsEveryFile() throws Exception {
+        // c1 → c2, c2 → c3, c3 → c1 순환을 계획한 뒤, 실행 전에 c1 이 사라져
+        // c2 → c3 까지 옮긴 뒤 c1 → c2 이동이 실패하도록 함
+        File c3 = Files.writeString(tempDir.resolve("c3"), "was3").toFile();
+        File c1 = Files.writeString(tempDir.resolve("c1"), "was1").toFile();
+        File c2 = Files.writeString(tempDir.resolve("c2"), "was2").toFile();
+        List<File> errors = new ArrayList<>();
+        List<File> renamed = new ArrayList<>();
+        FileRenameService.RenamingCallback callback = new FileRenameService.RenamingCallback() {
+            @Override
+            public void onRenamed(File oldFile, File newFile) {
+                renamed.add(oldFile);
+            }
+
+            @Override
+            public void onExists(File newFile) {
+                fail("충돌이 없어야 합니다: " + newFile);
+            }
+
+            @Override
+            public void onComplete(int count) {
+            }
+
+            @Override
+            public void onError(File file, Exception e) {
+                errors.add(file);
+            }
+        };
+        RenamePlan plan = new RenamePlanner().plan(List.of(c3, c1, c2), NameTemplate.compile("c[0-9]"), 1, callback);
+        assertEquals(1, plan.getGroups().size());
+        Files.delete(c1.toPath());
+
+        AtomicInteger count = new AtomicInteger();
+        plan.execute(plan.getGroups().get(0), FileMover.DEFAULT, callback, new Object(), count);
+
+        assertEquals(0, count.get());
+        assertTrue(renamed.isEmpty(), "되돌린 순환의 파일은 변경된 것으로 알리면 안 됩니다");
+        assertEquals(3, errors.size());
+        assertTrue(errors.containsAll(List.of(c1, c2, c3)));
+        assertEquals("was3", Files.readString(c3.toPath()));
+        assertEquals("was2", Files.readString(c2.toPath()));
+        try (var entries = Files.list(tempDir)) {
+            assertEquals(2, entries.count(), "임시 파일이 남지 않아야 합니다");
+        }
+    }
+
+    @Test
+    void execute_recordsExecutedMovesInConflictIndex() throws Exception {
+        // c1 → c2 → c3 체인과, 도중에 실패해 되돌린 e3 → e1 → e2 → e3 순환
+        File c1 = Files.writeString(tempDir.resolve("c1"), "1").toFile();
+        File c2 = Files.writeString(tempDir.resolve("c2"), "2").toFile();
+        Path other = Files.createDirectory(tempDir.resolve("other"));
+        File e3 = Files.writeString(other.resolve("e3"), "3").toFile();
+        File e1 = Files.writeString(other.resolve("e1"), "1").toFile();
+        File e2 = Files.writeString(other.resolve("e2"), "2").toFile();
+        List<File> errors = new ArrayList<>();
+        FileRenameService.RenamingCallback callback = new FileRenameService.RenamingCallback() {
+            @Override
+            public void onRenamed(File oldFile, File newFile) {
+            }
+
+            @Override
+            public void onExists(File newFile) {
+                fail("충돌이 없어야 합니다: " + newFile);
+            }
+
+            @Override
+            public void onComplete(int count) {
+            }
+
+            @Override
+            public void onError(File file, Exception e) {
+                errors.add(file);
+            }
+        };
+        DirectoryConflictIndex conflicts = new DirectoryConflictIndex();
+        RenamePlanner planner = new RenamePlanner();
+        RenamePlan chain = planner.plan(List.of(c1, c2), NameTemplate.compile("c[0-9]"), 2, null, conflicts, callback);
+        RenamePlan cycle = planner.plan(List.of(e3, e1, e2), NameTemplate.compile("e[0-9]"), 1, null, conflicts, callback);
+        Files.delete(e1.toPath());
+
+        AtomicInteger count = new AtomicInteger();
+        for (RenamePlan plan : List.of(chain, cycle)) {
+            for (List<RenamePlan.Step> group : plan.getGroups()) {
+                plan.execute(group, FileMover.DEFAULT, callback, new Object(), count);
+            }
+        }
+
+        assertEquals(2, count.get());
+        assertEquals(3, errors.size());
+        assertFalse(conflicts.exists(c1), "비워진 이름");
+        assertTrue(conflicts.exists(c2));
+        assertTrue(conflicts.exists(tempDir.resolve("c3").toFile()));
+        // 되돌린 순환의 파일은 원래 이름에 있고 임시 이름은 남지 않음
+        assertTrue(conflicts.exists(e3));
+        assertTrue(conflicts.exists(e2));
+        assertFalse(conflicts.exists(new File(other.toFile(), ".e3.rename-0.tmp")));
+    }
+
+    private static Result run(FileRenameService service, List<File> files, String pattern, int start) {
+        Result result = new Result();
+        service.renameFiles(files, pattern, start, new FileRenameService.RenamingCallback() {
+            @Override
+            public void onRenamed(File oldFile, File newFile) {
+            }
+
+            @Override
+            public void onExists(File newFile) {
+                result.exists.add(newFile);
+            }
+
+            @Override
+            public void onComplete(int count) {
+                result.count = count;
+            }
+
+            @Override
+            public void onError(File file, Exception e) {
+                fail("onError는 호출되지 않아야 합니다: " + e.getMessage());
+            }
+        });
+        return result;
+    }
+
+    private static class Result {
+        final List<File> exists = new ArrayList<>();
+        int count;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenameRuleChainTest {
+
+    @Test
+    void apply_shouldRunRulesInOrderOnWholeName() {
+        RenameRuleChain chain = RenameRuleChain.compile(List.of(
+                new RenameRule("S01E(\\d+)", "Episode $1"),
+                new RenameRule("\\.", "_"),
+                new RenameRule("_mkv$", ".mkv")));
+
+        assertEquals("Show_Episode 07.mkv", chain.apply("Show.S01E07.mkv"));
+        assertEquals("plain", chain.apply("plain"));
+        assertFalse(chain.hasCounter());
+    }
+
+    @Test
+    void compile_sameRules_shouldReturnCachedChain() {
+        List<RenameRule> rules = List.of(new RenameRule("a", "b"));
+        RenameRuleChain first = RenameRuleChain.compile(rules);
+
+        assertSame(first, RenameRuleChain.compile(new ArrayList<>(rules)));
+        assertNotSame(first, RenameRuleChain.compile(List.of(new RenameRule("a", "c"))));
+    }
+
+    @Test
+    void compile_invalidRules_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> RenameRuleChain.compile(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> RenameRuleChain.compile(List.of(new RenameRule("(", "x"))));
+        assertThrows(IllegalArgumentException.class, () -> new RenameRule("", "x"));
+    }
+
+    @Test
+    void open_withSources_shouldMatchSequentialResultAcrossChunks() {
+        RenameRuleChain chain = RenameRuleChain.compile(List.of(new RenameRule("^clip(\\d+)", "video-$1")));
+        int size = RenameRuleChain.CHUNK_SIZE * 2 + 17;
+        File[] sources = new File[size];
+        for (int i = 0; i < size; i++) {
+            sources[i] = new File("dir", "clip" + i + ".mp4");
+        }
+
+        RenameNamer.Session session = chain.open(sources);
+
+        for (int i = 0; i < size; i++) {
+            assertEquals("video-" + i + ".mp4", session.name(i, sources[i], 0));
+        }
+    }
+
+    @Test
+    void session_shouldRejectEmptyNamesAndBadGroupReferences() {
+        File file = new File("dir", "abc");
+        RenameNamer.Session emptying = RenameRuleChain.compile(List.of(new RenameRule(".*", ""))).open();
+        RenameNamer.Session badGroup = RenameRuleChain.compile(List.of(new RenameRule("a", "$3"))).open(new File[]{file});
+
+        assertThrows(IllegalArgumentException.class, () -> emptying.name(0, file, 1));
+        assertThrows(IllegalArgumentException.class, () -> badGroup.name(0, file, 1));
+    }
+}
@@ -3,6 +3,7 @@ package org.example.intent;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -38,4 +39,12 @@ class FileRenameIntentTest {
         assertEquals("p", intent.newPattern());
         assertEquals(3, intent.startNumber());
     }
+
+    @Test
+    void sessionIntents_shouldReturnCorrectTypeAndPath() {
+        Path path = Path.of("session.bin");
+        assertEquals(FileRenameIntent.IntentType.SAVE_SESSION, new SaveSessionIntent(path).getIntentType());
+        assertEquals(FileRenameIntent.IntentType.RESTORE_SESSION, new RestoreSessionIntent(path).getIntentType());
+        assertEquals(path, new RestoreSessionIntent(path).path());
+    }
 }
@@ -0,0 +1,102 @@
+package org.example.metrics;
+
+import org.example.domain.FileRenameService;
+import org.example.domain.FileRenameServiceImpl;
+import org.example.domain.RenameProbe;
+import org.example.domain.RenameSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedFileRenameServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File createFile(String name) throws IOException {
+        return Files.createFile(tempDir.resolve(name)).toFile();
+    }
+
+    @Test
+    void enabled_recordsCountsAndLatenciesAndPassesSummaryToOnComplete() throws IOException {
+        File a = createFile("a");
+        File b = createFile("b");
+        createFile("N2");
+        RenameMetrics metrics = new RenameMetrics(true);
+        FileRenameService service = new InstrumentedFileRenameService(new FileRenameServiceImpl(), metrics);
+        SummaryCallback callback = new SummaryCallback();
+
+        service.renameFiles(List.of(a, b), "N[0-9]", 1, callback);
+
+        RenameSummary summary = callback.summary.get();
+        assertNotNull(summary);
+        assertEquals(2, summary.fileCount());
+        assertEquals(1, summary.renamed());
+        assertEquals(1, summary.exists());
+        assertEquals(0, summary.errors());
+        assertEquals(1, summary.move().count(), "이동 시간이 한 번 기록되어야 합니다");
+        assertTrue(summary.conflictCheck().count() >= 1, "충돌 확인 시간이 기록되어야 합니다");
+        assertEquals(2, summary.callback().count());
+        assertEquals(1, metrics.getJobCount());
+        assertEquals(1, metrics.getRenamedCount());
+        assertEquals(1, metrics.getExistsCount());
+        assertTrue(metrics.getLastSummary().contains("변경 1"));
+    }
+
+    @Test
+    void disabled_passesOriginalCallbackThrough() throws IOException {
+        File a = createFile("a");
+        RenameMetrics metrics = new RenameMetrics(false);
+        FileRenameService service = new InstrumentedFileRenameService(new FileRenameServiceImpl(), metrics);
+        SummaryCallback callback = new SummaryCallback();
+
+        service.renameFiles(List.of(a), "N[0-9]", 1, callback);
+
+        assertEquals(1, callback.completed);
+        assertNull(callback.summary.get(), "꺼져 있으면 요약이 없어야 합니다");
+        assertEquals(0, metrics.getJobCount());
+        assertTrue(Files.exists(tempDir.resolve("N1")));
+    }
+
+    @Test
+    void defaultProbe_isDisabled() {
+        assertFalse(new SummaryCallback().getProbe().isEnabled());
+        assertSame(RenameProbe.NONE, new SummaryCallback().getProbe());
+    }
+
+    private static class SummaryCallback implements FileRenameService.RenamingCallback {
+        final AtomicReference<RenameSummary> summary = new AtomicReference<>();
+        int completed;
+
+        @Override
+        public void onRenamed(File oldFile, File newFile) {
+        }
+
+        @Override
+        public void onExists(File newFile) {
+        }
+
+        @Override
+        public void onComplete(int count) {
+            completed++;
+        }
+
+        @Override
+        public void onComplete(int count, RenameSummary summary) {
+            this.summary.set(summary);
+            onComplete(count);
+        }
+
+        @Override
+        public void onError(File file, Exception e) {
+        }
+    }
+}
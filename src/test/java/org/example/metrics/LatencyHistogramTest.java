@@ -0,0 +1,48 @@
+package org.example.metrics;
+
+import org.example.domain.LatencyStats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void snapshot_reportsCountMeanMaxAndBucketedPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+
+        LatencyStats stats = histogram.snapshot();
+        assertEquals(100, stats.count());
+        assertEquals((99 * 1_000 + 1_000_000) / 100, stats.meanNanos());
+        assertEquals(1_000_000, stats.maxNanos());
+        // 1000ns 는 [512, 1023] 구간에 속하므로 상한값으로 근사
+        assertEquals(1_023, stats.p50Nanos());
+        assertEquals(1_023, stats.p99Nanos());
+    }
+
+    @Test
+    void merge_addsAllRecordedValues() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(5_000);
+        second.record(7_000);
+
+        first.merge(second);
+
+        LatencyStats stats = first.snapshot();
+        assertEquals(3, stats.count());
+        assertEquals(7_000, stats.maxNanos());
+        // 구간 상한(8191)은 실제 최댓값을 넘지 않도록 잘림
+        assertEquals(7_000, stats.p99Nanos());
+    }
+
+    @Test
+    void empty_snapshotIsZero() {
+        assertEquals(LatencyStats.EMPTY, new LatencyHistogram().snapshot());
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.presentation;
+
+import org.example.state.FileRenameState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenamePreviewCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileRenameState state;
+    private RenamePreviewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        state = new FileRenameState();
+        state.setCurrentPattern("A[0-9].txt");
+        state.setCurrentStartNumber(5);
+        cache = new RenamePreviewCache(state, 3);
+    }
+
+    @Test
+    void previewName_usesStartNumberPlusRowIndex() {
+        assertEquals("A5.txt", cache.previewName(0, new File("d", "x")));
+        assertEquals("A12.txt", cache.previewName(7, new File("d", "y")));
+    }
+
+    @Test
+    void previewName_isComputedOncePerRow() {
+        File file = new File("d", "x");
+        cache.previewName(0, file);
+        cache.previewName(0, file);
+        assertEquals(1, cache.getComputeCount());
+    }
+
+    @Test
+    void patternOrStartNumberChange_invalidatesCache() {
+        File file = new File("d", "x");
+        cache.previewName(0, file);
+
+        state.setCurrentPattern("B[0-9].txt");
+        assertEquals("B5.txt", cache.previewName(0, file));
+
+        state.setCurrentStartNumber(10);
+        assertEquals("B10.txt", cache.previewName(0, file));
+        assertEquals(3, cache.getComputeCount());
+    }
+
+    @Test
+    void replacedFileAtRow_isRecomputed() {
+        cache.previewName(0, new File("d", "x"));
+        cache.previewName(0, new File("d", "renamed"));
+        assertEquals(2, cache.getComputeCount());
+    }
+
+    @Test
+    void cache_isBoundedToCapacity() {
+        for (int i = 0; i < 10; i++) {
+            cache.previewName(i, new File("d", "f" + i));
+        }
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void hashToken_isComputedInBackgroundAndShownAfterRefresh() throws Exception {
+        File file = Files.writeString(tempDir.resolve("preview-hash.txt"), "abc").toFile();
+        CountDownLatch refreshed = new CountDownLatch(1);
+        cache.setRefreshAction(refreshed::countDown);
+        state.setCurrentPattern("[hash8][ext]");
+
+        assertEquals(RenamePreviewCache.HASHING, cache.previewName(0, file));
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS), "해시 계산이 끝나면 다시 그려야 합니다");
+        assertEquals("ba7816bf.txt", cache.previewName(0, file));
+        assertEquals(1, cache.getComputeCount());
+    }
+
+    @Test
+    void hashToken_unreadableFileIsHashedOnceAndCachedAsUnreadable() throws Exception {
+        File missing = tempDir.resolve("missing.txt").toFile();
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch refreshed = new CountDownLatch(1);
+        cache.setRefreshAction(() -> {
+            refreshes.incrementAndGet();
+            refreshed.countDown();
+        });
+        state.setCurrentPattern("[hash8][ext]");
+
+        // 계산이 끝나기 전에 여러 번 그려져도 계산과 refresh 등록은 한 번만 함
+        assertEquals(RenamePreviewCache.HASHING, cache.previewName(0, missing));
+        cache.previewName(0, missing);
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertEquals(RenamePreviewCache.UNREADABLE, cache.previewName(0, missing));
+        assertEquals(RenamePreviewCache.UNREADABLE, cache.previewName(0, missing));
+        Thread.sleep(100);
+        assertEquals(1, refreshes.get(), "읽을 수 없는 파일을 다시 계산하면 안 됩니다");
+    }
+}
@@ -53,6 +53,15 @@ class FileRenameStateTest {
         assertThrows(UnsupportedOperationException.class, () -> list.add(new File("x")));
     }
 
+    @Test
+    void addFile_duplicate_isAddedOnlyOnce() {
+        File f = new File("dir", "test.txt");
+        assertTrue(state.addFile(f));
+        assertFalse(state.addFile(new File("dir", "test.txt")));
+        assertEquals(1, state.getFileCount());
+        assertEquals(0, state.indexOfFile(f));
+    }
+
     @Test
     void addLog_andGetLogMessages_returnsUnmodifiableCopy() {
         state.addLog("hello");
@@ -62,4 +71,30 @@ class FileRenameStateTest {
         // 불변 복사본 확인
         assertThrows(UnsupportedOperationException.class, () -> logs.add("x"));
     }
+
+    @Test
+    void removeFiles_shouldRemoveInclusiveRange() {
+        for (int i = 0; i < 5; i++) {
+            state.addFile(new File("f" + i));
+        }
+        state.removeFiles(1, 3);
+        assertEquals(2, state.getFileCount());
+        assertEquals(new File("f0"), state.getFileAt(0));
+        assertEquals(new File("f4"), state.getFileAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> state.removeFiles(1, 2));
+    }
+
+    @Test
+    void addLog_overCapacity_shouldKeepOnlyRecentLinesAndTrackSequence() {
+        FileRenameState small = new FileRenameState(3);
+        for (int i = 1; i <= 5; i++) {
+            small.addLog("line" + i);
+        }
+        assertEquals(5, small.getLogSequence());
+        assertEquals(List.of("line3", "line4", "line5"), small.getLogMessages());
+        // 이미 본 줄 이후만 반환, 밀려난 줄은 건너뜀
+        assertEquals(List.of("line5"), small.getLogMessagesSince(4));
+        assertEquals(List.of("line3", "line4", "line5"), small.getLogMessagesSince(1));
+        assertTrue(small.getLogMessagesSince(5).isEmpty());
+    }
 }
@@ -0,0 +1,128 @@
+package org.example.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileStoreTest {
+
+    @Test
+    void add_duplicateFile_isIgnored() {
+        FileStore store = new FileStore();
+        assertTrue(store.add(new File("dir", "a.txt")));
+        assertTrue(store.add(new File("dir", "b.txt")));
+        assertFalse(store.add(new File("dir", "a.txt")), "같은 파일은 다시 추가되지 않아야 합니다");
+        assertTrue(store.add(new File("other", "a.txt")), "다른 폴더의 같은 이름은 별개 파일입니다");
+
+        assertEquals(3, store.size());
+        assertEquals(2, store.getDirectoryCount());
+        assertEquals(new File("other", "a.txt"), store.get(2));
+    }
+
+    @Test
+    void addWithoutParent_roundTrips() {
+        FileStore store = new FileStore();
+        store.add(new File("plain.txt"));
+        assertEquals(new File("plain.txt"), store.get(0));
+        assertEquals(0, store.indexOf(new File("plain.txt")));
+    }
+
+    @Test
+    void set_updatesMembershipIndex() {
+        FileStore store = new FileStore();
+        store.add(new File("dir", "old.txt"));
+        store.add(new File("dir", "keep.txt"));
+
+        store.set(0, new File("dir", "new.txt"));
+
+        assertEquals(new File("dir", "new.txt"), store.get(0));
+        assertEquals(-1, store.indexOf(new File("dir", "old.txt")));
+        assertEquals(0, store.indexOf(new File("dir", "new.txt")));
+        assertEquals(1, store.indexOf(new File("dir", "keep.txt")));
+        assertTrue(store.add(new File("dir", "old.txt")), "비워진 이름은 다시 추가할 수 있어야 합니다");
+    }
+
+    @Test
+    void removeRange_shiftsEntriesAndReindexes() {
+        FileStore store = new FileStore();
+        for (int i = 0; i < 10; i++) {
+            store.add(new File("dir", "f" + i));
+        }
+        store.removeRange(2, 4);
+
+        assertEquals(7, store.size());
+        assertEquals(new File("dir", "f5"), store.get(2));
+        assertEquals(2, store.indexOf(new File("dir", "f5")));
+        assertEquals(-1, store.indexOf(new File("dir", "f3")));
+    }
+
+    @Test
+    void removeAll_removesScatteredIndicesAndReindexes() {
+        FileStore store = new FileStore();
+        for (int i = 0; i < 10; i++) {
+            store.add(new File("dir", "f" + i));
+        }
+        store.removeAll(new int[]{1, 2, 5, 9});
+
+        assertEquals(6, store.size());
+        assertEquals(List.of(new File("dir", "f0"), new File("dir", "f3"), new File("dir", "f4"),
+                new File("dir", "f6"), new File("dir", "f7"), new File("dir", "f8")), store.snapshot());
+        assertEquals(3, store.indexOf(new File("dir", "f6")));
+        assertEquals(-1, store.indexOf(new File("dir", "f5")));
+        assertTrue(store.add(new File("dir", "f9")), "제거한 이름은 다시 추가할 수 있어야 합니다");
+        assertThrows(IllegalArgumentException.class, () -> store.removeAll(new int[]{3, 2}));
+    }
+
+    @Test
+    void manyEntriesWithRepeatedRenames_stayConsistent() {
+        FileStore store = new FileStore();
+        List<File> expected = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            File file = new File("dir" + (i % 7), "file-" + i + ".jpg");
+            store.add(file);
+            expected.add(file);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < expected.size(); i++) {
+                File renamed = new File(expected.get(i).getParent(), "r" + round + "-" + i + ".jpg");
+                store.set(i, renamed);
+                expected.set(i, renamed);
+            }
+        }
+        assertEquals(expected, store.snapshot());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, store.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    void snapshot_isUnaffectedByLaterChanges() {
+        FileStore store = new FileStore();
+        store.add(new File("dir", "a"));
+        List<File> snapshot = store.snapshot();
+        store.set(0, new File("dir", "b"));
+        store.add(new File("dir", "c"));
+
+        assertEquals(List.of(new File("dir", "a")), snapshot);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new File("x")));
+    }
+
+    @Test
+    void reorder_permutesEntriesAndKeepsIndexConsistent() {
+        FileStore store = new FileStore();
+        store.add(new File("dir", "a"));
+        store.add(new File("dir", "b"));
+        store.add(new File("dir", "c"));
+
+        store.reorder(new int[]{2, 0, 1});
+
+        assertEquals(List.of(new File("dir", "c"), new File("dir", "a"), new File("dir", "b")), store.snapshot());
+        assertEquals(0, store.indexOf(new File("dir", "c")));
+        assertEquals(2, store.indexOf(new File("dir", "b")));
+        assertThrows(IllegalArgumentException.class, () -> store.reorder(new int[]{0, 0, 1}));
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.state;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeAndRead_restoresFilesPatternStartNumberAndLogTail() throws IOException {
+        FileRenameState state = new FileRenameState();
+        state.addFile(new File("photos/2024", "IMG_0001.jpg"));
+        state.addFile(new File("photos/2024", "IMG_0002.jpg"));
+        state.addFile(new File("photos/2025", "IMG_0002.jpg"));
+        state.addFile(new File("사진", "여름_휴가.png"));
+        state.addFile(new File("plain.txt"));
+        state.setCurrentPattern("trip_[n:3][ext]");
+        state.setCurrentStartNumber(-5);
+        state.addLog("첫 줄");
+        state.addLog("둘째 줄");
+
+        Path path = tempDir.resolve("session.bin");
+        SessionSnapshot.capture(state).write(path);
+
+        FileRenameState restored = new FileRenameState();
+        restored.addFile(new File("old", "gone.txt"));
+        long version = restored.getFileListVersion();
+        SessionSnapshot snapshot = SessionSnapshot.read(path);
+        assertEquals(5, snapshot.getFileCount());
+        snapshot.applyTo(restored);
+
+        assertEquals(state.getFileList(), restored.getFileList());
+        assertEquals("trip_[n:3][ext]", restored.getCurrentPattern());
+        assertEquals(-5, restored.getCurrentStartNumber());
+        assertEquals(List.of("첫 줄", "둘째 줄"), restored.getLogMessages());
+        assertTrue(restored.getFileListVersion() > version, "목록이 바뀌었음을 알 수 있어야 합니다");
+        assertThrows(IllegalStateException.class, () -> snapshot.applyTo(restored));
+    }
+
+    @Test
+    void restoredStore_buildsIndexLazilyAndStaysEditable() throws IOException {
+        FileRenameState state = new FileRenameState();
+        for (int i = 0; i < 1_000; i++) {
+            state.addFile(new File("dir" + (i % 7), "file_" + i + ".txt"));
+        }
+        Path path = tempDir.resolve("session.bin");
+        SessionSnapshot.capture(state).write(path);
+
+        FileRenameState restored = new FileRenameState();
+        SessionSnapshot.read(path).applyTo(restored);
+
+        assertEquals(500, restored.indexOfFile(new File("dir3", "file_500.txt")));
+        assertFalse(restored.addFile(new File("dir3", "file_500.txt")), "복원된 파일과 중복이면 추가되지 않아야 합니다");
+        assertTrue(restored.addFile(new File("dir3", "new.txt")));
+        restored.removeFiles(0, 9);
+        assertEquals(new File("dir3", "file_10.txt"), restored.getFileAt(0));
+        assertEquals(-1, restored.indexOfFile(new File("dir0", "file_0.txt")));
+        assertEquals(990, restored.indexOfFile(new File("dir3", "new.txt")));
+    }
+
+    @Test
+    void write_keepsOnlyLogTail() throws IOException {
+        FileRenameState state = new FileRenameState();
+        for (int i = 0; i < SessionSnapshot.LOG_TAIL_LINES + 10; i++) {
+            state.addLog("line " + i);
+        }
+        Path path = tempDir.resolve("session.bin");
+        SessionSnapshot.capture(state).write(path);
+
+        List<String> tail = SessionSnapshot.read(path).getLogTail();
+        assertEquals(SessionSnapshot.LOG_TAIL_LINES, tail.size());
+        assertEquals("line 10", tail.get(0));
+    }
+
+    @Test
+    void read_rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = tempDir.resolve("foreign.bin");
+        Files.writeString(foreign, "not a session");
+        assertThrows(IOException.class, () -> SessionSnapshot.read(foreign));
+
+        FileRenameState state = new FileRenameState();
+        state.addFile(new File("dir", "a.txt"));
+        state.addFile(new File("dir", "b.txt"));
+        Path path = tempDir.resolve("session.bin");
+        SessionSnapshot.capture(state).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        Path truncated = tempDir.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> SessionSnapshot.read(truncated));
+    }
+}
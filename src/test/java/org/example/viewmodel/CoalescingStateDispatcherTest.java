@@ -0,0 +1,105 @@
+package org.example.viewmodel;
+
+import org.example.state.FileRenameState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingStateDispatcherTest {
+
+    private final BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+    private final List<String> received = new ArrayList<>();
+    private ScheduledExecutorService timer;
+    private CoalescingStateDispatcher dispatcher;
+    private FileRenameState state;
+
+    @BeforeEach
+    void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+        state = new FileRenameState();
+        for (int i = 0; i < 10; i++) {
+            state.addFile(new File("f" + i));
+        }
+        FileRenameViewModel.StateListener target = new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+                received.add(type.name());
+            }
+
+            @Override
+            public void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+                received.add("inserted " + fromIndex + "-" + toIndex);
+            }
+
+            @Override
+            public void onFilesReplaced(int fromIndex, int toIndex, FileRenameState state) {
+                received.add("replaced " + fromIndex + "-" + toIndex);
+            }
+
+            @Override
+            public void onProgress(FileRenameState state) {
+                received.add("progress");
+            }
+        };
+        dispatcher = new CoalescingStateDispatcher(target, uiQueue::add, timer, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void events_shouldBeMergedIntoSingleFlush() {
+        dispatcher.onFilesInserted(0, 1, state);
+        dispatcher.onFilesInserted(2, 3, state);
+        dispatcher.onFileReplaced(5, state);
+        dispatcher.onFileReplaced(2, state);
+        for (int i = 0; i < 100; i++) {
+            dispatcher.onStateChanged(FileRenameViewModel.ResultType.LOG_MESSAGE, state);
+            dispatcher.onProgress(state);
+        }
+
+        // 첫 알림에서 한 번만 예약되고, 전달 전까지 리스너는 아무것도 받지 않음
+        assertEquals(1, uiQueue.size());
+        assertTrue(received.isEmpty());
+
+        uiQueue.poll().run();
+        assertEquals(List.of("inserted 0-3", "replaced 2-5", "LOG_MESSAGE", "progress"), received);
+    }
+
+    @Test
+    void removalOrGap_shouldFallBackToListReload() {
+        dispatcher.onFilesInserted(0, 1, state);
+        dispatcher.onFilesRemoved(3, 3, state);
+        dispatcher.onFileReplaced(4, state);
+
+        uiQueue.poll().run();
+        assertEquals(List.of("LIST_RELOAD"), received);
+    }
+
+    @Test
+    void eventAfterFlush_shouldBeDeliveredOnNextFrame() throws Exception {
+        dispatcher.onStateChanged(FileRenameViewModel.ResultType.LOG_MESSAGE, state);
+        uiQueue.poll().run();
+        received.clear();
+
+        dispatcher.onFileReplaced(7, state);
+        // 간격 안에 들어온 알림은 타이머로 예약되어 마지막 상태까지 전달됨
+        Runnable flush = uiQueue.poll(1, TimeUnit.SECONDS);
+        assertNotNull(flush, "예약된 전달이 실행되어야 합니다");
+        flush.run();
+        assertEquals(List.of("replaced 7-7"), received);
+    }
+}
@@ -1,20 +1,49 @@
 package org.example.viewmodel;
 
+import org.example.domain.BatchRenamingCallback;
 import org.example.domain.FileRenameService;
+import org.example.domain.FileRenameServiceImpl;
+import org.example.domain.FileSortKey;
+import org.example.domain.NameTemplate;
+import org.example.domain.RecursiveFileCollector;
+import org.example.domain.RenameBatch;
+import org.example.domain.RenameNamer;
+import org.example.domain.RenameRuleChain;
+import org.example.intent.AddDirectoryIntent;
 import org.example.intent.AddFilesIntent;
+import org.example.intent.AddRenameRuleIntent;
+import org.example.intent.CancelRenameIntent;
+import org.example.intent.ClearRenameRulesIntent;
+import org.example.intent.LiveSyncIntent;
 import org.example.intent.PatternChangedIntent;
+import org.example.intent.RedoRenameIntent;
 import org.example.intent.RenameFilesIntent;
+import org.example.intent.RestoreSessionIntent;
+import org.example.intent.SaveSessionIntent;
+import org.example.intent.SortFilesIntent;
 import org.example.intent.StartNumberChangedIntent;
+import org.example.intent.UndoRenameIntent;
 import org.example.state.FileRenameState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FileRenameViewModelTest {
@@ -22,10 +51,13 @@ class FileRenameViewModelTest {
     private FileRenameViewModel vm;
     private TestListener listener;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         // Stub 서비스: 콜백을 즉시 호출
-        FileRenameService stubService = (files, newPattern, startNumber, callback) -> {
+        PatternService stubService = (files, newPattern, startNumber, callback) -> {
             File oldFile = files.get(0);
             File newFile = new File(oldFile.getParent(), newPattern.replaceFirst("\\[0-9]", String.valueOf(startNumber)));
             callback.onRenamed(oldFile, newFile);
@@ -66,6 +98,37 @@ class FileRenameViewModelTest {
         assertEquals(FileRenameViewModel.ResultType.LOG_MESSAGE, listener.types.get(1));
     }
 
+    @Test
+    void processAddFilesIntent_shouldReportInsertedRange() {
+        List<int[]> ranges = new java.util.ArrayList<>();
+        vm.setListener(new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+            }
+
+            @Override
+            public void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+                ranges.add(new int[]{fromIndex, toIndex});
+            }
+        });
+        vm.processIntent(new AddFilesIntent(List.of(new File("a"), new File("b"))));
+        vm.processIntent(new AddFilesIntent(List.of(new File("c"))));
+
+        assertEquals(2, ranges.size());
+        assertEquals(0, ranges.get(0)[0]);
+        assertEquals(1, ranges.get(0)[1]);
+        assertEquals(2, ranges.get(1)[0]);
+        assertEquals(2, ranges.get(1)[1]);
+    }
+
+    @Test
+    void processAddFilesIntent_repeated_isIdempotent() {
+        vm.processIntent(new AddFilesIntent(List.of(new File("d", "a"), new File("d", "b"))));
+        vm.processIntent(new AddFilesIntent(List.of(new File("d", "a"), new File("d", "b"), new File("d", "c"))));
+
+        assertEquals(List.of(new File("d", "a"), new File("d", "b"), new File("d", "c")), vm.getState().getFileList());
+    }
+
     @Test
     void processRenameFilesIntent_shouldUpdateStateAndNotify() throws NoSuchFieldException, IllegalAccessException {
         // 먼저 파일 추가
@@ -88,6 +151,500 @@ class FileRenameViewModelTest {
                 .anyMatch(msg -> msg.contains("총 1개의 파일명이 변경되었습니다.")));
     }
 
+    @Test
+    void processRenameFilesIntent_shouldReportRenamedPositionWithoutReload() throws Exception {
+        // 위치를 함께 전달하는 서비스: 두 번째 파일만 변경
+        PatternService indexedService = (files, newPattern, startNumber, callback) -> {
+            File oldFile = files.get(1);
+            callback.onRenamed(1, oldFile, new File(oldFile.getParent(), "renamed.txt"));
+            callback.onComplete(1);
+        };
+        FileRenameViewModel indexedVm = new FileRenameViewModel(indexedService);
+        java.util.List<Integer> positions = new java.util.ArrayList<>();
+        indexedVm.setListener(new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+            }
+
+            @Override
+            public void onFileReplaced(int index, FileRenameState state) {
+                positions.add(index);
+            }
+        });
+        indexedVm.processIntent(new AddFilesIntent(List.of(new File("d", "a.txt"), new File("d", "b.txt"))));
+        indexedVm.processIntent(new RenameFilesIntent("N[0-9].ext", 1));
+
+        assertEquals(List.of(1), positions);
+        Field fState = FileRenameViewModel.class.getDeclaredField("state");
+        fState.setAccessible(true);
+        FileRenameState state = (FileRenameState) fState.get(indexedVm);
+        assertEquals("a.txt", state.getFileAt(0).getName());
+        assertEquals("renamed.txt", state.getFileAt(1).getName());
+    }
+
+    @Test
+    void processRenameFilesIntent_withUiExecutor_shouldBatchEventsAndStopOnCancel() {
+        java.util.ArrayDeque<Runnable> uiQueue = new java.util.ArrayDeque<>();
+        FileRenameViewModel[] holder = new FileRenameViewModel[1];
+        // 파일 사이마다 취소 여부를 확인하는 서비스. 첫 파일 처리 후 취소 인텐트가 들어옴
+        PatternService cancellingService = (files, newPattern, startNumber, callback) -> {
+            int count = 0;
+            for (int i = 0; i < files.size() && !callback.isCancelled(); i++) {
+                File oldFile = files.get(i);
+                callback.onRenamed(i, oldFile, new File(oldFile.getParent(), "n" + i));
+                count++;
+                holder[0].processIntent(new CancelRenameIntent());
+            }
+            callback.onComplete(count);
+        };
+        FileRenameViewModel asyncVm = new FileRenameViewModel(cancellingService, Runnable::run, uiQueue::add);
+        holder[0] = asyncVm;
+        asyncVm.setListener(listener);
+        asyncVm.processIntent(new AddFilesIntent(List.of(new File("d", "a"), new File("d", "b"), new File("d", "c"))));
+        drain(uiQueue);
+        listener.reset();
+
+        asyncVm.processIntent(new RenameFilesIntent("n[0-9]", 1));
+
+        // 인텐트도 UI 스레드에서 처리되므로, 예약된 처리 작업이 실행되기 전에는 작업이 시작되지 않음
+        assertEquals(1, uiQueue.size());
+        FileRenameState state = asyncVm.getState();
+        assertTrue(!state.isRenameRunning());
+        uiQueue.poll().run();
+
+        // 콜백은 UI 스레드에 한 번만 예약되고(취소 로그 예약과 별도), 실행 전까지 상태는 바뀌지 않음
+        assertEquals(2, uiQueue.size());
+        assertTrue(state.isRenameRunning());
+        assertEquals("a", state.getFileAt(0).getName());
+
+        drain(uiQueue);
+
+        assertEquals("n0", state.getFileAt(0).getName());
+        assertEquals("b", state.getFileAt(1).getName());
+        assertEquals(1, state.getProgressDone());
+        assertTrue(!state.isRenameRunning());
+        assertTrue(state.getLogMessages().stream().anyMatch(msg -> msg.contains("작업이 취소되었습니다. 총 1개")));
+    }
+
+    @Test
+    void processRenameFilesIntent_withBatchEngine_appliesEachBatchWithOneNotification() {
+        // 묶음을 지원하는 엔진: 세 파일의 결과를 한 묶음으로 전달
+        PatternService batchService = (files, newPattern, startNumber, callback) -> {
+            RenameBatch batch = new RenameBatch(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                File oldFile = files.get(i);
+                batch.addRenamed(i, oldFile, new File(oldFile.getParent(), "b" + i));
+            }
+            ((BatchRenamingCallback) callback).onBatch(batch);
+            callback.onComplete(files.size());
+        };
+        FileRenameViewModel batchVm = new FileRenameViewModel(batchService);
+        java.util.List<int[]> ranges = new java.util.ArrayList<>();
+        AtomicInteger singleReplacements = new AtomicInteger();
+        batchVm.setListener(new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+            }
+
+            @Override
+            public void onFileReplaced(int index, FileRenameState state) {
+                singleReplacements.incrementAndGet();
+            }
+
+            @Override
+            public void onFilesReplaced(int fromIndex, int toIndex, FileRenameState state) {
+                ranges.add(new int[]{fromIndex, toIndex});
+            }
+        });
+        batchVm.processIntent(new AddFilesIntent(List.of(new File("d", "a"), new File("d", "b"), new File("d", "c"))));
+
+        batchVm.processIntent(new RenameFilesIntent("b[0-9]", 1));
+
+        assertEquals(1, ranges.size());
+        assertEquals(0, ranges.get(0)[0]);
+        assertEquals(2, ranges.get(0)[1]);
+        assertEquals(0, singleReplacements.get());
+        assertEquals("b2", batchVm.getState().getFileAt(2).getName());
+        assertEquals(3, batchVm.getState().getProgressDone());
+    }
+
+    @Test
+    void processRenameFilesIntent_batchWithStateOnlyListener_reloadsOnce() {
+        PatternService batchService = (files, newPattern, startNumber, callback) -> {
+            RenameBatch batch = new RenameBatch(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                File oldFile = files.get(i);
+                batch.addRenamed(i, oldFile, new File(oldFile.getParent(), "r" + i));
+            }
+            ((BatchRenamingCallback) callback).onBatch(batch);
+            callback.onComplete(files.size());
+        };
+        FileRenameViewModel batchVm = new FileRenameViewModel(batchService);
+        TestListener stateOnly = new TestListener();
+        batchVm.setListener(stateOnly);
+        List<File> files = new java.util.ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            files.add(new File("d", "f" + i));
+        }
+        batchVm.processIntent(new AddFilesIntent(files));
+        stateOnly.reset();
+
+        batchVm.processIntent(new RenameFilesIntent("r[0-9]", 1));
+
+        // 교체 구간 하나는 행마다가 아니라 한 번만 다시 읽게 함
+        assertEquals(1, stateOnly.types.stream().filter(type -> type == FileRenameViewModel.ResultType.LIST_RELOAD).count());
+    }
+
+    @Test
+    void processSortFilesIntent_reordersListNaturallyAndReloads() {
+        vm.processIntent(new AddFilesIntent(List.of(new File("d", "ep10"), new File("d", "ep2"), new File("d", "ep1"))));
+        listener.reset();
+
+        vm.processIntent(new SortFilesIntent(FileSortKey.NATURAL_NAME));
+
+        assertEquals(List.of(new File("d", "ep1"), new File("d", "ep2"), new File("d", "ep10")), vm.getState().getFileList());
+        assertEquals(List.of(FileRenameViewModel.ResultType.LIST_RELOAD, FileRenameViewModel.ResultType.LOG_MESSAGE), listener.types);
+    }
+
+    @Test
+    void processIntent_mergesQueuedInputAndAddIntentsOnUiThread() {
+        java.util.ArrayDeque<Runnable> uiQueue = new java.util.ArrayDeque<>();
+        FileRenameViewModel queuedVm = new FileRenameViewModel((PatternService) (files, pattern, startNumber, callback) -> {
+        }, Runnable::run, uiQueue::add);
+        List<String> events = new java.util.ArrayList<>();
+        queuedVm.setListener(new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+                events.add(type.name());
+            }
+
+            @Override
+            public void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+                events.add("inserted " + fromIndex + "~" + toIndex);
+            }
+        });
+
+        queuedVm.processIntent(new PatternChangedIntent("a"));
+        queuedVm.processIntent(new StartNumberChangedIntent(5));
+        queuedVm.processIntent(new PatternChangedIntent("ab"));
+        queuedVm.processIntent(new PatternChangedIntent("abc"));
+        queuedVm.processIntent(new AddFilesIntent(List.of(new File("d", "1"))));
+        queuedVm.processIntent(new AddFilesIntent(List.of(new File("d", "2"), new File("d", "1"))));
+        queuedVm.processIntent(new AddFilesIntent(List.of(new File("d", "3"))));
+
+        // 여러 번 넣어도 UI 스레드에는 한 번만 예약되고, 실행 전에는 상태가 바뀌지 않음
+        assertEquals(1, uiQueue.size());
+        assertEquals("", queuedVm.getState().getCurrentPattern());
+        uiQueue.poll().run();
+
+        assertEquals("abc", queuedVm.getState().getCurrentPattern());
+        assertEquals(5, queuedVm.getState().getCurrentStartNumber());
+        assertEquals(List.of(new File("d", "1"), new File("d", "2"), new File("d", "3")), queuedVm.getState().getFileList());
+        assertEquals(List.of("PREVIEW_CHANGED", "inserted 0~2", "LOG_MESSAGE"), events);
+        assertTrue(uiQueue.isEmpty());
+
+        // 처리 중 리스너에서 넣은 인텐트도 같은 실행 안에서 이어서 처리됨
+        events.clear();
+        queuedVm.setListener((type, state) -> {
+            events.add(type.name());
+            if (type == FileRenameViewModel.ResultType.LOG_MESSAGE && state.getFileCount() == 3) {
+                queuedVm.processIntent(new PatternChangedIntent("next"));
+            }
+        });
+        queuedVm.processIntent(new AddFilesIntent(List.of(new File("d", "1"))));
+        uiQueue.poll().run();
+        assertEquals("next", queuedVm.getState().getCurrentPattern());
+        assertTrue(uiQueue.isEmpty());
+    }
+
+    @Test
+    void processUndoAndRedoIntent_revertAndReapplyRecordedRenames() throws Exception {
+        Path one = Files.writeString(tempDir.resolve("1.txt"), "one");
+        Path two = Files.writeString(tempDir.resolve("2.txt"), "two");
+        Path log = Files.writeString(tempDir.resolve("keep.log"), "log");
+        FileRenameViewModel realVm = new FileRenameViewModel(new FileRenameServiceImpl());
+        realVm.processIntent(new AddFilesIntent(List.of(one.toFile(), two.toFile(), log.toFile())));
+        realVm.processIntent(new UndoRenameIntent());
+        assertTrue(realVm.getState().getLogMessages().contains("되돌릴 작업이 없습니다."));
+
+        // 1.txt → 2.txt, 2.txt → 3.txt 처럼 이어지는 변경은 되돌릴 때도 2.txt → 1.txt, 3.txt → 2.txt 로 이어짐
+        realVm.processIntent(new RenameFilesIntent("[0-9].txt", 2));
+        List<File> renamed = List.of(tempDir.resolve("2.txt").toFile(), tempDir.resolve("3.txt").toFile(),
+                tempDir.resolve("4.txt").toFile());
+        assertEquals(renamed, realVm.getState().getFileList());
+        // 목록 순서가 바뀌어도 파일로 위치를 찾아 되돌림
+        realVm.processIntent(new SortFilesIntent(FileSortKey.NATURAL_NAME, true));
+
+        realVm.processIntent(new UndoRenameIntent());
+        assertEquals("one", Files.readString(one));
+        assertEquals("two", Files.readString(two));
+        assertEquals("log", Files.readString(log));
+        assertEquals(List.of(log.toFile(), two.toFile(), one.toFile()), realVm.getState().getFileList());
+
+        realVm.processIntent(new RedoRenameIntent());
+        assertEquals("one", Files.readString(tempDir.resolve("2.txt")));
+        assertEquals("two", Files.readString(tempDir.resolve("3.txt")));
+        assertEquals(List.of(renamed.get(2), renamed.get(1), renamed.get(0)), realVm.getState().getFileList());
+        realVm.processIntent(new RedoRenameIntent());
+        assertTrue(realVm.getState().getLogMessages().contains("다시 실행할 작업이 없습니다."));
+
+        // 새 작업을 하면 되돌렸던 작업은 다시 실행할 수 없음
+        realVm.processIntent(new UndoRenameIntent());
+        realVm.processIntent(new RenameFilesIntent("x[0-9].txt", 1));
+        realVm.processIntent(new RedoRenameIntent());
+        List<String> logs = realVm.getState().getLogMessages();
+        assertEquals("다시 실행할 작업이 없습니다.", logs.get(logs.size() - 1));
+    }
+
+    @Test
+    void processSaveAndRestoreSessionIntent_roundTripsListAndInputs() {
+        vm.processIntent(new AddFilesIntent(List.of(new File("d", "a.txt"), new File("d", "b.txt"), new File("e", "c.txt"))));
+        vm.processIntent(new PatternChangedIntent("photo_[n:2]"));
+        vm.processIntent(new StartNumberChangedIntent(7));
+        Path session = tempDir.resolve("session.bin");
+        vm.processIntent(new SaveSessionIntent(session));
+        assertTrue(Files.isRegularFile(session));
+
+        FileRenameViewModel restored = new FileRenameViewModel((PatternService) (files, pattern, startNumber, callback) -> {
+        });
+        TestListener restoredListener = new TestListener();
+        restored.setListener(restoredListener);
+        restored.processIntent(new RestoreSessionIntent(session));
+
+        assertEquals(vm.getState().getFileList(), restored.getState().getFileList());
+        assertEquals("photo_[n:2]", restored.getState().getCurrentPattern());
+        assertEquals(7, restored.getState().getCurrentStartNumber());
+        assertTrue(restored.getState().getLogMessages().contains("파일 추가됨: " + new File("d", "a.txt").getAbsolutePath()),
+                "최근 로그도 함께 복원되어야 합니다");
+        assertEquals(List.of(FileRenameViewModel.ResultType.LIST_RELOAD, FileRenameViewModel.ResultType.SESSION_RESTORED,
+                FileRenameViewModel.ResultType.PREVIEW_CHANGED, FileRenameViewModel.ResultType.LOG_MESSAGE), restoredListener.types);
+
+        restoredListener.reset();
+        restored.processIntent(new RestoreSessionIntent(tempDir.resolve("missing.bin")));
+        assertEquals(List.of(FileRenameViewModel.ResultType.LOG_MESSAGE), restoredListener.types);
+        assertEquals(3, restored.getState().getFileCount(), "복원에 실패하면 목록을 그대로 두어야 합니다");
+    }
+
+    @Test
+    void processAddRuleIntent_renamesWithRuleChainUntilCleared() {
+        RenameNamer[] used = new RenameNamer[1];
+        vm = new FileRenameViewModel(new FileRenameService() {
+            @Override
+            public void renameFiles(List<File> files, RenameNamer namer, int startNumber, RenamingCallback callback) {
+                used[0] = namer;
+                RenameNamer.Session session = namer.open(files.toArray(new File[0]));
+                File oldFile = files.get(0);
+                callback.onRenamed(0, oldFile, new File(oldFile.getParent(), session.name(0, oldFile, startNumber)));
+                callback.onComplete(1);
+            }
+
+            @Override
+            public void moveFiles(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                                  RenamingCallback callback) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        vm.setListener(listener);
+        vm.processIntent(new AddFilesIntent(List.of(new File("show", "Show.S01E07.mkv"))));
+
+        // 잘못된 정규식은 규칙 목록을 바꾸지 않고 로그만 남김
+        listener.reset();
+        vm.processIntent(new AddRenameRuleIntent("S01E(\\d+", "x"));
+        assertTrue(vm.getState().getRenameRules().isEmpty());
+        assertEquals(List.of(FileRenameViewModel.ResultType.LOG_MESSAGE), listener.types);
+
+        listener.reset();
+        vm.processIntent(new AddRenameRuleIntent("S01E(\\d+)", "Episode $1"));
+        assertEquals(List.of(FileRenameViewModel.ResultType.PREVIEW_CHANGED, FileRenameViewModel.ResultType.LOG_MESSAGE),
+                listener.types);
+
+        vm.processIntent(new RenameFilesIntent("ignored[0-9]", 1));
+        assertTrue(used[0] instanceof RenameRuleChain);
+        assertEquals(new File("show", "Show.Episode 07.mkv"), vm.getState().getFileAt(0));
+
+        vm.processIntent(new ClearRenameRulesIntent());
+        vm.processIntent(new PatternChangedIntent("A[0-9]"));
+        vm.processIntent(new RenameFilesIntent("A[0-9]", 1));
+        assertSame(vm.getState().getNameTemplate(), used[0]);
+    }
+
+    @Test
+    void processLiveSyncIntent_appliesOutsideChangesAsDeltas() throws Exception {
+        Path dir = tempDir;
+        Path first = Files.writeString(dir.resolve("ep1.mkv"), "1");
+        Path second = Files.writeString(dir.resolve("ep2.mkv"), "2");
+        Path third = Files.writeString(dir.resolve("ep3.mkv"), "3");
+        // 감시 스레드에서 온 반영 작업은 테스트 스레드에서 직접 실행
+        BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+        vm = new FileRenameViewModel((PatternService) (files, newPattern, startNumber, callback) -> callback.onComplete(0),
+                Runnable::run, uiQueue::add);
+        List<String> events = new java.util.ArrayList<>();
+        vm.setListener(new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+                events.add(type.name());
+            }
+
+            @Override
+            public void onFileReplaced(int index, FileRenameState state) {
+                events.add("replaced " + index);
+            }
+
+            @Override
+            public void onFilesRemoved(int fromIndex, int toIndex, FileRenameState state) {
+                events.add("removed " + fromIndex + "~" + toIndex);
+            }
+
+            @Override
+            public void onFilesInserted(int fromIndex, int toIndex, FileRenameState state) {
+                events.add("inserted " + fromIndex + "~" + toIndex);
+            }
+        });
+        vm.processIntent(new AddFilesIntent(List.of(first.toFile(), second.toFile(), third.toFile())));
+        vm.processIntent(new LiveSyncIntent(true));
+        drain(uiQueue);
+        events.clear();
+
+        Files.move(first, dir.resolve("pilot.mkv"));
+        Files.delete(third);
+        Path added = Files.writeString(dir.resolve("extra.srt"), "x");
+        FileRenameState state = vm.getState();
+        pump(uiQueue, () -> state.getFileCount() == 2 && state.containsFile(dir.resolve("pilot.mkv").toFile()));
+        Thread.sleep(500);
+        drain(uiQueue);
+
+        // 사라진 ep1 자리에 pilot 이 들어가고 ep3 은 제거되며, 짝이 없는 새 파일은 추가하지 않음
+        assertEquals(List.of(dir.resolve("pilot.mkv").toFile(), second.toFile()), state.getFileList());
+        assertFalse(state.containsFile(added.toFile()));
+        assertTrue(events.contains("replaced 0"), events.toString());
+        assertTrue(events.contains("removed 2~2"), events.toString());
+        assertFalse(events.stream().anyMatch(event -> event.startsWith("inserted")), events.toString());
+
+        vm.processIntent(new LiveSyncIntent(false));
+        drain(uiQueue);
+        Files.delete(second);
+        Thread.sleep(500);
+        drain(uiQueue);
+        assertTrue(state.containsFile(second.toFile()), "동기화를 끄면 반영하지 않음");
+    }
+
+    @Test
+    void processLiveSyncIntent_scatteredDeletesInOneBatch_notifyOnce() throws Exception {
+        List<File> files = new java.util.ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            files.add(Files.writeString(tempDir.resolve("ep" + i + ".mkv"), "x").toFile());
+        }
+        BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+        vm = new FileRenameViewModel((PatternService) (f, newPattern, startNumber, callback) -> callback.onComplete(0),
+                Runnable::run, uiQueue::add);
+        List<String> events = new java.util.ArrayList<>();
+        vm.setListener(new FileRenameViewModel.StateListener() {
+            @Override
+            public void onStateChanged(FileRenameViewModel.ResultType type, FileRenameState state) {
+                events.add(type.name());
+            }
+
+            @Override
+            public void onFilesRemoved(int fromIndex, int toIndex, FileRenameState state) {
+                events.add("removed " + fromIndex + "~" + toIndex);
+            }
+        });
+        vm.processIntent(new AddFilesIntent(files));
+        vm.processIntent(new LiveSyncIntent(true));
+        drain(uiQueue);
+        events.clear();
+
+        // 한 묶음 안에서 떨어진 위치 세 곳이 사라짐
+        Files.delete(files.get(0).toPath());
+        Files.delete(files.get(2).toPath());
+        Files.delete(files.get(4).toPath());
+        FileRenameState state = vm.getState();
+        pump(uiQueue, () -> state.getFileCount() == 2);
+        drain(uiQueue);
+
+        assertEquals(List.of(files.get(1), files.get(3)), state.getFileList());
+        assertEquals(List.of("LIST_RELOAD", "LOG_MESSAGE"), events);
+        vm.processIntent(new LiveSyncIntent(false));
+        drain(uiQueue);
+    }
+
+    @Test
+    void addDirectory_boundsPendingChunksAndStopsOnCancel() throws Exception {
+        Path dir = Files.createDirectory(tempDir.resolve("scan"));
+        int chunkSize = RecursiveFileCollector.DEFAULT_CHUNK_SIZE;
+        for (int i = 0; i < chunkSize * (FileRenameViewModel.MAX_PENDING_SCAN_CHUNKS + 2); i++) {
+            Files.createFile(dir.resolve("f" + i));
+        }
+        ExecutorService scanExecutor = Executors.newSingleThreadExecutor();
+        BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+        vm = new FileRenameViewModel((PatternService) (files, newPattern, startNumber, callback) -> callback.onComplete(0),
+                scanExecutor, uiQueue::add);
+        FileRenameState state = vm.getState();
+
+        vm.processIntent(new AddDirectoryIntent(List.of(dir.toFile())));
+        // 인텐트 처리로 탐색이 시작되고, UI 스레드가 묶음을 반영하지 않으므로 한도에서 멈춰야 함
+        uiQueue.take().run();
+        assertTrue(state.isScanRunning());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (uiQueue.size() < FileRenameViewModel.MAX_PENDING_SCAN_CHUNKS && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assertEquals(FileRenameViewModel.MAX_PENDING_SCAN_CHUNKS, uiQueue.size(), "반영되지 않은 묶음이 한도를 넘으면 안 됩니다");
+
+        vm.processIntent(new CancelRenameIntent());
+        scanExecutor.shutdown();
+        assertTrue(scanExecutor.awaitTermination(5, TimeUnit.SECONDS), "취소하면 탐색이 끝나야 합니다");
+        drain(uiQueue);
+
+        // 이미 넘긴 묶음만 반영됨
+        assertEquals(chunkSize * FileRenameViewModel.MAX_PENDING_SCAN_CHUNKS, state.getFileCount());
+        assertFalse(state.isScanRunning());
+        assertTrue(state.getLogMessages().stream().anyMatch(log -> log.startsWith("폴더 탐색 취소")),
+                state.getLogMessages().toString());
+    }
+
+    private static void pump(BlockingQueue<Runnable> uiQueue, BooleanSupplier done) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!done.getAsBoolean() && System.nanoTime() < deadline) {
+            Runnable task = uiQueue.poll(50, TimeUnit.MILLISECONDS);
+            if (task != null) {
+                task.run();
+            }
+        }
+        assertTrue(done.getAsBoolean(), "시간 안에 반영되지 않았습니다");
+    }
+
+    private static void drain(java.util.Queue<Runnable> uiQueue) {
+        Runnable task;
+        while ((task = uiQueue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * 패턴 문자열만 받아 처리하는 테스트용 서비스. 람다로 만들 수 있도록 패턴 메서드만 남겨 둡니다.
+     */
+    @FunctionalInterface
+    interface PatternService extends FileRenameService {
+        @Override
+        void renameFiles(List<File> files, String newPattern, int startNumber, RenamingCallback callback);
+
+        @Override
+        default void renameFiles(List<File> files, RenameNamer namer, int startNumber, RenamingCallback callback) {
+            if (!(namer instanceof NameTemplate template)) {
+                throw new UnsupportedOperationException("pattern only: " + namer);
+            }
+            renameFiles(files, template.getPattern(), startNumber, callback);
+        }
+
+        @Override
+        default void moveFiles(List<File> files, RenameNamer namer, int startNumber, File targetDirectory,
+                               RenamingCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     static class TestListener implements FileRenameViewModel.StateListener {
         final AtomicInteger count = new AtomicInteger(0);
         final java.util.List<FileRenameViewModel.ResultType> types = new java.util.ArrayList<>();